@@ -0,0 +1,170 @@
+package org.opentdk.api.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generates the data sets of the benchmarks. The data only depends on the number of rows and a fixed seed, so
+ * every run measures the same input without shipping test files.
+ *
+ * @author FME (LK Test Solutions)
+ */
+final class BenchmarkData {
+
+    static final String DELIMITER = ";";
+
+    static final String[] HEADERS = {"ID", "Name", "Age", "Country", "Date", "Comment"};
+
+    private static final String[] NAMES = {"Anna", "Ben", "Hannah", "Lukas", "Marie", "Paul", "Sophie", "Felix"};
+    private static final String[] COUNTRIES = {"Deutschland", "Österreich", "Schweiz", "Frankreich", "Italien", "Spanien"};
+
+    /**
+     * Date formats that are detected by {@link org.opentdk.api.util.DateUtil}, used in rotation.
+     */
+    private static final String[] DATE_FORMATS = {"%04d-%02d-%02d", "%3$02d.%2$02d.%1$04d", "%04d/%02d/%02d"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param rows number of rows without the header
+     * @return the header followed by the rows of the table
+     */
+    static List<String[]> createTable(int rows) {
+        Random random = new Random(42);
+        List<String[]> table = new ArrayList<>(rows + 1);
+        table.add(HEADERS.clone());
+        for (int i = 0; i < rows; i++) {
+            table.add(new String[] {
+                    String.valueOf(i + 1),
+                    NAMES[random.nextInt(NAMES.length)],
+                    String.valueOf(18 + random.nextInt(70)),
+                    COUNTRIES[random.nextInt(COUNTRIES.length)],
+                    createDate(random, 0),
+                    "Entry " + random.nextInt(1000) + " created at " + createTime(random)
+            });
+        }
+        return table;
+    }
+
+    /**
+     * @param count number of dates
+     * @return dates in several formats
+     */
+    static String[] createDates(int count) {
+        Random random = new Random(7);
+        String[] dates = new String[count];
+        for (int i = 0; i < count; i++) {
+            dates[i] = createDate(random, i % DATE_FORMATS.length);
+        }
+        return dates;
+    }
+
+    /**
+     * @param count number of lines
+     * @return log lines with a date and time somewhere in the text
+     */
+    static String[] createLogLines(int count) {
+        Random random = new Random(11);
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = "INFO [worker-" + random.nextInt(16) + "] " + createDate(random, i % DATE_FORMATS.length) + " " + createTime(random)
+                    + " request " + random.nextInt(100000) + " finished after " + random.nextInt(5000) + " ms";
+        }
+        return lines;
+    }
+
+    static void writeCSV(Path file, int rows) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String[] row : createTable(rows)) {
+                writer.write(String.join(DELIMITER, row));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeJSON(Path file, int rows) {
+        List<String[]> table = createTable(rows);
+        StringBuilder sb = new StringBuilder("{\"persons\":[");
+        for (int i = 1; i < table.size(); i++) {
+            String[] row = table.get(i);
+            sb.append(i > 1 ? "," : "").append('{');
+            for (int j = 0; j < HEADERS.length; j++) {
+                sb.append(j > 0 ? "," : "").append('"').append(HEADERS[j]).append("\":\"").append(row[j]).append('"');
+            }
+            sb.append('}');
+        }
+        write(file, sb.append("]}").toString());
+    }
+
+    static void writeYAML(Path file, int rows) {
+        List<String[]> table = createTable(rows);
+        StringBuilder sb = new StringBuilder("persons:\n");
+        for (int i = 1; i < table.size(); i++) {
+            String[] row = table.get(i);
+            for (int j = 0; j < HEADERS.length; j++) {
+                sb.append(j == 0 ? "  - " : "    ").append(HEADERS[j]).append(": \"").append(row[j]).append("\"\n");
+            }
+        }
+        write(file, sb.toString());
+    }
+
+    static void writeXML(Path file, int rows) {
+        List<String[]> table = createTable(rows);
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<persons>\n");
+        for (int i = 1; i < table.size(); i++) {
+            String[] row = table.get(i);
+            sb.append("  <person id=\"").append(row[0]).append("\" country=\"").append(row[3]).append("\">\n");
+            for (int j = 1; j < HEADERS.length; j++) {
+                sb.append("    <").append(HEADERS[j]).append('>').append(row[j]).append("</").append(HEADERS[j]).append(">\n");
+            }
+            sb.append("  </person>\n");
+        }
+        write(file, sb.append("</persons>\n").toString());
+    }
+
+    /**
+     * Deletes a directory that was created for the data sets, including its files.
+     *
+     * @param dir the directory to delete
+     */
+    static void delete(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(Path file, String content) {
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String createDate(Random random, int format) {
+        return String.format(DATE_FORMATS[format], 2000 + random.nextInt(25), 1 + random.nextInt(12), 1 + random.nextInt(28));
+    }
+
+    private static String createTime(Random random) {
+        return String.format("%02d:%02d:%02d", random.nextInt(24), random.nextInt(60), random.nextInt(60));
+    }
+}
@@ -0,0 +1,84 @@
+package org.opentdk.api.benchmark;
+
+import org.opentdk.api.datastorage.DataContainer;
+import org.opentdk.api.filter.EOperator;
+import org.opentdk.api.filter.Filter;
+import org.opentdk.api.util.CSVUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading, writing and filtering of CSV files.
+ *
+ * @author FME (LK Test Solutions)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVBenchmark {
+
+    @Param({"10000", "200000"})
+    public int rows;
+
+    private Path dir;
+    private Path csvFile;
+    private Path outputFile;
+    private List<String[]> table;
+    private DataContainer container;
+    private Filter filter;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("opentdk-csv");
+        csvFile = dir.resolve("persons.csv");
+        outputFile = dir.resolve("output.csv");
+        BenchmarkData.writeCSV(csvFile, rows);
+        table = CSVUtil.readFile(csvFile.toFile(), BenchmarkData.DELIMITER, StandardCharsets.UTF_8);
+        container = DataContainer.newContainer(csvFile);
+        filter = new Filter();
+        filter.addFilterRule("Country", "Schweiz", EOperator.EQUALS);
+        filter.addFilterRule("Age", "50", EOperator.GREATER_OR_EQUAL_THAN);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public List<String[]> readFile() throws IOException {
+        return CSVUtil.readFile(csvFile.toFile(), BenchmarkData.DELIMITER, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long writeFile() throws IOException {
+        CSVUtil.writeFile(table, outputFile, BenchmarkData.DELIMITER, StandardCharsets.UTF_8);
+        return Files.size(outputFile);
+    }
+
+    @Benchmark
+    public List<String[]> getRowsFiltered() {
+        return container.tabInstance().getRows(filter);
+    }
+}
@@ -0,0 +1,60 @@
+package org.opentdk.api.benchmark;
+
+import org.opentdk.api.util.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detection and comparison of dates in strings with {@link DateUtil}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateBenchmark {
+
+    private static final int VALUES = 1000;
+
+    private String[] logLines;
+    private String[] dates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        logLines = BenchmarkData.createLogLines(VALUES);
+        dates = BenchmarkData.createDates(VALUES);
+    }
+
+    @Benchmark
+    public void findDate(Blackhole bh) {
+        for (String line : logLines) {
+            bh.consume(DateUtil.findDate(line));
+        }
+    }
+
+    @Benchmark
+    public int compare() {
+        int after = 0;
+        for (int i = 1; i < dates.length; i++) {
+            if (DateUtil.compare(dates[i], dates[i - 1]) > 0) {
+                after++;
+            }
+        }
+        return after;
+    }
+}
@@ -0,0 +1,114 @@
+package org.opentdk.api.benchmark;
+
+import org.opentdk.api.filter.EOperator;
+import org.opentdk.api.filter.FilterRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * {@link FilterRule#checkValue(String)} for every comparing {@link EOperator}, compared to the check of
+ * {@link FilterRule#compile()}. The concatenating operators AND, OR and BETWEEN can not be used to check a
+ * value and are left out.
+ *
+ * @author FME (LK Test Solutions)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final int VALUES = 1000;
+
+    @Param({"CONTAINS", "CONTAINS_DATE", "CONTAINS_DATE_AFTER", "CONTAINS_DATE_BEFORE", "CONTAINS_IGNORE_CASE",
+            "DATE_AFTER", "DATE_BEFORE", "DATE_EQUALS", "ENDS_WITH", "ENDS_WITH_IGNORE_CASE", "EQUALS",
+            "EQUALS_IGNORE_CASE", "GREATER_THAN", "GREATER_OR_EQUAL_THAN", "LESS_THAN", "LESS_OR_EQUAL_THAN",
+            "NOT_EQUALS", "NOT_EQUALS_IGNORE_CASE", "STARTS_WITH", "STARTS_WITH_IGNORE_CASE", "IN"})
+    public String operator;
+
+    private String[] values;
+    private FilterRule rule;
+    private Predicate<String> check;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        EOperator op = EOperator.valueOf(operator);
+        List<String[]> table = BenchmarkData.createTable(VALUES);
+        values = new String[VALUES];
+        switch (op) {
+            case CONTAINS_DATE, CONTAINS_DATE_AFTER, CONTAINS_DATE_BEFORE -> {
+                values = BenchmarkData.createLogLines(VALUES);
+                rule = new FilterRule("Comment", "2012-06-15", op);
+            }
+            case DATE_AFTER, DATE_BEFORE, DATE_EQUALS -> {
+                values = BenchmarkData.createDates(VALUES);
+                rule = new FilterRule("Date", "2012-06-15", op);
+            }
+            case GREATER_THAN, GREATER_OR_EQUAL_THAN, LESS_THAN, LESS_OR_EQUAL_THAN -> {
+                fillColumn(table, 2);
+                rule = new FilterRule("Age", "50", op);
+            }
+            case IN -> {
+                fillColumn(table, 1);
+                rule = new FilterRule("Name", new String[] {"Anna", "Paul", "Felix"}, op);
+            }
+            case CONTAINS, CONTAINS_IGNORE_CASE, ENDS_WITH, ENDS_WITH_IGNORE_CASE -> {
+                fillColumn(table, 1);
+                rule = new FilterRule("Name", "ann", op);
+            }
+            case STARTS_WITH, STARTS_WITH_IGNORE_CASE -> {
+                fillColumn(table, 1);
+                rule = new FilterRule("Name", "Ma", op);
+            }
+            default -> {
+                fillColumn(table, 1);
+                rule = new FilterRule("Name", "Hannah", op);
+            }
+        }
+        check = rule.compile();
+    }
+
+    @Benchmark
+    public int checkValue() {
+        int matches = 0;
+        for (String value : values) {
+            if (rule.checkValue(value)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int compiledCheck() {
+        int matches = 0;
+        for (String value : values) {
+            if (check.test(value)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private void fillColumn(List<String[]> table, int column) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = table.get(i + 1)[column];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.opentdk.api.benchmark;
+
+import org.opentdk.api.util.MathUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transformations of {@link MathUtil} on a {@link List} compared to the in place transformations of an array.
+ * The array is copied before every transformation, so both variants start from the same values.
+ *
+ * @author FME (LK Test Solutions)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private List<Double> list;
+    private double[] values;
+    private double[] work;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(0.1 + random.nextDouble() * 100);
+        }
+        values = MathUtil.listToArray(list);
+        work = new double[size];
+    }
+
+    @Benchmark
+    public List<Double> logList() {
+        return MathUtil.logListValues(list);
+    }
+
+    @Benchmark
+    public double[] logArray() {
+        return MathUtil.logValues(copy());
+    }
+
+    @Benchmark
+    public List<Double> rootList() {
+        return MathUtil.rootListValues(list);
+    }
+
+    @Benchmark
+    public double[] rootArray() {
+        return MathUtil.rootValues(copy());
+    }
+
+    @Benchmark
+    public List<Double> inversList() {
+        return MathUtil.inversListValues(list);
+    }
+
+    @Benchmark
+    public double[] inversArray() {
+        return MathUtil.inversValues(copy());
+    }
+
+    @Benchmark
+    public List<Double> logisticList() {
+        return MathUtil.logisticListValues(list, 50);
+    }
+
+    @Benchmark
+    public double[] logisticArray() {
+        return MathUtil.logisticValues(copy(), 50);
+    }
+
+    @Benchmark
+    public List<Double> normList() {
+        List<Double> copy = new ArrayList<>(list);
+        MathUtil.norm(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public double[] normArray() {
+        return MathUtil.norm(copy());
+    }
+
+    private double[] copy() {
+        System.arraycopy(values, 0, work, 0, size);
+        return work;
+    }
+}
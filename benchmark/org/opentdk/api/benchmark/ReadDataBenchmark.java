@@ -0,0 +1,69 @@
+package org.opentdk.api.benchmark;
+
+import org.opentdk.api.datastorage.DataContainer;
+import org.opentdk.api.datastorage.EContainerFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading of JSON, YAML and XML files with the same content into a {@link DataContainer}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadDataBenchmark {
+
+    @Param({"JSON", "YAML", "XML"})
+    public EContainerFormat format;
+
+    @Param({"1000", "20000"})
+    public int rows;
+
+    private Path dir;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("opentdk-read");
+        file = dir.resolve("persons." + format.name().toLowerCase());
+        switch (format) {
+            case JSON -> BenchmarkData.writeJSON(file, rows);
+            case YAML -> BenchmarkData.writeYAML(file, rows);
+            case XML -> BenchmarkData.writeXML(file, rows);
+            default -> throw new IllegalArgumentException("Format not supported by the benchmark: " + format);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public DataContainer readData() throws IOException {
+        DataContainer container = DataContainer.newContainer(format);
+        container.readData(file);
+        return container;
+    }
+}
@@ -0,0 +1,97 @@
+package org.opentdk.api.benchmark;
+
+import org.opentdk.api.io.XMLEditor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.xpath.XPathExpressionException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XPath lookups of {@link XMLEditor} in a loaded document. The same expressions are evaluated repeatedly, like
+ * an application that reads its settings. The document is also written to a file, like a generated report.
+ *
+ * @author FME (LK Test Solutions)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLEditorBenchmark {
+
+    private static final int LOOKUPS = 100;
+
+    @Param({"100", "5000"})
+    public int rows;
+
+    private Path dir;
+    private XMLEditor editor;
+    private String[] elementPaths;
+    private String[] valuePaths;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, ParserConfigurationException, SAXException {
+        dir = Files.createTempDirectory("opentdk-xpath");
+        Path file = dir.resolve("persons.xml");
+        BenchmarkData.writeXML(file, rows);
+        editor = new XMLEditor(file);
+        elementPaths = new String[LOOKUPS];
+        valuePaths = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int id = 1 + (int) ((long) i * rows / LOOKUPS);
+            elementPaths[i] = "/persons/person[@id='" + id + "']";
+            valuePaths[i] = "/persons/person[" + id + "]/Name";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public void getElement(Blackhole bh) throws XPathExpressionException {
+        for (String path : elementPaths) {
+            bh.consume(editor.getElement(path));
+        }
+    }
+
+    @Benchmark
+    public void readXPath(Blackhole bh) throws XPathExpressionException {
+        for (String path : valuePaths) {
+            bh.consume(editor.readXPath(path));
+        }
+    }
+
+    @Benchmark
+    public List<Element> getElementsListByXPath() throws XPathExpressionException {
+        return editor.getElementsListByXPath("//person[@country='Schweiz']");
+    }
+
+    @Benchmark
+    public void save() throws IOException, TransformerException {
+        editor.save(dir.resolve("saved.xml").toFile());
+    }
+}
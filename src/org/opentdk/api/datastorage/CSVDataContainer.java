@@ -1,18 +1,33 @@
 package org.opentdk.api.datastorage;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import org.opentdk.api.exception.DataContainerException;
+import org.opentdk.api.filter.CompiledFilter;
+import org.opentdk.api.filter.EOperator;
 import org.opentdk.api.filter.Filter;
 import org.opentdk.api.filter.FilterRule;
 import org.opentdk.api.util.CSVUtil;
+import org.opentdk.api.util.MappedCSVReader;
+import org.opentdk.api.util.QuantileSketch;
 
 import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A container class to manage CSV data, including headers and rows.
@@ -24,6 +39,92 @@ import java.util.stream.Stream;
 @Getter
 public class CSVDataContainer implements SpecificContainer {
 
+    /**
+     * Defines the engine that gets used to read CSV files.
+     */
+    public enum EReadMode {
+        /**
+         * Reads the file line by line with a buffered reader and splits each line with the delimiter.
+         */
+        BUFFERED,
+        /**
+         * Maps the file into memory and splits the lines by scanning the raw bytes, see
+         * {@link MappedCSVReader}. Requires a single character delimiter, other delimiters and regular
+         * expression meta characters like | are read with {@link #BUFFERED}.
+         */
+        MAPPED
+    }
+
+    /**
+     * Defines how the rows of the container are stored in memory.
+     */
+    public enum EStorageMode {
+        /**
+         * Stores every row as an array of strings.
+         */
+        ROWS,
+        /**
+         * Stores every column in its own growable array, see {@link ColumnStore}. Column scans and
+         * appending columns only touch the affected column. Rows that are shorter than the header row
+         * or the widest row are filled with empty strings.
+         */
+        COLUMNS
+    }
+
+    /**
+     * Defines the type of the secondary indexes that can be created with {@link #createIndex(String, EIndexType)}.
+     */
+    public enum EIndexType {
+        /**
+         * Hash index that supports lookups for {@link EOperator#EQUALS}, {@link EOperator#EQUALS_IGNORE_CASE}
+         * and {@link EOperator#IN} rules.
+         */
+        HASH,
+        /**
+         * Sorted index that additionally supports lookups for the range operators like
+         * {@link EOperator#GREATER_THAN} or {@link EOperator#LESS_OR_EQUAL_THAN} on numeric values.
+         */
+        SORTED
+    }
+
+    /**
+     * Defines the aggregations that get calculated by {@link #aggregate(String, Filter, Set, String...)}.
+     */
+    public enum EAggregation {
+        /**
+         * Number of numeric values.
+         */
+        COUNT,
+        /**
+         * Sum of the numeric values.
+         */
+        SUM,
+        /**
+         * Arithmetic mean of the numeric values.
+         */
+        MEAN,
+        /**
+         * Smallest numeric value.
+         */
+        MIN,
+        /**
+         * Greatest numeric value.
+         */
+        MAX,
+        /**
+         * Sample standard deviation of the numeric values.
+         */
+        STDDEV,
+        /**
+         * Estimated percentiles of the numeric values, see {@link QuantileSketch}.
+         */
+        PERCENTILE,
+        /**
+         * Number of distinct values, including the values that are not a number.
+         */
+        COUNT_DISTINCT
+    }
+
     /**
      * Represents a collection of rows where each row is an array of strings.
      * Used to store tabular data or structured information.
@@ -51,6 +152,44 @@ public class CSVDataContainer implements SpecificContainer {
     @Setter
     private String delimiter = ";";
 
+    /**
+     * The engine used by {@link #readData(Path)} and {@link #streamRows(Path, Filter)}. The default is
+     * {@link EReadMode#BUFFERED}. If the {@link #delimiter} is not supported by the
+     * {@link EReadMode#MAPPED} engine, the buffered engine gets used.
+     */
+    @Setter
+    private EReadMode readMode = EReadMode.BUFFERED;
+
+    /**
+     * Defines if the data is stored row by row in {@link #rows} or column by column in the
+     * {@link #columnStore}. The default is {@link EStorageMode#ROWS}.
+     */
+    private EStorageMode storageMode = EStorageMode.ROWS;
+
+    /**
+     * Holds the data in the {@link EStorageMode#COLUMNS} mode, null in the {@link EStorageMode#ROWS} mode.
+     */
+    @Getter(AccessLevel.NONE)
+    private ColumnStore columnStore;
+
+    /**
+     * Headers of the columns that are stored as {@link DictionaryColumn} in the
+     * {@link EStorageMode#COLUMNS} mode, see {@link #setDictionaryEncoding(String, boolean)}.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Set<String> dictionaryHeaders = new HashSet<>();
+
+    /**
+     * Minimum number of rows that get aggregated by one task of {@link #aggregate(String, Filter, Set, String...)}.
+     */
+    private static final int AGGREGATION_CHUNK_SIZE = 1 << 14;
+
+    /**
+     * Secondary indexes of the container by column header, see {@link #createIndex(String, EIndexType)}.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, ColumnIndex> indexes = new HashMap<>();
+
     /**
      * Creates a new instance of the CSVDataContainer.
      *
@@ -94,11 +233,156 @@ public class CSVDataContainer implements SpecificContainer {
      */
     @Override
     public void readData(Path sourceFile) throws IOException {
-        rows = CSVUtil.readFile(sourceFile.toFile(), delimiter, StandardCharsets.UTF_8);
-        headers = rows.getFirst();
+        if (storageMode == EStorageMode.COLUMNS) {
+            // Fill the columns row by row without holding all rows in memory
+            try (Stream<String[]> dataRows = streamRows(sourceFile, new Filter())) {
+                ColumnStore store = new ColumnStore();
+                store.ensureColumnCount(headers.length);
+                applyDictionaryEncoding(store);
+                dataRows.forEach(store::addRow);
+                columnStore = store;
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return;
+        }
+        invalidateIndexes();
+        if (isMappedReadMode()) {
+            rows = CSVUtil.readFileMapped(sourceFile.toFile(), delimiter, StandardCharsets.UTF_8);
+        } else {
+            rows = CSVUtil.readFile(sourceFile.toFile(), delimiter, StandardCharsets.UTF_8);
+        }
+        assignHeaders(rows.getFirst());
         rows.removeFirst(); // Headers are stored and can be removed from the rows list
-        for(int i = 0; i < headers.length; i++) {
-            headerMap.put(headers[i], i);
+    }
+
+    /**
+     * Reads data from the specified source file and parses it in parallel with the given number of
+     * threads, see {@link CSVUtil#readFile(File, String, Charset, int)}. The rows are stored in the
+     * same order as with {@link #readData(Path)}.
+     *
+     * @param sourceFile The path to the input file containing the CSV data to be read.
+     * @param parallelism The number of threads used to parse the file, e.g. {@code Runtime.getRuntime().availableProcessors()}.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    public void readData(Path sourceFile, int parallelism) throws IOException {
+        storeData(CSVUtil.readFile(sourceFile.toFile(), delimiter, StandardCharsets.UTF_8, parallelism));
+    }
+
+    /**
+     * Reads the specified source file in streaming mode. Only the header line gets stored in the
+     * container, all following lines are parsed one at a time and only the rows that match the filter
+     * are passed to the returned stream. This keeps the memory consumption constant, independent of
+     * the file size. The rows of the container are reset and not filled by this method.
+     * <pre>
+     * try (Stream&lt;String[]&gt; rows = container.streamRows(path, filter)) {
+     *     rows.forEach(row -&gt; ...);
+     * }
+     * </pre>
+     *
+     * @param sourceFile The path to the input file containing the CSV data to be read.
+     * @param filter The filter object defining the conditions that the returned rows have to match.
+     * @return A lazy stream of the matching rows that has to be closed after usage.
+     * @throws IOException If an I/O error occurs while opening the file.
+     */
+    public Stream<String[]> streamRows(Path sourceFile, Filter filter) throws IOException {
+        invalidateIndexes();
+        rows = new ArrayList<>();
+        if (storageMode == EStorageMode.COLUMNS) {
+            columnStore = new ColumnStore();
+        }
+        if (isMappedReadMode()) {
+            return streamMappedRows(sourceFile, filter);
+        }
+        Stream<String[]> lines = CSVUtil.streamFile(sourceFile, delimiter, StandardCharsets.UTF_8);
+        Iterator<String[]> iterator = lines.iterator();
+        if (!iterator.hasNext()) {
+            lines.close();
+            return Stream.empty();
+        }
+        CompiledFilter rowFilter;
+        try {
+            assignHeaders(iterator.next());
+            rowFilter = filter.compile(headerMap);
+        } catch (RuntimeException e) {
+            lines.close();
+            throw e;
+        }
+        Spliterator<String[]> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).filter(rowFilter).onClose(lines::close);
+    }
+
+    /**
+     * Streaming implementation for the {@link EReadMode#MAPPED} engine. The filter gets checked on the
+     * lazy cells of the reader, so only the cells used by the filter rules and the cells of matching
+     * rows get decoded.
+     */
+    private Stream<String[]> streamMappedRows(Path sourceFile, Filter filter) throws IOException {
+        MappedCSVReader reader = new MappedCSVReader(sourceFile, delimiter, StandardCharsets.UTF_8);
+        CompiledFilter rowFilter;
+        try {
+            if (!reader.next()) {
+                reader.close();
+                return Stream.empty();
+            }
+            assignHeaders(reader.toArray());
+            rowFilter = filter.compile(headerMap);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        IntFunction<String> cells = reader::get;
+        Iterator<String[]> iterator = new Iterator<>() {
+            private String[] nextRow;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (nextRow == null && reader.next()) {
+                        if (rowFilter.test(cells)) {
+                            nextRow = reader.toArray();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return nextRow != null;
+            }
+
+            @Override
+            public String[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String[] ret = nextRow;
+                nextRow = null;
+                return ret;
+            }
+        };
+        Spliterator<String[]> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Reads the specified source file in streaming mode and passes every row that matches the filter
+     * to the given action. See {@link #streamRows(Path, Filter)}.
+     *
+     * @param sourceFile The path to the input file containing the CSV data to be read.
+     * @param filter The filter object defining the conditions that the rows have to match.
+     * @param action The operation that gets performed for each matching row.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    public void forEachRow(Path sourceFile, Filter filter, Consumer<String[]> action) throws IOException {
+        try (Stream<String[]> matchingRows = streamRows(sourceFile, filter)) {
+            matchingRows.forEach(action);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
@@ -116,7 +400,7 @@ public class CSVDataContainer implements SpecificContainer {
      */
     @Override
     public void readData(InputStream stream) throws IOException {
-        rows = new ArrayList<>();
+        List<String[]> data = new ArrayList<>();
         List<String> content = null;
         if (stream != null) {
             InputStreamReader inputStreamReader = new InputStreamReader(stream);
@@ -128,11 +412,10 @@ public class CSVDataContainer implements SpecificContainer {
         }
         if(content != null) {
             for(String row : content) {
-                rows.add(row.split(delimiter));
+                data.add(row.split(delimiter));
             }
-            headers = rows.getFirst();
-            rows.removeFirst();
         }
+        storeData(data);
     }
 
     /**
@@ -147,6 +430,90 @@ public class CSVDataContainer implements SpecificContainer {
         CSVUtil.writeFile(getRowsWithHeader(), outputFile, delimiter, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Retrieves all rows of the container. In the {@link EStorageMode#COLUMNS} mode the rows get
+     * materialized into a new list, so changes of the returned list or arrays do not affect the container.
+     *
+     * @return a list of String arrays with all rows of the container, without the header row
+     */
+    public List<String[]> getRows() {
+        if (storageMode == EStorageMode.COLUMNS) {
+            return columnStore.toRows();
+        }
+        return rows;
+    }
+
+    /**
+     * @return the number of rows in the container, without the header row
+     */
+    public int getRowCount() {
+        if (storageMode == EStorageMode.COLUMNS) {
+            return columnStore.getRowCount();
+        }
+        return rows.size();
+    }
+
+    /**
+     * Changes the layout that is used to store the rows in memory. Data that is already stored in the
+     * container gets transposed into the new layout.
+     *
+     * @param storageMode the new storage mode, see {@link EStorageMode}
+     */
+    public void setStorageMode(EStorageMode storageMode) {
+        if (storageMode == this.storageMode) {
+            return;
+        }
+        invalidateIndexes();
+        if (storageMode == EStorageMode.COLUMNS) {
+            columnStore = ColumnStore.of(rows);
+            columnStore.ensureColumnCount(headers.length);
+            rows = new ArrayList<>();
+        } else {
+            rows = columnStore.toRows();
+            columnStore = null;
+            dictionaryHeaders.clear();
+        }
+        this.storageMode = storageMode;
+    }
+
+    /**
+     * Enables or disables the dictionary encoding of a column. An encoded column stores every distinct
+     * value only once and keeps an int code per row, see {@link DictionaryColumn}. This reduces the memory
+     * of columns with few distinct values, and filter rules on the column get evaluated once per distinct
+     * value instead of once per row, so e.g. {@link org.opentdk.api.filter.EOperator#EQUALS} and
+     * {@link org.opentdk.api.filter.EOperator#IN} rules only compare the codes of the rows.
+     * The setting is kept when new data gets read, until the storage mode changes to {@link EStorageMode#ROWS}.
+     *
+     * @param columnHeader the header of the column
+     * @param encoded true to store the column with dictionary encoding, false to store the plain values
+     * @throws DataContainerException if the container is not in {@link EStorageMode#COLUMNS} mode or the column does not exist
+     */
+    public void setDictionaryEncoding(String columnHeader, boolean encoded) {
+        if (storageMode != EStorageMode.COLUMNS) {
+            throw new DataContainerException("Dictionary encoding is only supported in storage mode " + EStorageMode.COLUMNS);
+        }
+        Integer columnIndex = headerMap.get(columnHeader);
+        if (columnIndex == null) {
+            throw new DataContainerException("Column '" + columnHeader + "' not found.");
+        }
+        columnStore.ensureColumnCount(columnIndex + 1);
+        if (encoded) {
+            dictionaryHeaders.add(columnHeader);
+            columnStore.encodeColumn(columnIndex);
+        } else {
+            dictionaryHeaders.remove(columnHeader);
+            columnStore.decodeColumn(columnIndex);
+        }
+    }
+
+    /**
+     * @param columnHeader the header of the column
+     * @return true if the column is stored with dictionary encoding
+     */
+    public boolean isDictionaryEncoded(String columnHeader) {
+        return dictionaryHeaders.contains(columnHeader);
+    }
+
     /**
      * Retrieves a row from the data container based on the provided index.
      * If the row index is out of range, a {@link DataContainerException} is thrown.
@@ -157,10 +524,13 @@ public class CSVDataContainer implements SpecificContainer {
      * @throws DataContainerException if the row index is out of range
      */
     public String[] getRow(int rowIndex) {
-        if (rows.isEmpty()) {
+        if (getRowCount() == 0) {
             return null;
         }
-        if (rowIndex >= 0 && rowIndex < rows.size()) {
+        if (rowIndex >= 0 && rowIndex < getRowCount()) {
+            if (storageMode == EStorageMode.COLUMNS) {
+                return columnStore.getRow(rowIndex);
+            }
             return rows.get(rowIndex);
         }
         throw new DataContainerException("Row index is out of range");
@@ -174,15 +544,11 @@ public class CSVDataContainer implements SpecificContainer {
      *         or if the dataset is empty.
      */
     public String[] getRow(Filter filter) {
-        if (rows.isEmpty()) {
+        if (getRowCount() == 0) {
             return null;
         }
-        for(String[] row : rows) {
-            if(checkValuesFilter(row, filter)) {
-                return row;
-            }
-        }
-        return null;
+        int rowIndex = getRowIndex(filter);
+        return rowIndex < 0 ? null : getRow(rowIndex);
     }
 
     /**
@@ -193,14 +559,12 @@ public class CSVDataContainer implements SpecificContainer {
      *         Returns null if the data container does not contain any rows.
      */
     public List<String[]> getRows(Filter filter) {
-        if (rows.isEmpty()) {
+        if (getRowCount() == 0) {
             return null;
         }
         List<String[]> ret = new ArrayList<>();
-        for(String[] row : rows) {
-            if(checkValuesFilter(row, filter)) {
-                ret.add(row);
-            }
+        for (int rowIndex : getRowsIndexes(filter)) {
+            ret.add(getRow(rowIndex));
         }
         return ret;
     }
@@ -214,7 +578,7 @@ public class CSVDataContainer implements SpecificContainer {
      * @throws DataContainerException If the column header is not found or the row index is out of range.
      */
     public String getValue(int rowIndex, String columnHeader) {
-        if (rows.isEmpty()) {
+        if (getRowCount() == 0) {
             return null;
         }
         int columnIndex;
@@ -223,7 +587,10 @@ public class CSVDataContainer implements SpecificContainer {
         } catch (NullPointerException e) {
             throw new DataContainerException("Column '" + columnHeader + "' not found.");
         }
-        if (rowIndex >= 0 && rowIndex < rows.size()) {
+        if (rowIndex >= 0 && rowIndex < getRowCount()) {
+            if (storageMode == EStorageMode.COLUMNS) {
+                return columnStore.get(rowIndex, columnIndex);
+            }
             return rows.get(rowIndex)[columnIndex];
         }
         throw new DataContainerException("Row index is out of range");
@@ -238,9 +605,19 @@ public class CSVDataContainer implements SpecificContainer {
      *         or null if the rows are empty.
      */
     public List<String> getColumn(String columnHeader) {
-        if (rows.isEmpty()) {
+        if (getRowCount() == 0) {
             return null;
         }
+        if (storageMode == EStorageMode.COLUMNS) {
+            int columnIndex = findColumnIndex(columnHeader);
+            if (columnIndex < 0) {
+                return new ArrayList<>();
+            }
+            if (columnIndex >= columnStore.getColumnCount()) {
+                return new ArrayList<>(Collections.nCopies(getRowCount(), ""));
+            }
+            return columnStore.getColumn(columnIndex).toList();
+        }
         rows.addFirst(headers);
         List<String> ret = CSVUtil.getColumn(rows, columnHeader);
         rows.removeFirst();
@@ -257,6 +634,16 @@ public class CSVDataContainer implements SpecificContainer {
      * @return a list of strings containing the values from the specified column, filtered by the given criteria
      */
     public List<String> getColumn(String columnHeader, Filter filter) {
+        if (storageMode == EStorageMode.COLUMNS) {
+            List<String> ret = new ArrayList<>();
+            int columnIndex = findColumnIndex(columnHeader);
+            if (columnIndex >= 0) {
+                for (int rowIndex : getRowsIndexes(filter)) {
+                    ret.add(columnStore.get(rowIndex, columnIndex));
+                }
+            }
+            return ret;
+        }
         List<String[]> filteredRows = getRows(filter);
         filteredRows.addFirst(headers);
         List<String> ret = CSVUtil.getColumn(filteredRows, columnHeader);
@@ -264,6 +651,175 @@ public class CSVDataContainer implements SpecificContainer {
         return ret;
     }
 
+    /**
+     * Calculates count, sum, mean, minimum, maximum and standard deviation of a numeric column for each group
+     * of rows with the same values in the key columns, see {@link #aggregate(String, Filter, Set, String...)}.
+     *
+     * @param valueColumn the header of the column with the values to be aggregated
+     * @param keyColumns the headers of the columns that define the groups, none for a single group of all rows
+     * @return the aggregated values of each group by the values of the key columns
+     * @throws DataContainerException if one of the columns does not exist
+     */
+    public Map<List<String>, GroupAggregate> aggregate(String valueColumn, String... keyColumns) {
+        return aggregate(valueColumn, null, EnumSet.range(EAggregation.COUNT, EAggregation.STDDEV), keyColumns);
+    }
+
+    /**
+     * Aggregates a column for each group of rows with the same values in the key columns, like a
+     * <code>GROUP BY</code> of SQL. Only the values of the value column that are numbers are considered by the
+     * numeric aggregations. The rows are split into ranges that get aggregated in parallel on the common
+     * {@link ForkJoinPool}, and the results of the ranges are merged. No lists of the column values get
+     * created, and in the {@link EStorageMode#COLUMNS} mode the cached numbers of the column get used
+     * instead of parsing the values.
+     * <pre>
+     * Map&lt;List&lt;String&gt;, GroupAggregate&gt; result = container.aggregate("Duration", filter,
+     *         EnumSet.of(EAggregation.MEAN, EAggregation.PERCENTILE), "Region", "Product");
+     * double p95 = result.get(List.of("EMEA", "Shop")).getPercentile(95);
+     * </pre>
+     * The data must not be changed while the aggregation is running.
+     *
+     * @param valueColumn the header of the column with the values to be aggregated
+     * @param filter the filter that selects the rows to be aggregated, or null for all rows
+     * @param aggregations the aggregations to calculate. Count, sum, mean, minimum, maximum and standard
+     *                     deviation are always calculated, percentiles and distinct values only if requested.
+     * @param keyColumns the headers of the columns that define the groups, none for a single group of all rows
+     * @return the aggregated values of each group by the values of the key columns, in no particular order
+     * @throws DataContainerException if one of the columns does not exist
+     */
+    public Map<List<String>, GroupAggregate> aggregate(String valueColumn, Filter filter, Set<EAggregation> aggregations, String... keyColumns) {
+        int valueIndex = getAggregationColumn(valueColumn);
+        int[] keyIndexes = new int[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            keyIndexes[i] = getAggregationColumn(keyColumns[i]);
+        }
+        IntPredicate rowFilter = filter == null ? null : createRowFilter(filter);
+        int[] candidates = filter == null ? null : findIndexedRows(filter);
+        int size = candidates != null ? candidates.length : getRowCount();
+        // The numbers get cached before the tasks access them from several threads
+        double[] numbers = null;
+        if (storageMode == EStorageMode.COLUMNS && valueIndex < columnStore.getColumnCount()) {
+            numbers = columnStore.getColumn(valueIndex).getNumbers();
+        }
+        AggregationTask task = new AggregationTask(new AggregationContext(valueIndex, keyIndexes, rowFilter, candidates, numbers, aggregations), 0, size);
+        Map<Object, GroupAggregate> groups = ForkJoinPool.commonPool().invoke(task);
+        Map<List<String>, GroupAggregate> ret = new HashMap<>(groups.size() * 2);
+        for (Map.Entry<Object, GroupAggregate> group : groups.entrySet()) {
+            ret.put(toKeyList(group.getKey()), group.getValue());
+        }
+        return ret;
+    }
+
+    /**
+     * Settings of an aggregation that are shared by all tasks.
+     *
+     * @param valueIndex the index of the value column
+     * @param keyIndexes the indexes of the key columns
+     * @param rowFilter the check of the filter, or null for all rows
+     * @param candidates the rows found by an index, or null for all rows
+     * @param numbers the cached numbers of the value column, or null if the values have to be parsed
+     * @param aggregations the requested aggregations
+     */
+    private record AggregationContext(int valueIndex, int[] keyIndexes, IntPredicate rowFilter, int[] candidates,
+                                      double[] numbers, Set<EAggregation> aggregations) {
+    }
+
+    /**
+     * Aggregates a range of rows. Large ranges are split in halves that are aggregated in parallel. The
+     * groups are identified by the value of the key column, or by a list of values for several key columns.
+     */
+    private class AggregationTask extends RecursiveTask<Map<Object, GroupAggregate>> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient AggregationContext context;
+        private final int from;
+        private final int to;
+
+        AggregationTask(AggregationContext context, int from, int to) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Object, GroupAggregate> compute() {
+            if (to - from > AGGREGATION_CHUNK_SIZE) {
+                int middle = (from + to) >>> 1;
+                AggregationTask right = new AggregationTask(context, middle, to);
+                right.fork();
+                Map<Object, GroupAggregate> ret = new AggregationTask(context, from, middle).compute();
+                for (Map.Entry<Object, GroupAggregate> group : right.join().entrySet()) {
+                    GroupAggregate existing = ret.putIfAbsent(group.getKey(), group.getValue());
+                    if (existing != null) {
+                        existing.merge(group.getValue());
+                    }
+                }
+                return ret;
+            }
+            Map<Object, GroupAggregate> ret = new HashMap<>();
+            int[] keyIndexes = context.keyIndexes();
+            for (int i = from; i < to; i++) {
+                int rowIndex = context.candidates() != null ? context.candidates()[i] : i;
+                if (context.rowFilter() != null && !context.rowFilter().test(rowIndex)) {
+                    continue;
+                }
+                Object key;
+                if (keyIndexes.length == 1) {
+                    key = Objects.requireNonNullElse(getCell(rowIndex, keyIndexes[0]), "");
+                } else {
+                    String[] values = new String[keyIndexes.length];
+                    for (int k = 0; k < values.length; k++) {
+                        values[k] = Objects.requireNonNullElse(getCell(rowIndex, keyIndexes[k]), "");
+                    }
+                    key = List.of(values);
+                }
+                GroupAggregate group = ret.get(key);
+                if (group == null) {
+                    group = new GroupAggregate(context.aggregations());
+                    ret.put(key, group);
+                }
+                String value = getCell(rowIndex, context.valueIndex());
+                double number = context.numbers() != null ? context.numbers()[rowIndex] : parseAggregationNumber(value);
+                group.add(number, value);
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * @param columnHeader the header of a column used by an aggregation
+     * @return the index of the column
+     * @throws DataContainerException if the column does not exist
+     */
+    private int getAggregationColumn(String columnHeader) {
+        Integer columnIndex = headerMap.get(columnHeader);
+        if (columnIndex == null) {
+            throw new DataContainerException("Column '" + columnHeader + "' not found.");
+        }
+        return columnIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> toKeyList(Object key) {
+        return key instanceof String value ? List.of(value) : (List<String>) key;
+    }
+
+    /**
+     * @param value the value of a cell
+     * @return the value parsed like {@link Column#getNumbers()}, NaN if the value is not a number
+     */
+    private static double parseAggregationNumber(String value) {
+        if (value == null || value.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
     /**
      * Adds a new row to the CSV data container. The provided row is converted
      * into an array of strings before being added to the internal storage.
@@ -271,7 +827,7 @@ public class CSVDataContainer implements SpecificContainer {
      * @param row A list of strings representing the row to be added.
      */
     public void addRow(List<String> row) {
-        rows.add(row.toArray(String[]::new));
+        addRow(row.toArray(String[]::new));
     }
 
     /**
@@ -280,7 +836,17 @@ public class CSVDataContainer implements SpecificContainer {
      * @param row an array of strings representing the values of the new row to be added. Each element corresponds to a column value.
      */
     public void addRow(String[] row) {
-        rows.add(row);
+        if (storageMode == EStorageMode.COLUMNS) {
+            columnStore.addRow(row);
+        } else {
+            rows.add(row);
+        }
+        int rowIndex = getRowCount() - 1;
+        for (ColumnIndex index : indexes.values()) {
+            if (index.isValid()) {
+                index.add(getCell(rowIndex, index.getColumn()), rowIndex);
+            }
+        }
     }
 
     /**
@@ -303,6 +869,13 @@ public class CSVDataContainer implements SpecificContainer {
      *                    column (if it already exists) instead of creating a new one.
      */
     public void addColumn(String column, boolean useExisting) {
+        if (storageMode == EStorageMode.COLUMNS) {
+            // Only the header map gets updated, the new column is created in the column store
+            CSVUtil.addColumn(new ArrayList<>(), headerMap, column, useExisting);
+            columnStore.ensureColumnCount(headerMap.size());
+            mergeHeaderMapWithHeader();
+            return;
+        }
         rows.addFirst(headers);
         CSVUtil.addColumn(rows, headerMap, column, useExisting);
         rows.removeFirst();
@@ -318,9 +891,28 @@ public class CSVDataContainer implements SpecificContainer {
      * @param newValue The new value to replace the old value in the specified column.
      */
     public void setValue(String updateColumn, String oldValue, String newValue) {
-        rows.addFirst(headers);
-        CSVUtil.updateRow(rows, updateColumn, oldValue, newValue);
-        rows.removeFirst();
+        int columnIndex = findColumnIndex(updateColumn);
+        if (columnIndex < 0) {
+            return;
+        }
+        // Same matching as CSVUtil.updateRow, only the first hit gets updated
+        ColumnIndex index = getColumnIndex(columnIndex);
+        if (index != null) {
+            for (int rowIndex : index.lookup(new String[] {oldValue})) {
+                if (oldValue.equalsIgnoreCase(getCell(rowIndex, columnIndex))) {
+                    setCell(rowIndex, columnIndex, newValue);
+                    return;
+                }
+            }
+            return;
+        }
+        int rowCount = getRowCount();
+        for (int i = 0; i < rowCount; i++) {
+            if (oldValue.equalsIgnoreCase(getCell(i, columnIndex))) {
+                setCell(i, columnIndex, newValue);
+                return;
+            }
+        }
     }
 
     /**
@@ -331,15 +923,16 @@ public class CSVDataContainer implements SpecificContainer {
      * @throws DataContainerException If the length of updateRow does not match the length of the row being updated.
      */
     public void setRow(String[] updateRow, Filter filter) {
-        rows.addFirst(headers);
-        String[] targetRow = getRow(filter);
-        if(targetRow.length != updateRow.length) {
+        int rowIndex = getRowIndex(filter);
+        if (rowIndex < 0) {
+            throw new DataContainerException("No row matches the filter in setRow");
+        }
+        if (getRow(rowIndex).length != updateRow.length) {
             throw new DataContainerException("Old row and new row do not have the same length in setRow");
         }
-        for(int i = 0; i < targetRow.length; i++) {
-            CSVUtil.updateRow(rows, headers[i], targetRow[i], updateRow[i]);
+        for (int i = 0; i < updateRow.length; i++) {
+            setCell(rowIndex, i, updateRow[i]);
         }
-        rows.removeFirst();
     }
 
     /**
@@ -359,7 +952,12 @@ public class CSVDataContainer implements SpecificContainer {
      * @param index the zero-based index of the row to be removed
      */
     public void deleteRow(int index) {
-        rows.remove(index);
+        invalidateIndexes();
+        if (storageMode == EStorageMode.COLUMNS) {
+            columnStore.removeRow(index);
+        } else {
+            rows.remove(index);
+        }
     }
 
     /**
@@ -368,9 +966,15 @@ public class CSVDataContainer implements SpecificContainer {
      * @param filter The {@link Filter} object containing the conditions to identify the rows to be deleted.
      */
     public void deleteRows(Filter filter) {
-        int[] indexes = getRowsIndexes(filter);
-        for (int index : indexes) {
-            rows.remove(index);
+        int[] rowIndexes = getRowsIndexes(filter);
+        invalidateIndexes();
+        if (storageMode == EStorageMode.COLUMNS) {
+            columnStore.removeRows(rowIndexes);
+            return;
+        }
+        // Descending order, so the removal does not shift the indexes of the rows that are removed later
+        for (int i = rowIndexes.length - 1; i >= 0; i--) {
+            rows.remove(rowIndexes[i]);
         }
     }
 
@@ -382,10 +986,45 @@ public class CSVDataContainer implements SpecificContainer {
     private List<String[]> getRowsWithHeader() {
         List<String[]> ret = new ArrayList<>();
         ret.add(headers);
-        ret.addAll(rows);
+        ret.addAll(getRows());
         return ret;
     }
 
+    /**
+     * Stores the data that has been read from a source. The first row is used as header row, the
+     * following rows are stored according to the {@link #storageMode}.
+     *
+     * @param data the rows of the source including the header row
+     */
+    private void storeData(List<String[]> data) {
+        invalidateIndexes();
+        if (!data.isEmpty()) {
+            assignHeaders(data.getFirst());
+        }
+        List<String[]> dataRows = data.subList(Math.min(1, data.size()), data.size());
+        if (storageMode == EStorageMode.COLUMNS) {
+            columnStore = ColumnStore.of(dataRows);
+            columnStore.ensureColumnCount(headers.length);
+            applyDictionaryEncoding(columnStore);
+            rows = new ArrayList<>();
+        } else {
+            rows = new ArrayList<>(dataRows);
+        }
+    }
+
+    /**
+     * Stores the given header row and maps each header name to its column index.
+     *
+     * @param headerRow the first row of the source that contains the column names
+     */
+    private void assignHeaders(String[] headerRow) {
+        headers = headerRow;
+        headerMap.clear();
+        for (int i = 0; i < headers.length; i++) {
+            headerMap.put(headers[i], i);
+        }
+    }
+
     /**
      * Merges the header map with the header array, positioning headers in their respective
      * indices as specified in the headerMap. The resulting array, `headers`, will have null
@@ -416,50 +1055,302 @@ public class CSVDataContainer implements SpecificContainer {
      *         If no row matches the filter, returns an empty array.
      */
     private int[] getRowsIndexes(Filter filter) {
-        StringBuilder indexBuffer = new StringBuilder();
-        for (int i = 0; i < rows.size(); i++) {
-            if (checkValuesFilter(rows.get(i), filter)) {
-                if (!indexBuffer.isEmpty()) {
-                    indexBuffer.append(";");
-                }
-                indexBuffer.append(i);
+        return findRows(filter, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves the index of the first row that matches the specified filter criteria.
+     *
+     * @param filter the filter object containing the rules to determine the matching row
+     * @return the index of the first matching row, or -1 if no row matches the filter
+     */
+    private int getRowIndex(Filter filter) {
+        int[] rowIndexes = findRows(filter, 1);
+        return rowIndexes.length == 0 ? -1 : rowIndexes[0];
+    }
+
+    /**
+     * Searches the rows that match the filter. If the first filter rule can be answered by an index, only
+     * the rows returned by the index get checked, otherwise all rows get scanned.
+     *
+     * @param filter the filter object containing the rules to determine matching rows
+     * @param limit the maximum number of rows to be returned
+     * @return the ascending indexes of the matching rows
+     */
+    private int[] findRows(Filter filter, int limit) {
+        IntPredicate rowFilter = createRowFilter(filter);
+        int[] candidates = findIndexedRows(filter);
+        int size = candidates != null ? candidates.length : getRowCount();
+        int[] ret = new int[Math.min(size, limit)];
+        int count = 0;
+        for (int i = 0; i < size && count < limit; i++) {
+            int rowIndex = candidates != null ? candidates[i] : i;
+            if (rowFilter.test(rowIndex)) {
+                ret[count++] = rowIndex;
             }
         }
-        if (!indexBuffer.isEmpty()) {
-            return Arrays.stream(indexBuffer.toString().split(";")).mapToInt(Integer::parseInt).toArray();
-        } else {
-            return new int[] {};
-        }
+        return count == ret.length ? ret : Arrays.copyOf(ret, count);
     }
 
     /**
-     * Checks if the filter rules match to the values of the given data set.
+     * Uses an index to determine the candidate rows for the first rule of the filter. Indexes get used
+     * for {@link EOperator#EQUALS}, {@link EOperator#EQUALS_IGNORE_CASE} and {@link EOperator#IN} rules
+     * and, in case of a sorted index, for the range operators with numeric values.
      *
-     * @param values String array with all values of a defined data set (row).
-     * @param filter   Object of type {@link Filter}, which includes one or more filter rules
-     * @return true = values match to the filter; false = values don't match to the filter
+     * @param filter the filter object containing the rules
+     * @return the ascending indexes of the candidate rows, or null if no index can be used
      */
-    private boolean checkValuesFilter(String[] values, Filter filter)  {
-        boolean returnCode = false;
-        if (filter.getFilterRules().isEmpty()) {
-            returnCode = true; // No filter defined
-        } else {
-            for (FilterRule fr : filter.getFilterRules()) {
-                // Wild cards * and % will accept any value
-                if (fr.getValue() != null) {
-                    if ((fr.getValue().equals("*")) || (fr.getValue().equals("%"))) {
-                        returnCode = true;
-                        break;
+    private int[] findIndexedRows(Filter filter) {
+        if (indexes.isEmpty() || filter.getFilterRules().isEmpty()) {
+            return null;
+        }
+        FilterRule fr = filter.getFilterRules().getFirst();
+        if (!indexes.containsKey(fr.getHeaderName()) || fr.getValues() == null || fr.isWildcard()
+                || fr.getRuleFormat() == FilterRule.ERuleFormat.REGEX || fr.getRuleFormat() == FilterRule.ERuleFormat.QUOTED_REGEX) {
+            return null;
+        }
+        ColumnIndex index = getValidIndex(fr.getHeaderName());
+        if (index == null) {
+            return null;
+        }
+        return switch (fr.getFilterOperator()) {
+            case EQUALS, EQUALS_IGNORE_CASE, IN -> index.lookup(fr.getValues());
+            case GREATER_THAN, GREATER_OR_EQUAL_THAN, LESS_THAN, LESS_OR_EQUAL_THAN -> {
+                // Values like "Infinity" are numbers for DOUBLE rules, but not for the keys of the index
+                if (!index.isSorted() || fr.getRuleFormat() == FilterRule.ERuleFormat.DOUBLE) {
+                    yield null;
+                }
+                // The rule matches if any of its values matches, so the widest bound is used
+                BigDecimal bound = null;
+                boolean lower = fr.getFilterOperator() == EOperator.GREATER_THAN || fr.getFilterOperator() == EOperator.GREATER_OR_EQUAL_THAN;
+                for (String value : fr.getValues()) {
+                    BigDecimal number = value == null ? null : ColumnIndex.parseNumber(value);
+                    if (number == null) {
+                        yield null;
+                    }
+                    if (bound == null || (lower ? number.compareTo(bound) < 0 : number.compareTo(bound) > 0)) {
+                        bound = number;
                     }
                 }
-                // check values against the filter rules
-                returnCode = fr.checkValue(values[headerMap.get(fr.getHeaderName())]);
-                if (!returnCode) {
-                    // skip check and return false, in case that one of the rules fails
-                    break;
+                yield lower ? index.range(bound, null) : index.range(null, bound);
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Creates a check for the rows of the container by index, independent of the storage mode. The filter
+     * rules get compiled once, see {@link Filter#compile(Map)}. The rules on columns with dictionary encoding
+     * get evaluated once per distinct value, so the returned check only has to look up the code of the row.
+     * The check must not be used after the data has been changed.
+     *
+     * @param filter the filter object containing the rules
+     * @return a predicate that is true for the indexes of the rows that match the filter
+     */
+    private IntPredicate createRowFilter(Filter filter) {
+        if (storageMode == EStorageMode.ROWS) {
+            CompiledFilter rowFilter = filter.compile(headerMap);
+            return rowIndex -> rowFilter.test(rows.get(rowIndex));
+        }
+        List<IntPredicate> ruleChecks = new ArrayList<>();
+        for (FilterRule fr : filter.getFilterRules()) {
+            // Wild cards * and % will accept any value, same as in Filter.compile
+            if (fr.isWildcard()) {
+                break;
+            }
+            Integer columnIndex = headerMap.get(fr.getHeaderName());
+            if (columnIndex == null) {
+                throw new IllegalArgumentException("Column '" + fr.getHeaderName() + "' not found.");
+            }
+            Predicate<String> check = fr.compile();
+            if (columnIndex < columnStore.getColumnCount() && columnStore.getColumn(columnIndex) instanceof DictionaryColumn column) {
+                boolean[] matches = column.matchCodes(check);
+                ruleChecks.add(rowIndex -> matches[column.getCode(rowIndex)]);
+            } else if (columnIndex < columnStore.getColumnCount() && fr.getRuleFormat() == FilterRule.ERuleFormat.DOUBLE && fr.isNumericComparison()) {
+                // Numeric comparisons use the cached numbers of the column instead of parsing every value
+                DoublePredicate numberCheck = fr.compileDouble();
+                double[] numbers = columnStore.getColumn(columnIndex).getNumbers();
+                ruleChecks.add(rowIndex -> numberCheck.test(numbers[rowIndex]));
+            } else {
+                ruleChecks.add(rowIndex -> check.test(columnStore.get(rowIndex, columnIndex)));
+            }
+        }
+        IntPredicate[] checkArray = ruleChecks.toArray(IntPredicate[]::new);
+        return rowIndex -> {
+            for (IntPredicate ruleCheck : checkArray) {
+                if (!ruleCheck.test(rowIndex)) {
+                    return false;
                 }
             }
+            return true;
+        };
+    }
+
+    /**
+     * Creates a secondary index on a column. Filters whose first rule is an {@link EOperator#EQUALS},
+     * {@link EOperator#EQUALS_IGNORE_CASE} or {@link EOperator#IN} rule on the column, or a range rule like
+     * {@link EOperator#GREATER_THAN} in case of a {@link EIndexType#SORTED} index, only check the rows
+     * found by the index instead of scanning all rows. This applies to {@link #getRow(Filter)},
+     * {@link #getRows(Filter)}, {@link #getColumn(String, Filter)}, {@link #setRow(String[], Filter)} and
+     * {@link #deleteRows(Filter)}, as well as to {@link #setValue(String, String, String)} on the column.
+     * <p>
+     * The index is updated by {@link #addRow(String[])}, {@link #setValue(String, String, String)} and
+     * {@link #setRow(String[], Filter)}. Methods that remove rows or read new data mark the index as outdated
+     * and it gets rebuilt on the next lookup. Changes that are made directly on the list returned by
+     * {@link #getRows()} are not tracked.
+     *
+     * @param columnHeader the header of the column to be indexed
+     * @param type the type of the index, see {@link EIndexType}
+     * @throws DataContainerException if the column does not exist
+     */
+    public void createIndex(String columnHeader, EIndexType type) {
+        Integer columnIndex = headerMap.get(columnHeader);
+        if (columnIndex == null) {
+            throw new DataContainerException("Column '" + columnHeader + "' not found.");
+        }
+        indexes.put(columnHeader, new ColumnIndex(type, columnIndex));
+        getValidIndex(columnHeader);
+    }
+
+    /**
+     * Removes the index of a column that has been created with {@link #createIndex(String, EIndexType)}.
+     *
+     * @param columnHeader the header of the indexed column
+     */
+    public void dropIndex(String columnHeader) {
+        indexes.remove(columnHeader);
+    }
+
+    /**
+     * @param columnHeader the header of the column
+     * @return true if an index exists for the column
+     */
+    public boolean hasIndex(String columnHeader) {
+        // The index of a column that does not exist in the current data gets dropped on the next lookup
+        return indexes.containsKey(columnHeader) && headerMap.containsKey(columnHeader);
+    }
+
+    /**
+     * Rebuilds the index of a column if it is outdated. The column is looked up again by its header,
+     * since new data may have a different column order. The index gets dropped if the header does not
+     * exist anymore.
+     *
+     * @param columnHeader the header of the indexed column
+     * @return the up-to-date index, or null if the column has no index
+     */
+    private ColumnIndex getValidIndex(String columnHeader) {
+        ColumnIndex index = indexes.get(columnHeader);
+        if (index != null && !index.isValid()) {
+            Integer columnIndex = headerMap.get(columnHeader);
+            if (columnIndex == null) {
+                indexes.remove(columnHeader);
+                return null;
+            }
+            if (columnIndex != index.getColumn()) {
+                index = new ColumnIndex(index.isSorted() ? EIndexType.SORTED : EIndexType.HASH, columnIndex);
+                indexes.put(columnHeader, index);
+            }
+            index.clear();
+            int rowCount = getRowCount();
+            for (int i = 0; i < rowCount; i++) {
+                index.add(getCell(i, index.getColumn()), i);
+            }
         }
-        return returnCode;
+        return index;
+    }
+
+    /**
+     * @param columnIndex the index of the column within the headerMap
+     * @return the up-to-date index of the column, or null if the column has no index
+     */
+    private ColumnIndex getColumnIndex(int columnIndex) {
+        for (String columnHeader : indexes.keySet()) {
+            Integer indexedColumn = headerMap.get(columnHeader);
+            if (indexedColumn != null && indexedColumn == columnIndex) {
+                return getValidIndex(columnHeader);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks all indexes as outdated after the row indexes of the container have been changed.
+     */
+    private void invalidateIndexes() {
+        for (ColumnIndex index : indexes.values()) {
+            index.invalidate();
+        }
+    }
+
+    /**
+     * @param rowIndex the index of the row
+     * @param columnIndex the index of the column
+     * @return the value of the cell, or null if the row is shorter than the column index
+     */
+    private String getCell(int rowIndex, int columnIndex) {
+        if (storageMode == EStorageMode.COLUMNS) {
+            return columnStore.get(rowIndex, columnIndex);
+        }
+        String[] row = rows.get(rowIndex);
+        return columnIndex < row.length ? row[columnIndex] : null;
+    }
+
+    /**
+     * Replaces the value of a cell and updates the index of the column.
+     *
+     * @param rowIndex the index of the row
+     * @param columnIndex the index of the column
+     * @param value the new value of the cell
+     */
+    private void setCell(int rowIndex, int columnIndex, String value) {
+        String oldValue = getCell(rowIndex, columnIndex);
+        if (storageMode == EStorageMode.COLUMNS) {
+            columnStore.set(rowIndex, columnIndex, value);
+        } else {
+            rows.get(rowIndex)[columnIndex] = value;
+        }
+        for (ColumnIndex index : indexes.values()) {
+            if (index.getColumn() == columnIndex && index.isValid()) {
+                index.remove(oldValue, rowIndex);
+                index.add(value, rowIndex);
+            }
+        }
+    }
+
+    /**
+     * Encodes the columns of the store that are configured for dictionary encoding.
+     *
+     * @param store the column store with the data of the container
+     */
+    private void applyDictionaryEncoding(ColumnStore store) {
+        for (String columnHeader : dictionaryHeaders) {
+            Integer columnIndex = headerMap.get(columnHeader);
+            if (columnIndex != null) {
+                store.ensureColumnCount(columnIndex + 1);
+                store.encodeColumn(columnIndex);
+            }
+        }
+    }
+
+    /**
+     * Searches the column index of a header, ignoring the case like {@link CSVUtil#getColumn(List, String)}.
+     *
+     * @param columnHeader the name of the column
+     * @return the index of the column, or -1 if no header matches
+     */
+    private int findColumnIndex(String columnHeader) {
+        for (int i = 0; i < headers.length; i++) {
+            if (headers[i].equalsIgnoreCase(columnHeader)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the {@link EReadMode#MAPPED} engine is selected and supports the delimiter
+     */
+    private boolean isMappedReadMode() {
+        return readMode == EReadMode.MAPPED && MappedCSVReader.supports(delimiter, StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package org.opentdk.api.datastorage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the values of one column of a {@link ColumnStore}. The implementations define how the values
+ * are kept in memory, see {@link StringColumn} and {@link DictionaryColumn}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+abstract class Column {
+
+    /**
+     * Values of the column parsed with {@link Double#parseDouble(String)}, {@link Double#NaN} for values that
+     * are not a number. Null if the numbers have not been requested yet or the column has been changed.
+     */
+    private double[] numbers;
+
+    /**
+     * @return the number of values stored in the column
+     */
+    abstract int size();
+
+    /**
+     * @param row the index of the row
+     * @return the value of the column in the given row
+     */
+    abstract String get(int row);
+
+    /**
+     * Replaces the value of the column in the given row.
+     *
+     * @param row the index of the row
+     * @param value the new value
+     */
+    abstract void set(int row, String value);
+
+    /**
+     * Appends a value to the end of the column.
+     *
+     * @param value the value to be appended
+     */
+    abstract void add(String value);
+
+    /**
+     * Appends the given number of empty strings to the end of the column.
+     *
+     * @param count the number of empty values to be appended
+     */
+    void addEmpty(int count) {
+        for (int i = 0; i < count; i++) {
+            add("");
+        }
+    }
+
+    /**
+     * Removes the value of the given row and moves all following values one row up.
+     *
+     * @param row the index of the row to be removed
+     */
+    abstract void remove(int row);
+
+    /**
+     * Removes the values of all rows that are marked in the given array in one pass.
+     *
+     * @param removed flags for each row, true if the row has to be removed
+     */
+    abstract void removeAll(boolean[] removed);
+
+    /**
+     * @return a new list with all values of the column
+     */
+    List<String> toList() {
+        List<String> ret = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            ret.add(get(i));
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the values of the column as primitive numbers. The numbers get parsed on the first call and are
+     * cached until {@link #invalidateNumbers()} is called.
+     *
+     * @return an array with the number of each row, {@link Double#NaN} for values that are not a number
+     */
+    double[] getNumbers() {
+        if (numbers == null) {
+            double[] ret = new double[size()];
+            for (int i = 0; i < ret.length; i++) {
+                ret[i] = parseNumber(get(i));
+            }
+            numbers = ret;
+        }
+        return numbers;
+    }
+
+    /**
+     * Drops the cached numbers of the column. Has to be called whenever a value of the column is changed.
+     */
+    void invalidateNumbers() {
+        numbers = null;
+    }
+
+    private static double parseNumber(String value) {
+        if (value == null || value.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * @param row the index of the row
+     * @throws IndexOutOfBoundsException if the column has no row with the given index
+     */
+    protected void checkIndex(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IndexOutOfBoundsException("Index " + row + " out of bounds for length " + size());
+        }
+    }
+}
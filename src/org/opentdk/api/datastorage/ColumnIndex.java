@@ -0,0 +1,293 @@
+package org.opentdk.api.datastorage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary index over one column of a {@link CSVDataContainer}. The index maps the values of the column
+ * to the indexes of the rows that contain them, so filters on the column do not have to scan all rows.
+ * <p>
+ * The keys are the trimmed values in a case-folded form, so a lookup returns a superset of the rows
+ * that match with {@link org.opentdk.api.filter.EOperator#EQUALS} or
+ * {@link org.opentdk.api.filter.EOperator#EQUALS_IGNORE_CASE}. The rows have to be checked against the
+ * filter rules afterward. A {@link CSVDataContainer.EIndexType#SORTED} index also supports range
+ * lookups over the numeric values of the column.
+ *
+ * @author FME (LK Test Solutions)
+ */
+class ColumnIndex {
+
+    /**
+     * Key of the index with the case-folded text and, for sorted indexes, the numeric value of the text.
+     * Numeric keys are ordered by their value and sorted before all other keys.
+     */
+    private record Key(String text, BigDecimal number) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            if (number != null && other.number != null) {
+                int ret = number.compareTo(other.number);
+                return ret != 0 ? ret : text.compareTo(other.text);
+            }
+            if (number != null) {
+                return -1;
+            }
+            if (other.number != null) {
+                return 1;
+            }
+            return text.compareTo(other.text);
+        }
+    }
+
+    /**
+     * Ascending row indexes that belong to one key.
+     */
+    private static final class Bucket {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            if (size == 0 || rows[size - 1] < row) {
+                rows[size++] = row;
+                return;
+            }
+            int pos = Arrays.binarySearch(rows, 0, size, row);
+            if (pos < 0) {
+                pos = -pos - 1;
+                System.arraycopy(rows, pos, rows, pos + 1, size - pos);
+                rows[pos] = row;
+                size++;
+            }
+        }
+
+        void remove(int row) {
+            int pos = Arrays.binarySearch(rows, 0, size, row);
+            if (pos >= 0) {
+                System.arraycopy(rows, pos + 1, rows, pos, size - pos - 1);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Type of the index, see {@link CSVDataContainer.EIndexType}.
+     */
+    private final CSVDataContainer.EIndexType type;
+
+    /**
+     * Index of the column within the headerMap of the container.
+     */
+    private final int column;
+
+    /**
+     * Row indexes for each key, a hash map or a tree map depending on the {@link #type}.
+     */
+    private final Map<Key, Bucket> buckets;
+
+    /**
+     * False if the rows of the container have been changed in a way that shifts the row indexes. The
+     * index has to be rebuilt before the next lookup.
+     */
+    private boolean valid;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param type the type of the index
+     * @param column the index of the column within the headerMap of the container
+     */
+    ColumnIndex(CSVDataContainer.EIndexType type, int column) {
+        this.type = type;
+        this.column = column;
+        buckets = type == CSVDataContainer.EIndexType.SORTED ? new TreeMap<>() : new HashMap<>();
+    }
+
+    /**
+     * @return the index of the column within the headerMap of the container
+     */
+    int getColumn() {
+        return column;
+    }
+
+    /**
+     * @return true if the index supports range lookups
+     */
+    boolean isSorted() {
+        return type == CSVDataContainer.EIndexType.SORTED;
+    }
+
+    /**
+     * @return true if the index reflects the current rows of the container
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Marks the index as outdated, so it gets rebuilt before the next lookup.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Removes all entries from the index and marks it as up to date, so it can be filled with
+     * {@link #add(String, int)} for all rows.
+     */
+    void clear() {
+        buckets.clear();
+        valid = true;
+    }
+
+    /**
+     * Adds a row to the index.
+     *
+     * @param value the value of the indexed column in the row, null values are not indexed
+     * @param row the index of the row
+     */
+    void add(String value, int row) {
+        if (value != null) {
+            buckets.computeIfAbsent(createKey(value), key -> new Bucket()).add(row);
+        }
+    }
+
+    /**
+     * Removes a row from the index.
+     *
+     * @param value the value of the indexed column in the row at the time it was added
+     * @param row the index of the row
+     */
+    void remove(String value, int row) {
+        if (value != null) {
+            Key key = createKey(value);
+            Bucket bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(row);
+                if (bucket.size == 0) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the rows that contain one of the given values, ignoring the case and surrounding
+     * white spaces.
+     *
+     * @param values the values to search for
+     * @return the ascending indexes of the candidate rows
+     */
+    int[] lookup(String[] values) {
+        Bucket[] found = new Bucket[values.length];
+        for (int i = 0; i < values.length; i++) {
+            found[i] = values[i] == null ? null : buckets.get(createKey(values[i]));
+        }
+        return merge(Arrays.asList(found));
+    }
+
+    /**
+     * Looks up the rows with a numeric value within the given bounds, both bounds included.
+     *
+     * @param lower the lower bound, or null for no lower bound
+     * @param upper the upper bound, or null for no upper bound
+     * @return the ascending indexes of the candidate rows
+     * @throws IllegalStateException if the index is not sorted
+     */
+    int[] range(BigDecimal lower, BigDecimal upper) {
+        if (!isSorted()) {
+            throw new IllegalStateException("Range lookups are only supported by sorted indexes");
+        }
+        NavigableMap<Key, Bucket> sorted = (NavigableMap<Key, Bucket>) buckets;
+        if (lower != null) {
+            sorted = sorted.tailMap(new Key("", lower), true);
+        }
+        List<Bucket> found = new ArrayList<>();
+        for (Map.Entry<Key, Bucket> entry : sorted.entrySet()) {
+            BigDecimal number = entry.getKey().number();
+            if (number == null || (upper != null && number.compareTo(upper) > 0)) {
+                break;
+            }
+            found.add(entry.getValue());
+        }
+        return merge(found);
+    }
+
+    /**
+     * Parses the numeric value of a text, as used by the keys of sorted indexes.
+     *
+     * @param value the text to be parsed
+     * @return the numeric value, or null if the trimmed text is not a number
+     */
+    static BigDecimal parseNumber(String value) {
+        String text = value.trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        char first = text.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return null;
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Key createKey(String value) {
+        String text = value.trim();
+        StringBuilder folded = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            // Same case folding as String.equalsIgnoreCase
+            char f = Character.toLowerCase(Character.toUpperCase(c));
+            if (f != c && folded == null) {
+                folded = new StringBuilder(text.length()).append(text, 0, i);
+            }
+            if (folded != null) {
+                folded.append(f);
+            }
+        }
+        String key = folded == null ? text : folded.toString();
+        return new Key(key, isSorted() ? parseNumber(key) : null);
+    }
+
+    private static int[] merge(List<Bucket> found) {
+        int size = 0;
+        for (Bucket bucket : found) {
+            if (bucket != null) {
+                size += bucket.size;
+            }
+        }
+        int[] ret = new int[size];
+        int pos = 0;
+        int filled = 0;
+        for (Bucket bucket : found) {
+            if (bucket != null) {
+                System.arraycopy(bucket.rows, 0, ret, pos, bucket.size);
+                pos += bucket.size;
+                filled++;
+            }
+        }
+        if (filled > 1) {
+            Arrays.sort(ret);
+            // The same bucket can be found for several values
+            int unique = 0;
+            for (int i = 0; i < ret.length; i++) {
+                if (i == 0 || ret[i] != ret[i - 1]) {
+                    ret[unique++] = ret[i];
+                }
+            }
+            ret = Arrays.copyOf(ret, unique);
+        }
+        return ret;
+    }
+}
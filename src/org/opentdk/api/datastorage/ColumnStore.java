@@ -0,0 +1,214 @@
+package org.opentdk.api.datastorage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column oriented storage of tabular data that is used by the {@link CSVDataContainer} in the
+ * {@link CSVDataContainer.EStorageMode#COLUMNS} mode. Every column is kept in its own {@link Column},
+ * so a column can be scanned or appended without touching the other columns. All columns always
+ * have the same number of rows; rows that are shorter than the store get filled with empty strings.
+ *
+ * @author FME (LK Test Solutions)
+ */
+class ColumnStore {
+
+    /**
+     * The columns of the store, the position in the list is the column index of the headerMap.
+     */
+    private final List<Column> columns = new ArrayList<>();
+
+    /**
+     * Number of rows stored in every column.
+     */
+    private int rowCount;
+
+    /**
+     * Creates a store with the rows of the given list.
+     *
+     * @param rows the rows to be stored, without the header row
+     * @return a new store that contains the values of all rows
+     */
+    static ColumnStore of(List<String[]> rows) {
+        ColumnStore store = new ColumnStore();
+        for (String[] row : rows) {
+            store.addRow(row);
+        }
+        return store;
+    }
+
+    /**
+     * @return the number of rows in the store
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the number of columns in the store
+     */
+    int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * @param column the index of the column
+     * @return the column with all its values
+     */
+    Column getColumn(int column) {
+        return columns.get(column);
+    }
+
+    /**
+     * Appends a row to the store. If the row has more values than the store has columns, the missing
+     * columns are created and filled with empty strings for the existing rows.
+     *
+     * @param row the values of the new row
+     */
+    void addRow(String[] row) {
+        ensureColumnCount(row.length);
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).add(i < row.length ? row[i] : "");
+            columns.get(i).invalidateNumbers();
+        }
+        rowCount++;
+    }
+
+    /**
+     * Creates empty columns until the store has at least the given number of columns.
+     *
+     * @param count the minimum number of columns
+     */
+    void ensureColumnCount(int count) {
+        while (columns.size() < count) {
+            Column column = new StringColumn(rowCount);
+            column.addEmpty(rowCount);
+            columns.add(column);
+        }
+    }
+
+    /**
+     * Replaces a column by a {@link DictionaryColumn} with the same values. Rows that get added later
+     * are encoded as well.
+     *
+     * @param column the index of the column
+     */
+    void encodeColumn(int column) {
+        if (!(columns.get(column) instanceof DictionaryColumn)) {
+            columns.set(column, new DictionaryColumn(columns.get(column)));
+        }
+    }
+
+    /**
+     * Replaces a {@link DictionaryColumn} by a {@link StringColumn} with the same values.
+     *
+     * @param column the index of the column
+     */
+    void decodeColumn(int column) {
+        if (columns.get(column) instanceof DictionaryColumn encoded) {
+            StringColumn decoded = new StringColumn(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                decoded.add(encoded.get(i));
+            }
+            columns.set(column, decoded);
+        }
+    }
+
+    /**
+     * @param row the index of the row
+     * @param column the index of the column
+     * @return the value of the cell, or an empty string if the store has no column with the given index
+     */
+    String get(int row, int column) {
+        if (column >= columns.size()) {
+            checkRow(row);
+            return "";
+        }
+        return columns.get(column).get(row);
+    }
+
+    /**
+     * Replaces the value of a cell.
+     *
+     * @param row the index of the row
+     * @param column the index of the column
+     * @param value the new value of the cell
+     */
+    void set(int row, int column, String value) {
+        columns.get(column).set(row, value);
+        columns.get(column).invalidateNumbers();
+    }
+
+    /**
+     * Materializes a row of the store.
+     *
+     * @param row the index of the row
+     * @return a new array with the values of all columns in the given row
+     */
+    String[] getRow(int row) {
+        checkRow(row);
+        String[] ret = new String[columns.size()];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = columns.get(i).get(row);
+        }
+        return ret;
+    }
+
+    /**
+     * Materializes all rows of the store.
+     *
+     * @return a new list with one array per row
+     */
+    List<String[]> toRows() {
+        List<String[]> ret = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            ret.add(getRow(i));
+        }
+        return ret;
+    }
+
+    /**
+     * Removes a row from all columns.
+     *
+     * @param row the index of the row to be removed
+     */
+    void removeRow(int row) {
+        checkRow(row);
+        for (Column column : columns) {
+            column.remove(row);
+            column.invalidateNumbers();
+        }
+        rowCount--;
+    }
+
+    /**
+     * Removes several rows from all columns in one pass per column.
+     *
+     * @param rows the indexes of the rows to be removed
+     */
+    void removeRows(int[] rows) {
+        if (rows.length == 0) {
+            return;
+        }
+        boolean[] removed = new boolean[rowCount];
+        int count = 0;
+        for (int row : rows) {
+            checkRow(row);
+            if (!removed[row]) {
+                removed[row] = true;
+                count++;
+            }
+        }
+        for (Column column : columns) {
+            column.removeAll(removed);
+            column.invalidateNumbers();
+        }
+        rowCount -= count;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Index " + row + " out of bounds for length " + rowCount);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.Setter;
 import org.opentdk.api.exception.DataContainerException;
 import org.opentdk.api.filter.Filter;
+import org.opentdk.api.io.XMLFactories;
+import org.opentdk.api.io.XMLRecord;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
 import org.xml.sax.InputSource;
@@ -11,7 +13,6 @@ import org.xml.sax.SAXException;
 import org.yaml.snakeyaml.Yaml;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.TransformerException;
 import javax.xml.xpath.XPathExpressionException;
 import java.io.*;
@@ -20,6 +21,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -490,7 +492,7 @@ public class DataContainer implements SpecificContainer {
     public Boolean validateXMLString(String inString) {
         try {
             InputStream inStream = new ByteArrayInputStream(inString.getBytes(StandardCharsets.UTF_8));
-            SAXParserFactory.newInstance().newSAXParser().getXMLReader().parse(new InputSource(inStream));
+            XMLFactories.getSAXParser().getXMLReader().parse(new InputSource(inStream));
         } catch (IOException e) {
             // log.warn("Invalid input used for XML parser");
             return false;
@@ -567,6 +569,44 @@ public class DataContainer implements SpecificContainer {
     // Facade methods that call either the tabular or tree format methods
     // --------------------------------------------------------------------
 
+    /**
+     * Reads the rows of a tabular source file one at a time instead of loading the whole content into
+     * the container. Only the headers are kept in the container. See
+     * {@link CSVDataContainer#streamRows(Path, Filter)}.
+     *
+     * @param sourceFile the path to the tabular source file
+     * @param fltr       the filter that the returned rows have to match
+     * @return a lazy stream of the matching rows that has to be closed after usage
+     * @throws IOException           if an I/O error occurs while opening the file
+     * @throws IllegalStateException if the container is not tabular
+     */
+    public Stream<String[]> streamRows(Path sourceFile, Filter fltr) throws IOException {
+        checkInstance();
+        if (!isTabular()) {
+            throw new IllegalStateException("Streaming rows only supported for tabular container");
+        }
+        return tabInstance().streamRows(sourceFile, fltr);
+    }
+
+    /**
+     * Passes every row of a tabular source file that matches the filter to the given action without
+     * loading the whole content into the container. See
+     * {@link CSVDataContainer#forEachRow(Path, Filter, Consumer)}.
+     *
+     * @param sourceFile the path to the tabular source file
+     * @param fltr       the filter that the rows have to match
+     * @param action     the operation that gets performed for each matching row
+     * @throws IOException           if an I/O error occurs while reading the file
+     * @throws IllegalStateException if the container is not tabular
+     */
+    public void forEachRow(Path sourceFile, Filter fltr, Consumer<String[]> action) throws IOException {
+        checkInstance();
+        if (!isTabular()) {
+            throw new IllegalStateException("Streaming rows only supported for tabular container");
+        }
+        tabInstance().forEachRow(sourceFile, fltr, action);
+    }
+
     /**
      * Adds a name-value pair with an associated filter to the current instance. This method
      * determines the type of the container (e.g., XML, JSON, YAML) and applies the addition
@@ -667,6 +707,51 @@ public class DataContainer implements SpecificContainer {
         return ret;
     }
 
+    /**
+     * Retrieves the values of a parameter from an XML source file without loading the file into the
+     * container, see {@link XMLDataContainer#get(Path, String, Filter)}. This allows read-only access to
+     * files that are too large for the document tree.
+     *
+     * @param sourceFile    the path to the XML source file
+     * @param parameterName the name of the parameter to retrieve values for
+     * @param fltr          the filter criteria to apply when fetching parameter values
+     * @return a trimmed array of string values that match the parameter name and filter criteria
+     * @throws IOException              if an I/O error occurs while reading the file or the file is no valid XML
+     * @throws IllegalStateException    if the container is not XML
+     * @throws IllegalArgumentException if the XPath rule of the filter is no simple path of tag names
+     */
+    public String[] get(Path sourceFile, String parameterName, Filter fltr) throws IOException {
+        checkInstance();
+        if (!isXML()) {
+            throw new IllegalStateException("Streaming elements only supported for XML container");
+        }
+        String[] ret = xmlInstance().get(sourceFile, parameterName, fltr);
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = ret[i].trim();
+        }
+        return ret;
+    }
+
+    /**
+     * Reads the matching elements of an XML source file one at a time instead of loading the whole
+     * content into the container. See {@link XMLDataContainer#streamElements(Path, String, Filter)}.
+     *
+     * @param sourceFile    the path to the XML source file
+     * @param parameterName the tag name of the elements
+     * @param fltr          the filter that the returned elements have to match
+     * @return a lazy stream of the matching elements that has to be closed after usage
+     * @throws IOException              if an I/O error occurs while opening the file
+     * @throws IllegalStateException    if the container is not XML
+     * @throws IllegalArgumentException if the XPath rule of the filter is no simple path of tag names
+     */
+    public Stream<XMLRecord> streamElements(Path sourceFile, String parameterName, Filter fltr) throws IOException {
+        checkInstance();
+        if (!isXML()) {
+            throw new IllegalStateException("Streaming elements only supported for XML container");
+        }
+        return xmlInstance().streamElements(sourceFile, parameterName, fltr);
+    }
+
     /**
      * Sets a parameter with the provided name and value. This method internally utilizes a default
      * filter and sets the flag to false.
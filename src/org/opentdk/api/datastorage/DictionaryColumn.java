@@ -0,0 +1,140 @@
+package org.opentdk.api.datastorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Column that stores every distinct value only once in a dictionary and keeps an int code per row
+ * that points into the dictionary. Columns with few distinct values like status or country codes
+ * need a fraction of the memory of a {@link StringColumn}, and filter rules only have to be evaluated
+ * once per distinct value, see {@link #matchCodes(Predicate)}.
+ * <p>
+ * Values that are no longer referenced by any row stay in the dictionary until the column gets rebuilt.
+ *
+ * @author FME (LK Test Solutions)
+ */
+class DictionaryColumn extends Column {
+
+    /**
+     * Distinct values of the column, the position in the list is the code of the value.
+     */
+    private final List<String> dictionary = new ArrayList<>();
+
+    /**
+     * Maps each distinct value to its code in the {@link #dictionary}.
+     */
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    /**
+     * Code of the value in each row, only the first {@link #size} entries are used.
+     */
+    private int[] rowCodes;
+
+    /**
+     * Number of rows stored in the column.
+     */
+    private int size;
+
+    /**
+     * Creates an encoded copy of the given column.
+     *
+     * @param column the column with the values to be encoded
+     */
+    DictionaryColumn(Column column) {
+        rowCodes = new int[Math.max(column.size(), 16)];
+        for (int i = 0; i < column.size(); i++) {
+            add(column.get(i));
+        }
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the dictionary code of the value in the given row
+     */
+    int getCode(int row) {
+        checkIndex(row);
+        return rowCodes[row];
+    }
+
+    /**
+     * @return the number of distinct values in the dictionary
+     */
+    int getDictionarySize() {
+        return dictionary.size();
+    }
+
+    /**
+     * Evaluates a check once for every distinct value of the column. The result can be used to test the
+     * rows by their code, e.g. {@code matches[column.getCode(row)]}, instead of checking every row value.
+     *
+     * @param check the check that gets applied to the values
+     * @return an array with the result of the check for each code of the dictionary
+     */
+    boolean[] matchCodes(Predicate<String> check) {
+        boolean[] matches = new boolean[dictionary.size()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = check.test(dictionary.get(code));
+        }
+        return matches;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    String get(int row) {
+        return dictionary.get(getCode(row));
+    }
+
+    @Override
+    void set(int row, String value) {
+        checkIndex(row);
+        rowCodes[row] = encode(value);
+    }
+
+    @Override
+    void add(String value) {
+        if (size == rowCodes.length) {
+            rowCodes = Arrays.copyOf(rowCodes, size + (size >> 1));
+        }
+        rowCodes[size++] = encode(value);
+    }
+
+    @Override
+    void remove(int row) {
+        checkIndex(row);
+        System.arraycopy(rowCodes, row + 1, rowCodes, row, size - row - 1);
+        size--;
+    }
+
+    @Override
+    void removeAll(boolean[] removed) {
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed[i]) {
+                rowCodes[target++] = rowCodes[i];
+            }
+        }
+        size = target;
+    }
+
+    /**
+     * @param value the value to be encoded
+     * @return the code of the value, a new code gets assigned if the value is not yet in the dictionary
+     */
+    private int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+}
@@ -0,0 +1,163 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.filter.Filter;
+import org.opentdk.api.util.QuantileSketch;
+import org.opentdk.api.util.StatSummary;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Result of {@link CSVDataContainer#aggregate(String, Filter, Set, String...)} for one group of rows. The
+ * numeric aggregations only consider the values of the value column that are numbers, see
+ * {@link #getCount()}. Percentiles and the number of distinct values are only available if they have been
+ * requested, since they need more memory per group.
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class GroupAggregate {
+
+    private final StatSummary summary = new StatSummary();
+
+    /**
+     * Estimation of the percentiles, null if {@link CSVDataContainer.EAggregation#PERCENTILE} was not requested.
+     */
+    private final QuantileSketch sketch;
+
+    /**
+     * Distinct values of the value column, null if {@link CSVDataContainer.EAggregation#COUNT_DISTINCT} was
+     * not requested.
+     */
+    private final Set<String> distinct;
+
+    private long rowCount;
+
+    /**
+     * @param aggregations the requested aggregations
+     */
+    GroupAggregate(Set<CSVDataContainer.EAggregation> aggregations) {
+        sketch = aggregations.contains(CSVDataContainer.EAggregation.PERCENTILE) ? new QuantileSketch() : null;
+        distinct = aggregations.contains(CSVDataContainer.EAggregation.COUNT_DISTINCT) ? new HashSet<>() : null;
+    }
+
+    /**
+     * Adds the value of a row to the group.
+     *
+     * @param number the value as number, NaN if the value is not a number
+     * @param value  the value as string, only needed for the distinct values
+     */
+    void add(double number, String value) {
+        rowCount++;
+        if (!Double.isNaN(number)) {
+            summary.accept(number);
+            if (sketch != null) {
+                sketch.accept(number);
+            }
+        }
+        if (distinct != null) {
+            distinct.add(value);
+        }
+    }
+
+    /**
+     * Merges the rows of the same group from another part of the data into this result.
+     *
+     * @param other the result of the other part
+     */
+    void merge(GroupAggregate other) {
+        rowCount += other.rowCount;
+        summary.combine(other.summary);
+        if (sketch != null) {
+            sketch.merge(other.sketch);
+        }
+        if (distinct != null) {
+            distinct.addAll(other.distinct);
+        }
+    }
+
+    /**
+     * @return the number of rows of the group, including the rows whose value is not a number
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the number of rows whose value is a number
+     */
+    public long getCount() {
+        return summary.getCount();
+    }
+
+    /**
+     * @return the sum of the numeric values
+     */
+    public double getSum() {
+        return summary.getSum();
+    }
+
+    /**
+     * @return the arithmetic mean of the numeric values, or NaN if the group has no numeric values
+     */
+    public double getMean() {
+        return summary.getMean();
+    }
+
+    /**
+     * @return the smallest numeric value, or NaN if the group has no numeric values
+     */
+    public double getMin() {
+        return summary.getMin();
+    }
+
+    /**
+     * @return the greatest numeric value, or NaN if the group has no numeric values
+     */
+    public double getMax() {
+        return summary.getMax();
+    }
+
+    /**
+     * @return the bias corrected sample standard deviation of the numeric values
+     */
+    public double getStandardDeviation() {
+        return summary.getStandardDeviation(true);
+    }
+
+    /**
+     * @return count, sum, mean, minimum, maximum and variance of the numeric values
+     */
+    public StatSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Estimates a percentile of the numeric values, see {@link QuantileSketch#getPercentile(double)}.
+     *
+     * @param p the percentile to compute, a value between 0 and 100
+     * @return the estimated percentile, or NaN if the group has no numeric values
+     * @throws IllegalStateException if {@link CSVDataContainer.EAggregation#PERCENTILE} was not requested
+     */
+    public double getPercentile(double p) {
+        if (sketch == null) {
+            throw new IllegalStateException("Percentiles were not requested for the aggregation");
+        }
+        return sketch.getPercentile(p);
+    }
+
+    /**
+     * @return the number of distinct values of the group, including the values that are not a number
+     * @throws IllegalStateException if {@link CSVDataContainer.EAggregation#COUNT_DISTINCT} was not requested
+     */
+    public int getDistinctCount() {
+        if (distinct == null) {
+            throw new IllegalStateException("Distinct values were not requested for the aggregation");
+        }
+        return distinct.size();
+    }
+
+    @Override
+    public String toString() {
+        return "GroupAggregate[rows=" + rowCount + ", " + summary + "]";
+    }
+}
@@ -0,0 +1,93 @@
+package org.opentdk.api.datastorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column that holds its values in a growable array. Appending a value only copies the array when its
+ * capacity is exhausted, so the cost of adding rows is amortized constant.
+ *
+ * @author FME (LK Test Solutions)
+ */
+class StringColumn extends Column {
+
+    /**
+     * Values of the column, only the first {@link #size} entries are used.
+     */
+    private String[] values;
+
+    /**
+     * Number of values stored in the column.
+     */
+    private int size;
+
+    /**
+     * Creates an empty column with the given initial capacity.
+     *
+     * @param capacity the number of values the column can hold before the array has to grow
+     */
+    StringColumn(int capacity) {
+        values = new String[Math.max(capacity, 16)];
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    String get(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    @Override
+    void set(int row, String value) {
+        checkIndex(row);
+        values[row] = value;
+    }
+
+    @Override
+    void add(String value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    @Override
+    void addEmpty(int count) {
+        ensureCapacity(size + count);
+        Arrays.fill(values, size, size + count, "");
+        size += count;
+    }
+
+    @Override
+    void remove(int row) {
+        checkIndex(row);
+        System.arraycopy(values, row + 1, values, row, size - row - 1);
+        values[--size] = null;
+    }
+
+    @Override
+    void removeAll(boolean[] removed) {
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed[i]) {
+                values[target++] = values[i];
+            }
+        }
+        Arrays.fill(values, target, size, null);
+        size = target;
+    }
+
+    @Override
+    List<String> toList() {
+        return new ArrayList<>(Arrays.asList(values).subList(0, size));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length + (values.length >> 1)));
+        }
+    }
+}
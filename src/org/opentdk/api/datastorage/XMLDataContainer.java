@@ -1,6 +1,9 @@
 package org.opentdk.api.datastorage;
 
+import org.opentdk.api.filter.CompiledFilter;
 import org.opentdk.api.io.XMLEditor;
+import org.opentdk.api.io.XMLElementReader;
+import org.opentdk.api.io.XMLRecord;
 import org.opentdk.api.exception.DataContainerException;
 import org.opentdk.api.filter.Filter;
 import org.opentdk.api.filter.FilterRule;
@@ -14,17 +17,22 @@ import javax.xml.xpath.XPathExpressionException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * SubClass of {@link DataContainer} which provides all methods for reading and writing from or to
  * ASCII files in XML format, and store the data at runtime within the DataContainer. If the DataContainer
  * is linked to a file, then all write operations will immediately save the changes within the file.
  * In case that file changes are not wanted, then the DataContainer should be initialized with the content of the
- * XML file as InputStream.
+ * XML file as InputStream. For many changes in a row, {@link #beginBatch()} and {@link #commit()} save the file
+ * only once.
  * <pre>
  * e.g.:
  * InputStream stream = new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8));
@@ -122,6 +130,24 @@ public class XMLDataContainer implements SpecificContainer {
 		rootNode = xEdit.getRootNodeName();
 	}
 
+	/**
+	 * Starts a batch of changes that get saved together by {@link #commit()}, see {@link XMLEditor#beginBatch()}.
+	 */
+	public void beginBatch() {
+		xEdit.beginBatch();
+	}
+
+	/**
+	 * Ends the batch that was started by {@link #beginBatch()} and saves the changes, see {@link XMLEditor#commit()}.
+	 */
+	public void commit() {
+		try {
+			xEdit.commit();
+		} catch (IOException | TransformerException e) {
+			throw new DataContainerException(e);
+		}
+	}
+
 	@Override
 	public void writeData(Path outputFile) {
 		try {
@@ -224,6 +250,73 @@ public class XMLDataContainer implements SpecificContainer {
 		return (String[]) get(tagName, filter, "values");
 	}
 
+	/**
+	 * Reads the tags with the given name from an XML file without loading the file into the container,
+	 * see {@link #streamElements(Path, String, Filter)}. The content of the container is not changed.
+	 *
+	 * @param sourceFile the XML file to read
+	 * @param tagName    Name of the tag(s) to search for
+	 * @param filter     Filter condition for more precise localization of the element within the data structure
+	 * @return String array with the text-content of all found tags
+	 * @throws IOException              if the file can not be read or is no valid XML
+	 * @throws IllegalArgumentException if the XPath rule is no simple path of tag names
+	 */
+	public String[] get(Path sourceFile, String tagName, Filter filter) throws IOException {
+		try (Stream<XMLRecord> elements = streamElements(sourceFile, tagName, filter)) {
+			return elements.map(XMLRecord::text).toArray(String[]::new);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Reads the tags with the given name from an XML file one at a time with {@link XMLElementReader},
+	 * instead of building the document tree. This allows read-only access to files that do not fit into the
+	 * heap. The search supports a subset of {@link #get(String, Filter)}:
+	 * <ul>
+	 * <li>A filter rule with the header name XPath defines the path of the parent tags, e.g.
+	 * /Contacts/Business/Management. Without it, the tags are searched on all levels. The path has to be a
+	 * simple path of tag names, see {@link XMLElementReader}. Predicates, attributes, functions, axes or
+	 * <code>..</code> are not supported.</li>
+	 * <li>All other filter rules are checked on the fly for every found tag. A rule with the tag name as
+	 * header checks the text content of the tag, other rules check the attribute or direct child tag of that
+	 * name, see {@link XMLRecord#getValue(String)}.</li>
+	 * </ul>
+	 * <pre>
+	 * Filter fltr = new Filter();
+	 * fltr.addFilterRule("XPath", "/Contacts/Business", EOperator.EQUALS);
+	 * fltr.addFilterRule("city", "Berlin", EOperator.EQUALS);
+	 * try (Stream&lt;XMLRecord&gt; persons = container.streamElements(file, "person", fltr)) {
+	 *     persons.forEach(p -&gt; ...);
+	 * }
+	 * </pre>
+	 *
+	 * @param sourceFile the XML file to read
+	 * @param tagName    Name of the tag(s) to search for
+	 * @param filter     Filter rules that will be applied as additional search criteria for the returning tags
+	 * @return a lazy stream of the matching tags that has to be closed after usage
+	 * @throws IOException              if the file can not be opened or its start is no valid XML
+	 * @throws IllegalArgumentException if the XPath rule is no simple path of tag names
+	 */
+	public Stream<XMLRecord> streamElements(Path sourceFile, String tagName, Filter filter) throws IOException {
+		String path = tagName;
+		Filter valueFilter = new Filter();
+		for (FilterRule rule : filter.getFilterRules()) {
+			if (rule.getHeaderName().equalsIgnoreCase("XPath")) {
+				path = rule.getValue().endsWith("/") ? rule.getValue() + tagName : rule.getValue() + "/" + tagName;
+			} else {
+				valueFilter.addFilterRule(rule);
+			}
+		}
+		String[] headers = valueFilter.getFilterRules().stream().map(FilterRule::getHeaderName).distinct().toArray(String[]::new);
+		Map<String, Integer> headerMap = new HashMap<>();
+		for (int i = 0; i < headers.length; i++) {
+			headerMap.put(headers[i], i);
+		}
+		CompiledFilter check = valueFilter.compile(headerMap);
+		return new XMLElementReader(sourceFile, path).stream().filter(e -> check.test(i -> e.getValue(headers[i])));
+	}
+
 	public Element get(String tagName, String attributName, String attributValue){
 		return xEdit.getElement(tagName, attributName, attributValue);
 	}
@@ -353,11 +446,16 @@ public class XMLDataContainer implements SpecificContainer {
 		}
 
 		Element[] elements = (Element[]) get(tagName, filter, "elements");								
-		for (int i = 0; i < elements.length; i++) {
-			xEdit.setElementValue(elements[i], tagValue);
-			if(!allOccurrences) {
-				break;
+		xEdit.beginBatch();
+		try {
+			for (int i = 0; i < elements.length; i++) {
+				xEdit.setElementValue(elements[i], tagValue);
+				if(!allOccurrences) {
+					break;
+				}
 			}
+		} finally {
+			xEdit.commit();
 		}
 	}
 	
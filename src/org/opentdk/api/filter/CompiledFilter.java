@@ -0,0 +1,69 @@
+package org.opentdk.api.filter;
+
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Reusable check of the rules of a {@link Filter} for data sets with a fixed column layout. The rules get
+ * bound to the column indexes of their headers and compiled with {@link FilterRule#compile()} once, so the
+ * check of a data set only reads the columns used by the rules and does not allocate.
+ * <pre>
+ * CompiledFilter check = filter.compile(headerMap);
+ * for (String[] row : rows) {
+ *     if (check.test(row)) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * Instances are created by {@link Filter#compile(java.util.Map)} and reflect the rules at the time of
+ * compilation.
+ *
+ * @author LK Test Solutions
+ */
+public class CompiledFilter implements Predicate<String[]> {
+	/**
+	 * Column index of the value that gets checked by the rule with the same position in {@link #checks}.
+	 */
+	private final int[] columns;
+	/**
+	 * Compiled rules of the filter.
+	 */
+	private final Predicate<String>[] checks;
+
+	CompiledFilter(int[] columns, Predicate<String>[] checks) {
+		this.columns = columns;
+		this.checks = checks;
+	}
+
+	/**
+	 * Checks if the filter rules match to the values of the given data set.
+	 *
+	 * @param values String array with all values of a defined data set (row).
+	 * @return true = values match to the filter; false = values don't match to the filter
+	 */
+	@Override
+	public boolean test(String[] values) {
+		for (int i = 0; i < checks.length; i++) {
+			if (!checks[i].test(values[columns[i]])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the filter rules match to the values of a data set that are provided by column index.
+	 * Only the values of the columns that are used by the filter rules get requested.
+	 *
+	 * @param values Function that returns the value of the data set (row) for a column index.
+	 * @return true = values match to the filter; false = values don't match to the filter
+	 */
+	public boolean test(IntFunction<String> values) {
+		for (int i = 0; i < checks.length; i++) {
+			if (!checks[i].test(values.apply(columns[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
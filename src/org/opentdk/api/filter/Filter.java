@@ -3,6 +3,7 @@ package org.opentdk.api.filter;
 import org.opentdk.api.filter.FilterRule.ERuleFormat;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * This class gets used to define one or more conditions to select data from a data source. <br>
@@ -183,6 +184,33 @@ public class Filter {
 		return ret;
 	}
 
+	/**
+	 * Compiles the rules of the filter into a reusable check for data sets with the given column layout,
+	 * see {@link CompiledFilter}. All rules are combined with AND. A rule with one of the wild cards * or %
+	 * as value accepts any data set, so the following rules are not checked.
+	 *
+	 * @param headerMap Maps the header names of the rules to the column indexes of the data sets
+	 * @return the compiled filter
+	 * @throws IllegalArgumentException if the header of a rule is not defined in the headerMap
+	 */
+	@SuppressWarnings("unchecked")
+	public CompiledFilter compile(Map<String, Integer> headerMap) {
+		List<Integer> columns = new ArrayList<>();
+		List<Predicate<String>> checks = new ArrayList<>();
+		for (FilterRule rule : rules) {
+			if (rule.isWildcard()) {
+				break;
+			}
+			Integer column = headerMap.get(rule.getHeaderName());
+			if (column == null) {
+				throw new IllegalArgumentException("Column '" + rule.getHeaderName() + "' not found.");
+			}
+			columns.add(column);
+			checks.add(rule.compile());
+		}
+		return new CompiledFilter(columns.stream().mapToInt(Integer::intValue).toArray(), checks.toArray(Predicate[]::new));
+	}
+
 	/**
 	 * Returns the List property <code>rules</code> with elements of type {@link FilterRule}
 	 *
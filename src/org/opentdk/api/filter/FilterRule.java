@@ -2,10 +2,18 @@ package org.opentdk.api.filter;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.opentdk.api.util.DateMatcher;
 import org.opentdk.api.util.DateUtil;
+import org.opentdk.api.util.PatternCache;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -17,10 +25,13 @@ import java.util.regex.Pattern;
 public class FilterRule {
 
     /**
-     * This object is used to specify the format of the rule value.
+     * This object is used to specify the format of the rule value. The numeric formats LONG, DOUBLE and DECIMAL
+     * define how the values get compared by {@link EOperator#GREATER_THAN}, {@link EOperator#GREATER_OR_EQUAL_THAN},
+     * {@link EOperator#LESS_THAN} and {@link EOperator#LESS_OR_EQUAL_THAN}. All other operators compare the values
+     * as strings, and the string formats compare the values of these operators as {@link BigDecimal}.
      */
     public enum ERuleFormat {
-        STRING, QUOTED_STRING, REGEX, QUOTED_REGEX;
+        STRING, QUOTED_STRING, REGEX, QUOTED_REGEX, LONG, DOUBLE, DECIMAL;
     }
 
     /**
@@ -64,6 +75,7 @@ public class FilterRule {
     /**
      * See {@link ERuleFormat}
      */
+    @Getter
     @Setter
     private ERuleFormat ruleFormat = ERuleFormat.STRING;
 
@@ -281,6 +293,50 @@ public class FilterRule {
         return returnCode;
     }
 
+    /**
+     * Compiles the rule into a check that returns the same result as {@link #checkValue(String)}. All work
+     * that only depends on the rule, like compiling regular expressions, parsing numeric filter values or
+     * converting the filter values to upper case, is done once by this method. The returned check
+     * evaluates the trimmed region of a value in place, so plain string comparisons do not allocate.
+     *
+     * @return a predicate that is true for the values that match the rule
+     */
+    public Predicate<String> compile() {
+        List<Predicate<String>> checks = new ArrayList<>();
+        for (String filterValue : values) {
+            if (filterValue == null) {
+                checks.add(val -> isValidValue(val, null));
+            } else if (!filterValue.contentEquals("null")) {
+                // A filter value "null" never matches, see isValidValue
+                checks.add(compileValue(filterValue));
+            }
+        }
+        if (checks.size() == 1) {
+            Predicate<String> check = checks.getFirst();
+            return val -> val != null && !val.contentEquals("null") && check.test(val);
+        }
+        @SuppressWarnings("unchecked")
+        Predicate<String>[] checkArray = checks.toArray(Predicate[]::new);
+        return val -> {
+            if (val == null || val.contentEquals("null")) {
+                return false;
+            }
+            for (Predicate<String> check : checkArray) {
+                if (check.test(val)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * @return true if the value of the rule is one of the wild cards * and %, which accept any value
+     */
+    public boolean isWildcard() {
+        return value != null && (value.equals("*") || value.equals("%"));
+    }
+
     @Override
     public boolean equals(Object o) {
         boolean ret = false;
@@ -405,7 +461,7 @@ public class FilterRule {
                     yield val.trim().toUpperCase().endsWith(filterValue.toUpperCase());
                 }
             }
-            case EQUALS -> {
+            case EQUALS, IN -> {
                 if ((ruleFormat.equals(ERuleFormat.QUOTED_REGEX)) || (ruleFormat.equals(ERuleFormat.REGEX))) {
                     yield isValidExpression(filterValue, val, false);
                 } else {
@@ -419,10 +475,7 @@ public class FilterRule {
                     yield val.trim().equalsIgnoreCase(filterValue);
                 }
             }
-            case GREATER_THAN -> Integer.parseInt(val) > Integer.parseInt(filterValue);
-            case GREATER_OR_EQUAL_THAN -> Integer.parseInt(val) >= Integer.parseInt(filterValue);
-            case LESS_THAN -> Integer.parseInt(val) < Integer.parseInt(filterValue);
-            case LESS_OR_EQUAL_THAN -> Integer.parseInt(val) <= Integer.parseInt(filterValue);
+            case GREATER_THAN, GREATER_OR_EQUAL_THAN, LESS_THAN, LESS_OR_EQUAL_THAN -> isValidNumber(val, filterValue);
             case NOT_EQUALS -> {
                 if ((ruleFormat.equals(ERuleFormat.QUOTED_REGEX)) || (ruleFormat.equals(ERuleFormat.REGEX))) {
                     yield !isValidExpression(filterValue, val, false);
@@ -453,18 +506,361 @@ public class FilterRule {
             }
             case AND -> throw new IllegalArgumentException("AND not supported as comparator");
             case OR -> throw new IllegalArgumentException("OR not supported as comparator");
-            case IN -> throw new IllegalArgumentException("IN not supported as comparator");
             case BETWEEN -> throw new IllegalArgumentException("BETWEEN not supported as comparator");
         };
     }
 
-    private boolean isValidExpression(String filterValue, String val, boolean ignoreCase) {
-        Pattern pat = null;
-        if (ignoreCase) {
-            pat = Pattern.compile(filterValue, Pattern.CASE_INSENSITIVE);
-        } else {
-            pat = Pattern.compile(filterValue);
+    /**
+     * Creates the check of a single filter value for {@link #compile()}. Operators without a precompiled
+     * form are delegated to {@link #isValidValue(String, String)}.
+     *
+     * @param filterValue Value to compare with: defined in the filter rule
+     * @return a predicate for the values of the data set, that are neither null nor "null"
+     */
+    private Predicate<String> compileValue(String filterValue) {
+        boolean regex = (ruleFormat == ERuleFormat.QUOTED_REGEX) || (ruleFormat == ERuleFormat.REGEX);
+        return switch (filterOperator) {
+            case CONTAINS -> regex ? compileExpression(".*" + filterValue + ".*", false) : val -> containsTrimmed(val, filterValue);
+            case CONTAINS_IGNORE_CASE -> regex ? compileExpression(".*" + filterValue + ".*", true) : compileUpperCase(filterValue, EOperator.CONTAINS);
+            case ENDS_WITH -> regex ? compileExpression(".*" + filterValue, false) : val -> {
+                int start = trimStart(val);
+                int end = trimEnd(val, start);
+                return end - start >= filterValue.length() && val.startsWith(filterValue, end - filterValue.length());
+            };
+            case ENDS_WITH_IGNORE_CASE -> regex ? compileExpression(".*" + filterValue, true) : compileUpperCase(filterValue, EOperator.ENDS_WITH);
+            case EQUALS, IN -> regex ? compileExpression(filterValue, false) : val -> equalsTrimmed(val, filterValue, false);
+            case EQUALS_IGNORE_CASE -> regex ? compileExpression(filterValue, true) : val -> equalsTrimmed(val, filterValue, true);
+            case NOT_EQUALS -> regex ? compileExpression(filterValue, false).negate() : val -> !equalsTrimmed(val, filterValue, false);
+            case NOT_EQUALS_IGNORE_CASE -> regex ? compileExpression(filterValue, true).negate() : val -> !equalsTrimmed(val, filterValue, true);
+            case STARTS_WITH -> regex ? compileExpression(filterValue + ".*", false) : val -> {
+                int start = trimStart(val);
+                int end = trimEnd(val, start);
+                return end - start >= filterValue.length() && val.startsWith(filterValue, start);
+            };
+            case STARTS_WITH_IGNORE_CASE -> regex ? compileExpression(filterValue + ".*", true) : compileUpperCase(filterValue, EOperator.STARTS_WITH);
+            case GREATER_THAN, GREATER_OR_EQUAL_THAN, LESS_THAN, LESS_OR_EQUAL_THAN -> compileComparison(filterValue);
+            case CONTAINS_DATE, CONTAINS_DATE_AFTER, CONTAINS_DATE_BEFORE, DATE_AFTER, DATE_BEFORE, DATE_EQUALS -> compileDate(filterValue);
+            default -> val -> isValidValue(val, filterValue);
+        };
+    }
+
+    /**
+     * @return true if the operator of the rule compares numbers, like {@link EOperator#GREATER_THAN}
+     */
+    public boolean isNumericComparison() {
+        return switch (filterOperator) {
+            case GREATER_THAN, GREATER_OR_EQUAL_THAN, LESS_THAN, LESS_OR_EQUAL_THAN -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Compiles a rule with the format {@link ERuleFormat#DOUBLE} and a numeric comparison operator into a check
+     * for values that have already been parsed with {@link Double#parseDouble(String)}. Values that are not a
+     * number are represented by {@link Double#NaN} and do not match. This allows to check columns that are
+     * cached as primitive numbers without parsing the values again for every filter.
+     *
+     * @return a predicate that is true for the numbers that match the rule
+     * @throws IllegalStateException if the rule does not compare numbers in the format {@link ERuleFormat#DOUBLE}
+     * @throws NumberFormatException if a value of the rule is not a number
+     */
+    public DoublePredicate compileDouble() {
+        if (ruleFormat != ERuleFormat.DOUBLE || !isNumericComparison()) {
+            throw new IllegalStateException("Only numeric comparisons in the format DOUBLE can be compiled for numbers");
+        }
+        DoublePredicate ret = null;
+        for (String filterValue : values) {
+            // A filter value "null" never matches, see isValidValue
+            if (filterValue == null || filterValue.contentEquals("null")) {
+                continue;
+            }
+            DoublePredicate check = compileDoubleValue(Double.parseDouble(filterValue));
+            ret = ret == null ? check : ret.or(check);
+        }
+        return ret == null ? number -> false : ret;
+    }
+
+    /**
+     * Creates the check of a single filter value for the numeric comparison operators. The filter value gets
+     * parsed once in the type of the {@link #ruleFormat}. Values of the data set that are not a number do not
+     * match the rule.
+     *
+     * @param filterValue Value to compare with: defined in the filter rule
+     * @return a predicate for the values of the data set
+     * @throws NumberFormatException if the filter value is not a number
+     */
+    private Predicate<String> compileComparison(String filterValue) {
+        IntPredicate result = switch (filterOperator) {
+            case GREATER_THAN -> cmp -> cmp > 0;
+            case GREATER_OR_EQUAL_THAN -> cmp -> cmp >= 0;
+            case LESS_THAN -> cmp -> cmp < 0;
+            default -> cmp -> cmp <= 0;
+        };
+        return switch (ruleFormat) {
+            case LONG -> {
+                long bound = Long.parseLong(filterValue.trim());
+                yield val -> {
+                    try {
+                        return result.test(Long.compare(Long.parseLong(val.trim()), bound));
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                };
+            }
+            case DOUBLE -> {
+                DoublePredicate check = compileDoubleValue(Double.parseDouble(filterValue));
+                yield val -> {
+                    try {
+                        return check.test(Double.parseDouble(val));
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                };
+            }
+            default -> {
+                BigDecimal bound = new BigDecimal(filterValue.trim());
+                // Most values are integers, which can be compared without creating a BigDecimal
+                long longBound = 0;
+                boolean integral = false;
+                try {
+                    longBound = bound.longValueExact();
+                    integral = true;
+                } catch (ArithmeticException e) {
+                    // Compared as BigDecimal
+                }
+                long compareBound = longBound;
+                boolean compareLong = integral;
+                yield val -> {
+                    int start = trimStart(val);
+                    int end = trimEnd(val, start);
+                    if (compareLong && isShortInteger(val, start, end)) {
+                        return result.test(Long.compare(Long.parseLong(val, start, end, 10), compareBound));
+                    }
+                    try {
+                        return result.test(new BigDecimal(val.substring(start, end)).compareTo(bound));
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Compares a value with a filter value for the numeric comparison operators. The result is the same as
+     * the check of {@link #compileComparison(String)}, but both values are parsed in place, so the
+     * interpreted {@link #checkValue(String)} does not create a predicate for every value.
+     *
+     * @param val         Value of DataSet, where the rule will apply to
+     * @param filterValue Value to compare with: defined in the filter rule
+     * @return true if the value is a number that matches the rule
+     * @throws NumberFormatException if the filter value is not a number
+     */
+    private boolean isValidNumber(String val, String filterValue) {
+        switch (ruleFormat) {
+            case LONG -> {
+                long bound = Long.parseLong(filterValue.trim());
+                try {
+                    return isValidComparison(Long.compare(Long.parseLong(val.trim()), bound));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+            case DOUBLE -> {
+                double bound = Double.parseDouble(filterValue);
+                double number;
+                try {
+                    number = Double.parseDouble(val);
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                // Comparisons with NaN are always false
+                return switch (filterOperator) {
+                    case GREATER_THAN -> number > bound;
+                    case GREATER_OR_EQUAL_THAN -> number >= bound;
+                    case LESS_THAN -> number < bound;
+                    default -> number <= bound;
+                };
+            }
+            default -> {
+                BigDecimal bound = new BigDecimal(filterValue.trim());
+                try {
+                    return isValidComparison(new BigDecimal(val.trim()).compareTo(bound));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param cmp the result of comparing a value with the filter value, like {@link Comparable#compareTo(Object)}
+     * @return true if the result matches the numeric comparison operator of the rule
+     */
+    private boolean isValidComparison(int cmp) {
+        return switch (filterOperator) {
+            case GREATER_THAN -> cmp > 0;
+            case GREATER_OR_EQUAL_THAN -> cmp >= 0;
+            case LESS_THAN -> cmp < 0;
+            default -> cmp <= 0;
+        };
+    }
+
+    /**
+     * Creates the check of a single filter value for the date operators. The checks use one {@link DateMatcher},
+     * which creates the formatters once, learns the formats of the checked values and parses the filter value
+     * only once.
+     *
+     * @param filterValue Value to compare with: defined in the filter rule
+     * @return a predicate for the values of the data set
+     */
+    private Predicate<String> compileDate(String filterValue) {
+        DateMatcher matcher = new DateMatcher();
+        IntPredicate result = switch (filterOperator) {
+            case CONTAINS_DATE_AFTER, DATE_AFTER -> cmp -> cmp > 0;
+            case CONTAINS_DATE_BEFORE, DATE_BEFORE -> cmp -> cmp < 0;
+            default -> cmp -> cmp == 0;
+        };
+        return switch (filterOperator) {
+            case CONTAINS_DATE, CONTAINS_DATE_AFTER, CONTAINS_DATE_BEFORE -> val -> {
+                Optional<String> found = matcher.findDate(val);
+                return found.isPresent() && result.test(matcher.compare(found.get(), filterValue));
+            };
+            default -> val -> result.test(matcher.compare(val, filterValue));
+        };
+    }
+
+    private DoublePredicate compileDoubleValue(double bound) {
+        // Comparisons with NaN are always false
+        return switch (filterOperator) {
+            case GREATER_THAN -> number -> number > bound;
+            case GREATER_OR_EQUAL_THAN -> number -> number >= bound;
+            case LESS_THAN -> number -> number < bound;
+            default -> number -> number <= bound;
+        };
+    }
+
+    /**
+     * @return true if the region only consists of an optional sign and up to 18 digits, so it can be parsed as long
+     */
+    private static boolean isShortInteger(String val, int start, int end) {
+        if (start < end && (val.charAt(start) == '-' || val.charAt(start) == '+')) {
+            start++;
+        }
+        if (start == end || end - start > 18) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = val.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the check for the operators that compare the upper case form of the trimmed value, like
+     * {@link EOperator#CONTAINS_IGNORE_CASE}. Values that only consist of ASCII characters are compared
+     * in place, all other values are converted like in {@link #isValidValue(String, String)}.
+     *
+     * @param filterValue Value to compare with: defined in the filter rule
+     * @param mode        {@link EOperator#CONTAINS}, {@link EOperator#STARTS_WITH} or {@link EOperator#ENDS_WITH}
+     * @return a predicate for the values of the data set
+     */
+    private static Predicate<String> compileUpperCase(String filterValue, EOperator mode) {
+        String upper = filterValue.toUpperCase();
+        // In locales like Turkish the upper case of ASCII letters is not ASCII
+        boolean asciiUpper = isAscii(upper, 0, upper.length()) && "i".toUpperCase().equals("I");
+        int length = upper.length();
+        return val -> {
+            int start = trimStart(val);
+            int end = trimEnd(val, start);
+            if (asciiUpper && isAscii(val, start, end)) {
+                return switch (mode) {
+                    case STARTS_WITH -> end - start >= length && val.regionMatches(true, start, upper, 0, length);
+                    case ENDS_WITH -> end - start >= length && val.regionMatches(true, end - length, upper, 0, length);
+                    default -> {
+                        for (int pos = start; pos <= end - length; pos++) {
+                            if (val.regionMatches(true, pos, upper, 0, length)) {
+                                yield true;
+                            }
+                        }
+                        yield false;
+                    }
+                };
+            }
+            String trimmed = val.substring(start, end).toUpperCase();
+            return switch (mode) {
+                case STARTS_WITH -> trimmed.startsWith(upper);
+                case ENDS_WITH -> trimmed.endsWith(upper);
+                default -> trimmed.contains(upper);
+            };
+        };
+    }
+
+    /**
+     * Creates the check for a regular expression that gets compiled once. The matcher gets reused
+     * within each thread.
+     */
+    private static Predicate<String> compileExpression(String expression, boolean ignoreCase) {
+        Pattern pat = PatternCache.get(expression, ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+        ThreadLocal<Matcher> matcher = ThreadLocal.withInitial(() -> pat.matcher(""));
+        return val -> matcher.get().reset(val).matches();
+    }
+
+    /**
+     * @return same result as {@code val.trim().contains(filterValue)}
+     */
+    private static boolean containsTrimmed(String val, String filterValue) {
+        int start = trimStart(val);
+        int end = trimEnd(val, start);
+        int pos = val.indexOf(filterValue, start);
+        return pos >= 0 && pos + filterValue.length() <= end;
+    }
+
+    /**
+     * @return same result as {@code val.trim().equals(filterValue)} or {@code val.trim().equalsIgnoreCase(filterValue)}
+     */
+    private static boolean equalsTrimmed(String val, String filterValue, boolean ignoreCase) {
+        int start = trimStart(val);
+        int end = trimEnd(val, start);
+        return end - start == filterValue.length() && val.regionMatches(ignoreCase, start, filterValue, 0, filterValue.length());
+    }
+
+    /**
+     * @return the index of the first character that is not removed by {@link String#trim()}
+     */
+    private static int trimStart(String val) {
+        int start = 0;
+        while (start < val.length() && val.charAt(start) <= ' ') {
+            start++;
         }
+        return start;
+    }
+
+    /**
+     * @return the index behind the last character that is not removed by {@link String#trim()}
+     */
+    private static int trimEnd(String val, int start) {
+        int end = val.length();
+        while (end > start && val.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isAscii(String val, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (val.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isValidExpression(String filterValue, String val, boolean ignoreCase) {
+        Pattern pat = PatternCache.get(filterValue, ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
         Matcher match = pat.matcher(val);
         return match.matches();
     }
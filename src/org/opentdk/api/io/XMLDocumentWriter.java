@@ -0,0 +1,313 @@
+package org.opentdk.api.io;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a DOM document or node as indented XML text in a single pass over the tree. The output has the
+ * same format as the identity {@link javax.xml.transform.Transformer} with indentation that was used by
+ * {@link XMLEditor} before, after removing the text nodes that only contain white space:
+ * <ul>
+ * <li>every element, comment, processing instruction and CDATA section starts on a new line and is indented
+ * by four spaces per level</li>
+ * <li>an element that only contains text and CDATA sections is written on one line, e.g.
+ * <code>&lt;name&gt;Emma&lt;/name&gt;</code></li>
+ * <li>an element without children is written as empty tag, e.g. <code>&lt;empty/&gt;</code></li>
+ * </ul>
+ * Text nodes that only contain white space are skipped while writing, so the document does not have to be
+ * normalized before and is not changed. The characters are escaped directly, without the overhead of the
+ * transformation API, so writing large documents is limited by the output and not by the serialization.
+ *
+ * @author LK Test Solutions
+ */
+public final class XMLDocumentWriter {
+
+	private static final String INDENT = "    ";
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+	private final Writer out;
+	private final String lineSeparator = System.lineSeparator();
+
+	/**
+	 * The output is collected here and passed to the writer in large blocks, which avoids the
+	 * synchronization and encoding overhead of many small writes.
+	 */
+	private final char[] buffer = new char[8192];
+	private int count;
+
+	/**
+	 * True until the first line was written, which does not start with a line separator.
+	 */
+	private boolean firstLine = true;
+
+	private XMLDocumentWriter(Writer out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes a document or node to a file with UTF-8 encoding.
+	 *
+	 * @param node       the document or node to write
+	 * @param outputFile the file to create or overwrite
+	 * @param skipHeader true if the output should not start with the XML declaration
+	 * @throws IOException if the file can not be written
+	 */
+	public static void write(Node node, Path outputFile, boolean skipHeader) throws IOException {
+		// The output is already buffered, so the encoding writer is used directly on the file channel
+		try (Writer writer = new OutputStreamWriter(Files.newOutputStream(outputFile), StandardCharsets.UTF_8)) {
+			write(node, writer, skipHeader);
+		}
+	}
+
+	/**
+	 * Writes a document or node to a writer, which does not get flushed or closed. The XML declaration
+	 * specifies UTF-8, so the writer should use this encoding.
+	 *
+	 * @param node       the document or node to write
+	 * @param out        the target of the XML text
+	 * @param skipHeader true if the output should not start with the XML declaration
+	 * @throws IOException if the writer fails
+	 */
+	public static void write(Node node, Writer out, boolean skipHeader) throws IOException {
+		XMLDocumentWriter writer = new XMLDocumentWriter(out);
+		if (!skipHeader) {
+			writer.append(XML_DECLARATION);
+			writer.firstLine = false;
+		}
+		writer.writeNode(node, 0);
+		writer.append(writer.lineSeparator);
+		writer.flushBuffer();
+	}
+
+	private void writeNode(Node node, int level) throws IOException {
+		switch (node.getNodeType()) {
+			case Node.DOCUMENT_NODE -> {
+				for (Node child = ((Document) node).getFirstChild(); child != null; child = child.getNextSibling()) {
+					if (!isBlankText(child)) {
+						writeNode(child, level);
+					}
+				}
+			}
+			case Node.ELEMENT_NODE -> writeElement(node, level);
+			case Node.TEXT_NODE -> {
+				newLine(level);
+				writeText(node.getNodeValue());
+			}
+			case Node.CDATA_SECTION_NODE -> {
+				newLine(level);
+				writeCData(node.getNodeValue());
+			}
+			case Node.COMMENT_NODE -> {
+				newLine(level);
+				append("<!--");
+				append(node.getNodeValue());
+				append("-->");
+			}
+			case Node.PROCESSING_INSTRUCTION_NODE -> {
+				newLine(level);
+				append("<?");
+				append(node.getNodeName());
+				if (!node.getNodeValue().isEmpty()) {
+					append(' ');
+					append(node.getNodeValue());
+				}
+				append("?>");
+			}
+			case Node.ENTITY_REFERENCE_NODE -> {
+				newLine(level);
+				append('&');
+				append(node.getNodeName());
+				append(';');
+			}
+			default -> {
+				// Document types are disallowed by the parser and not written
+			}
+		}
+	}
+
+	private void writeElement(Node element, int level) throws IOException {
+		newLine(level);
+		append('<');
+		append(element.getNodeName());
+		// Namespace declarations are written first
+		NamedNodeMap attributes = element.getAttributes();
+		writeAttributes(attributes, true);
+		writeAttributes(attributes, false);
+		Node first = nextChild(element.getFirstChild());
+		if (first == null) {
+			append("/>");
+			return;
+		}
+		append('>');
+		if (hasOnlyCharacterData(first)) {
+			for (Node child = first; child != null; child = nextChild(child.getNextSibling())) {
+				if (child.getNodeType() == Node.TEXT_NODE) {
+					writeText(child.getNodeValue());
+				} else {
+					writeCData(child.getNodeValue());
+				}
+			}
+		} else {
+			for (Node child = first; child != null; child = nextChild(child.getNextSibling())) {
+				writeNode(child, level + 1);
+			}
+			newLine(level);
+		}
+		append("</");
+		append(element.getNodeName());
+		append('>');
+	}
+
+	private void writeAttributes(NamedNodeMap attributes, boolean namespaces) throws IOException {
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Node attr = attributes.item(i);
+			String name = attr.getNodeName();
+			if (namespaces == (name.equals("xmlns") || name.startsWith("xmlns:"))) {
+				append(' ');
+				append(name);
+				append("=\"");
+				writeAttributeValue(attr.getNodeValue());
+				append('"');
+			}
+		}
+	}
+
+	/**
+	 * @return true if the node and its siblings are only text and CDATA sections, which are written on the
+	 *         line of the parent element
+	 */
+	private static boolean hasOnlyCharacterData(Node first) {
+		for (Node child = first; child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() != Node.TEXT_NODE && child.getNodeType() != Node.CDATA_SECTION_NODE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the given node or the next sibling that is no white space text, or null
+	 */
+	private static Node nextChild(Node node) {
+		while (node != null && isBlankText(node)) {
+			node = node.getNextSibling();
+		}
+		return node;
+	}
+
+	private static boolean isBlankText(Node node) {
+		return node.getNodeType() == Node.TEXT_NODE && node.getNodeValue().isBlank();
+	}
+
+	private void newLine(int level) throws IOException {
+		if (firstLine) {
+			firstLine = false;
+		} else {
+			append(lineSeparator);
+		}
+		for (int i = 0; i < level; i++) {
+			append(INDENT);
+		}
+	}
+
+	private void writeText(String text) throws IOException {
+		int start = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			String escaped = switch (c) {
+				case '&' -> "&amp;";
+				case '<' -> "&lt;";
+				case '>' -> "&gt;";
+				case '\n', '\t' -> null;
+				default -> escapeControl(c);
+			};
+			if (escaped != null) {
+				append(text, start, i - start);
+				append(escaped);
+				start = i + 1;
+			}
+		}
+		append(text, start, text.length() - start);
+	}
+
+	private void append(char c) throws IOException {
+		if (count == buffer.length) {
+			flushBuffer();
+		}
+		buffer[count++] = c;
+	}
+
+	private void append(String str) throws IOException {
+		append(str, 0, str.length());
+	}
+
+	private void append(String str, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (count == buffer.length) {
+				flushBuffer();
+			}
+			int n = Math.min(length, buffer.length - count);
+			str.getChars(offset, offset + n, buffer, count);
+			count += n;
+			offset += n;
+			length -= n;
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		out.write(buffer, 0, count);
+		count = 0;
+	}
+
+	private void writeCData(String data) throws IOException {
+		append("<![CDATA[");
+		// The end marker of a section can not be part of it, so the section gets split
+		append(data.replace("]]>", "]]]]><![CDATA[>"));
+		append("]]>");
+	}
+
+	private void writeAttributeValue(String value) throws IOException {
+		int start = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			String escaped = switch (c) {
+				case '&' -> "&amp;";
+				case '<' -> "&lt;";
+				case '>' -> "&gt;";
+				case '"' -> "&quot;";
+				case '\n' -> "&#10;";
+				case '\t' -> "&#9;";
+				default -> escapeControl(c);
+			};
+			if (escaped != null) {
+				append(value, start, i - start);
+				append(escaped);
+				start = i + 1;
+			}
+		}
+		append(value, start, value.length() - start);
+	}
+
+	/**
+	 * @return the character reference of a control character, including the carriage return, which would
+	 *         otherwise be removed by the line end handling of a parser, or null for any other character
+	 * @throws IOException if the character is not allowed in XML 1.0
+	 */
+	private static String escapeControl(char c) throws IOException {
+		if (c == '\r' || (c >= 0x7F && c <= 0x9F)) {
+			return "&#" + (int) c + ";";
+		}
+		if (c < 0x20) {
+			throw new IOException("An invalid XML character (Unicode: 0x" + Integer.toHexString(c) + ") was found in the document");
+		}
+		return null;
+	}
+}
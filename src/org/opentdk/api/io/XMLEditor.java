@@ -6,28 +6,23 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class is used for read and write access to data which is stored in XML format.
@@ -35,6 +30,10 @@ import java.util.List;
  * @author LK Test Solutions
  */
 public class XMLEditor {
+	/**
+	 * Default maximum number of compiled XPath expressions that are cached per instance.
+	 */
+	public static final int DEFAULT_XPATH_CACHE_SIZE = 128;
 	/**
 	 * File object with the relative or absolute path and filename of the XML file.
 	 */
@@ -55,6 +54,34 @@ public class XMLEditor {
 	 * The top level XML tag that has all other elements.
 	 */
 	private Element rootElement;
+	/**
+	 * Number of open batches, see {@link #beginBatch()}. Changes are only written to the file while no
+	 * batch is open.
+	 */
+	private int batchDepth;
+	/**
+	 * True if the document has changes that have not been written to the file yet.
+	 */
+	private boolean pendingChanges;
+	/**
+	 * XPath object of this instance that compiles the expressions, created with the first expression.
+	 */
+	private XPath xPath;
+	/**
+	 * Maximum number of expressions in {@link #xPathCache}, 0 disables the cache.
+	 */
+	private int xPathCacheSize = DEFAULT_XPATH_CACHE_SIZE;
+	/**
+	 * The compiled XPath expressions in access order, the eldest entry is the least recently used one.
+	 */
+	private final Map<String, XPathExpression> xPathCache = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+			return size() > xPathCacheSize;
+		}
+	};
 
 	/**
 	 * Constructor that is used to create a new empty instance. After initialization read and write
@@ -109,18 +136,8 @@ public class XMLEditor {
 	}
 
 	private void createXMLEditor() throws ParserConfigurationException, IOException, SAXException {
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		// Security settings: If document type definitions (DTD) are disallowed, almost all XML entity attacks are prevented
-		dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-		// Set recommended secure processing features
-		dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-		// dbf.setFeature(XMLConstants.ACCESS_EXTERNAL_DTD, false);
-		// dbf.setFeature(XMLConstants.ACCESS_EXTERNAL_SCHEMA, false);
-
-		// Security settings: This prevents the parser to expand the entity reference node
-		dbf.setExpandEntityReferences(false);
-
-		DocumentBuilder docBuilder = dbf.newDocumentBuilder();
+		// Security settings, see XMLFactories
+		DocumentBuilder docBuilder = XMLFactories.getDocumentBuilder();
 		if ((xmlFile != null) && (xmlFile.exists())) {
 			doc = docBuilder.parse(xmlFile);
 			doc.getDocumentElement().normalize();
@@ -141,7 +158,7 @@ public class XMLEditor {
 
 	public Element addChildElement(Element parent, Element child) throws IOException, TransformerException {
 		Element newE = (Element) parent.appendChild(child);
-		save();
+		autoSave();
 		return newE;
 	}
 
@@ -154,32 +171,38 @@ public class XMLEditor {
 	}
 
 	public Element addElement(String xPath, String elementName, String elementValue, String attributeName, String attributeValue) throws IOException, TransformerException {
-		// check if all xpath nodes exist and create missing nodes
-		Element pathE = checkXPath(xPath, true);
-		// create the element to add
-		Element newChild = null;
-		if (StringUtils.isBlank(attributeName)) {
-			newChild = createElement(elementName);
-		} else {
-			newChild = this.createElement(elementName, attributeName, attributeValue);
+		beginBatch();
+		try {
+			// check if all xpath nodes exist and create missing nodes
+			Element pathE = checkXPath(xPath, true);
+			// create the element to add
+			Element newChild = null;
+			if (StringUtils.isBlank(attributeName)) {
+				newChild = createElement(elementName);
+			} else {
+				newChild = this.createElement(elementName, attributeName, attributeValue);
+			}
+			newChild.setTextContent(elementValue);
+			pathE.appendChild(newChild);
+			autoSave();
+			return newChild;
+		} finally {
+			commit();
 		}
-		newChild.setTextContent(elementValue);
-		pathE.appendChild(newChild);
-		save();
-		return newChild;
 	}
 
 	public Element addRootElement(Element rootE) throws IOException, TransformerException {
 		rootNodeName = rootE.getNodeName();
 		Element outRoot = doc.createElement(rootNodeName);
-		save();
+		autoSave();
 		return outRoot;
 	}
 
 	/**
 	 * Adds a child tag to the root tag of the XML document which is represented by the current instance
 	 * of the {@link #doc} property. This method will immediately write the tag into the physical XML
-	 * file which is represented by the {@link #doc} property, using the {@link #save()} Method.
+	 * file which is represented by the {@link #doc} property, using the {@link #save()} Method, unless a
+	 * batch is open (see {@link #beginBatch()}).
 	 * 
 	 * @param entry The XML tag as type {@link Element} that will be added to the root
 	 *              element of the current XML Document
@@ -187,7 +210,7 @@ public class XMLEditor {
 	public void addTag(Element entry) throws IOException, TransformerException {
 		Element parent = doc.getDocumentElement();
 		parent.appendChild(entry);
-		save();
+		autoSave();
 	}
 
 	/**
@@ -203,7 +226,7 @@ public class XMLEditor {
 	 * Adds a child tag with one or more attributes to the root tag of the XML document which is
 	 * represented by the current instance of the {@link #doc} property. This method will immediately
 	 * write the tag into the physical XML file which is represented by the {@link #doc} property, using
-	 * the {@link #save()} Method.
+	 * the {@link #save()} Method, unless a batch is open (see {@link #beginBatch()}).
 	 * 
 	 * @param tagName    Name of the XML tag
 	 * @param attributes HashMap containing attributes with their names as keys
@@ -225,12 +248,72 @@ public class XMLEditor {
 		addTag(tagName, hm);
 	}
 
+	/**
+	 * Gets the compiled XPath expression. The same expressions are evaluated repeatedly, e.g. by the
+	 * settings of an application, so they get compiled once and taken from a cache of this instance
+	 * afterwards. When the cache is full, the least recently used expression gets removed.
+	 * 
+	 * @param exp the XPath expression
+	 * @return the compiled expression
+	 * @throws XPathExpressionException if the expression can not be compiled, invalid expressions are not
+	 *                                  cached
+	 */
+	private XPathExpression compileXPath(String exp) throws XPathExpressionException {
+		XPathExpression ret = xPathCache.get(exp);
+		if (ret == null) {
+			if (xPath == null) {
+				xPath = XMLFactories.newXPath();
+			}
+			ret = xPath.compile(exp);
+			if (xPathCacheSize > 0) {
+				xPathCache.put(exp, ret);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Sets the maximum number of compiled XPath expressions that are cached by this instance, the default
+	 * is {@value #DEFAULT_XPATH_CACHE_SIZE}.
+	 * 
+	 * @param size the maximum number of expressions, 0 disables the cache
+	 * @throws IllegalArgumentException if the size is negative
+	 */
+	public void setXPathCacheSize(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("The XPath cache size must not be negative");
+		}
+		xPathCacheSize = size;
+		// Remove the least recently used expressions that exceed the new size
+		Iterator<String> it = xPathCache.keySet().iterator();
+		while (xPathCache.size() > size && it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	/**
+	 * @return the number of compiled XPath expressions in the cache of this instance
+	 */
+	public int getXPathCacheCount() {
+		return xPathCache.size();
+	}
+
 	/**
 	 * @param xPath valid {@link XPath}
 	 * @param createMissingNodes true: missing elements along the path get created to be able to place an element, false otherwise
 	 * @return the detected or created element defined at the end of the xPath or null if there is no hiz
 	 */
 	public Element checkXPath(String xPath, boolean createMissingNodes) throws IOException, TransformerException {
+		beginBatch();
+		try {
+			return resolveXPath(xPath, createMissingNodes);
+		} finally {
+			commit();
+		}
+	}
+
+	private Element resolveXPath(String xPath, boolean createMissingNodes) throws IOException, TransformerException {
 		List<Element> eList = getElementsListFromXPath(xPath);
 		Element resolvedE = null;
 		for (Element searchE : eList) {
@@ -400,7 +483,7 @@ public class XMLEditor {
 	 */
 	public void delElement(Element target) throws IOException, TransformerException {
 		getElement(target).getParentNode().removeChild(getElement(target));
-		save();
+		autoSave();
 	}
 
 	/**
@@ -441,7 +524,7 @@ public class XMLEditor {
 			}
 			if(oldChild != null) {
 				pathE.removeChild(oldChild);
-				save();
+				autoSave();
 			}
 		}
 	}
@@ -542,10 +625,9 @@ public class XMLEditor {
 	public Element getElement(String exp) throws XPathExpressionException {
 		Element ret = null;
 		if (isXPath(exp)) {
-			XPath xPath = XPathFactory.newInstance().newXPath();
 			// Security: This evaluation is fine because the document object is already checked when the XML is
 			// read.
-			ret = (Element) xPath.compile(exp).evaluate(doc, XPathConstants.NODE);
+			ret = (Element) compileXPath(exp).evaluate(doc, XPathConstants.NODE);
 		}
 		return ret;
 	}
@@ -670,9 +752,8 @@ public class XMLEditor {
 		NodeList nl;
 		ArrayList<Element> ret = new ArrayList<Element>();
 		if (isXPath(exp)) {
-			XPath xPath = XPathFactory.newInstance().newXPath();
 			// Security: This evaluation is fine because the document object is already checked when the XML is read.
-			nl = (NodeList) xPath.compile(exp).evaluate(doc, XPathConstants.NODESET);
+			nl = (NodeList) compileXPath(exp).evaluate(doc, XPathConstants.NODESET);
 			for (int i = 0; i < nl.getLength(); i++) {
 				ret.add((Element) nl.item(i));
 			}
@@ -789,9 +870,8 @@ public class XMLEditor {
 	public String getText(String exp) throws XPathExpressionException {
 		String ret = null;
 		if (isXPath(exp)) {
-			XPath xPath = XPathFactory.newInstance().newXPath();
 			// Security: This evaluation is fine because the document object is already checked when the XML is read.
-			ret = (String) xPath.compile(exp).evaluate(doc, XPathConstants.STRING);
+			ret = (String) compileXPath(exp).evaluate(doc, XPathConstants.STRING);
 		}
 		return ret;
 	}
@@ -908,20 +988,6 @@ public class XMLEditor {
 		return sb.toString();
 	}
 
-	private void removeEmptySpace(Node parent) {
-		int i = 0;
-		while (i != parent.getChildNodes().getLength()) {
-			if (parent.getChildNodes().item(i).hasChildNodes()) {
-				removeEmptySpace(parent.getChildNodes().item(i));
-			}
-			if (parent.getChildNodes().item(i).getNodeType() == 3 && parent.getChildNodes().item(i).getNodeValue().trim().equals("")) {
-				parent.removeChild(parent.getChildNodes().item(i));
-			} else {
-				i++;
-			}
-		}
-	}
-
 	/**
 	 * Replaces the old Element with a new Element at the same hierarchical position.
 	 * 
@@ -929,9 +995,14 @@ public class XMLEditor {
 	 * @param newEl the new Element
 	 */
 	public void replaceElement(Element oldEl, Element newEl) throws IOException, TransformerException {
-		Element parent = this.getParent(oldEl);
-		this.delElement(oldEl);
-		this.addChildElement(parent, newEl);
+		beginBatch();
+		try {
+			Element parent = this.getParent(oldEl);
+			this.delElement(oldEl);
+			this.addChildElement(parent, newEl);
+		} finally {
+			commit();
+		}
 	}
 
 	/**
@@ -942,7 +1013,71 @@ public class XMLEditor {
 	}
 
 	/**
-	 * Write out results of the XMLEditor to the related file.
+	 * Starts a batch of changes. The methods that change the document write the file immediately by
+	 * default, which serializes the whole document for every single change. Within a batch the changes
+	 * are only kept in the document and written once by {@link #commit()}:
+	 * 
+	 * <pre>
+	 * xmlEdit.beginBatch();
+	 * try {
+	 *     for (Element e : elements) {
+	 *         xmlEdit.setElementValue(e, value);
+	 *     }
+	 * } finally {
+	 *     xmlEdit.commit();
+	 * }
+	 * </pre>
+	 * 
+	 * Batches can be nested, the file gets written when the outermost batch is committed.
+	 */
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	/**
+	 * Ends the batch that was started by {@link #beginBatch()}. If it was the outermost batch, the
+	 * pending changes get written to the file.
+	 * 
+	 * @throws IllegalStateException if no batch is open
+	 */
+	public void commit() throws IOException, TransformerException {
+		if (batchDepth == 0) {
+			throw new IllegalStateException("No batch to commit");
+		}
+		batchDepth--;
+		if (batchDepth == 0 && pendingChanges) {
+			save();
+		}
+	}
+
+	/**
+	 * @return true if a batch is open, see {@link #beginBatch()}
+	 */
+	public boolean isBatch() {
+		return batchDepth > 0;
+	}
+
+	/**
+	 * @return true if the document has changes that have not been written to the file yet
+	 */
+	public boolean hasPendingChanges() {
+		return pendingChanges;
+	}
+
+	/**
+	 * Writes the document after a change, or only marks the change as pending while a batch is open.
+	 */
+	private void autoSave() throws IOException, TransformerException {
+		if (batchDepth > 0) {
+			pendingChanges = true;
+		} else {
+			save();
+		}
+	}
+
+	/**
+	 * Write out results of the XMLEditor to the related file. This also writes the pending changes of an
+	 * open batch.
 	 */
 	public void save() throws IOException, TransformerException {
 		if (doc.getDocumentURI() != null) {
@@ -950,26 +1085,18 @@ public class XMLEditor {
 				save(xmlFile);
 			}
 		}
+		pendingChanges = false;
 	}
 
 	public void save(String fileName) throws IOException, TransformerException {
 		save(new File(fileName));
 	}
 
+	/**
+	 * Writes the document with indentation to the given file, see {@link XMLDocumentWriter}.
+	 */
 	public void save(File xmlOut) throws IOException, TransformerException {
-		TransformerFactory transformerFactory = TransformerFactory.newInstance();
-		// Set recommended secure processing features
-		transformerFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-		Transformer transformer = transformerFactory.newTransformer();
-		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-		removeEmptySpace(rootElement);
-
-		DOMSource source = new DOMSource(doc);
-		StreamResult result = new StreamResult(xmlOut);
-		transformer.transform(source, result);
-		doc.getDocumentElement().normalize();
+		XMLDocumentWriter.write(doc, xmlOut.toPath(), false);
 	}
 
 	/**
@@ -983,31 +1110,10 @@ public class XMLEditor {
 	 * @return the whole content (with children) of the given XML node as string.
 	 */
 	public String asString(Node node, boolean skipHeader) throws TransformerException, IOException {
-		String ret = "";
-		TransformerFactory transformerFactory  = TransformerFactory.newInstance();
-		try(StringWriter writer = new StringWriter()) {
-			// Set recommended secure processing features
-			transformerFactory .setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-			Transformer transformer = transformerFactory .newTransformer();
-			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-			// true ==> No XML header in the output
-			if(skipHeader) {
-				transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-			}
-
-			removeEmptySpace(node);
-
-			// Transform the node to a string
-			DOMSource source = new DOMSource(node);
-			StreamResult result = new StreamResult(writer);
-			transformer.transform(source, result);
-			// Store result
-			ret = writer.getBuffer().toString();
-
-			// Clean up
-		}
-		return ret;
+		StringWriter writer = new StringWriter();
+		// true ==> No XML header in the output
+		XMLDocumentWriter.write(node, writer, skipHeader);
+		return writer.toString();
 	}
 
 	/**
@@ -1023,13 +1129,13 @@ public class XMLEditor {
 			el.removeChild(el.getFirstChild());
 		}
 		el.appendChild(doc.createTextNode(val));
-		save();
+		autoSave();
 		return el;
 	}
 
 	public Boolean validateXMLFile(File inFile) {
 		try {
-			SAXParserFactory.newInstance().newSAXParser().parse(inFile, new DefaultHandler());
+			XMLFactories.getSAXParser().parse(inFile, new DefaultHandler());
 		} catch (SAXException | IOException | ParserConfigurationException e) {
 			return false;
 		}
@@ -1038,7 +1144,7 @@ public class XMLEditor {
 
 	public Boolean validateXMLString(InputStream inStream) {
 		try {
-			SAXParserFactory.newInstance().newSAXParser().getXMLReader().parse(new InputSource(inStream));
+			XMLFactories.getSAXParser().getXMLReader().parse(new InputSource(inStream));
 		} catch (IOException | ParserConfigurationException | SAXException e) {
 			return false;
 		}
@@ -1048,7 +1154,7 @@ public class XMLEditor {
 	public Boolean validateXMLString(String inString) {
 		try {
 			InputStream inStream = new ByteArrayInputStream(inString.getBytes(StandardCharsets.UTF_8));
-			SAXParserFactory.newInstance().newSAXParser().getXMLReader().parse(new InputSource(inStream));
+			XMLFactories.getSAXParser().getXMLReader().parse(new InputSource(inStream));
 		} catch (IOException | ParserConfigurationException | SAXException e) {
 			return false;
 		}
@@ -0,0 +1,271 @@
+package org.opentdk.api.io;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the elements of an XML file that match a path one at a time with a StAX stream reader, instead of
+ * building the document tree like {@link XMLEditor}. Only the current element is kept in memory, so the
+ * size of the file is not limited by the heap.
+ * <p>
+ * The path is a simple location path of tag names, not a full XPath:
+ * <ul>
+ * <li><code>/Contacts/Business/person</code> matches the elements at exactly that position</li>
+ * <li><code>person</code>, <code>//person</code> or <code>Business/person</code> match the elements with
+ * that name or path end at any level</li>
+ * <li><code>*</code> matches any tag name, e.g. <code>/Contacts/&#42;/person</code></li>
+ * </ul>
+ * Other XPath syntax like predicates, attributes, functions, axes, the steps <code>.</code> and <code>..</code> or a
+ * <code>//</code> within the path is not supported and rejected.
+ * Elements that match within an element that already matches are part of the outer element and are not
+ * returned separately.
+ * <pre>
+ * try (Stream&lt;XMLRecord&gt; persons = new XMLElementReader(file, "/Contacts/Business/person").stream()) {
+ *     persons.filter(p -&gt; p.getValue("city").equals("Berlin")).forEach(...);
+ * }
+ * </pre>
+ * The reader has to be closed after usage. Errors of the parser during the iteration are thrown as
+ * {@link UncheckedIOException}.
+ *
+ * @author LK Test Solutions
+ */
+public class XMLElementReader implements Iterator<XMLRecord>, Closeable {
+
+	private final InputStream input;
+	private final XMLStreamReader reader;
+
+	/**
+	 * Tag names of the path to match, "*" matches any name.
+	 */
+	private final String[] segments;
+	/**
+	 * True if the path has to match from the root element, otherwise it has to match the end of the path
+	 * of an element.
+	 */
+	private final boolean absolute;
+
+	/**
+	 * Tag names of the current element and its ancestors, the first {@link #depth} entries are used.
+	 */
+	private String[] names = new String[16];
+	private int depth;
+
+	private XMLRecord next;
+
+	/**
+	 * Opens the file for reading the matching elements.
+	 *
+	 * @param sourceFile the XML file
+	 * @param path       the path of the elements to read, see {@link XMLElementReader}
+	 * @throws IOException              if the file can not be opened or its start is no valid XML
+	 * @throws IllegalArgumentException if the path is empty or contains unsupported XPath syntax
+	 */
+	public XMLElementReader(Path sourceFile, String path) throws IOException {
+		this(new BufferedInputStream(Files.newInputStream(sourceFile)), path);
+	}
+
+	/**
+	 * Reads the matching elements from a stream, which gets closed together with this reader.
+	 *
+	 * @param stream the XML content
+	 * @param path   the path of the elements to read, see {@link XMLElementReader}
+	 * @throws IOException              if the start of the stream is no valid XML
+	 * @throws IllegalArgumentException if the path is empty or contains unsupported XPath syntax
+	 */
+	public XMLElementReader(InputStream stream, String path) throws IOException {
+		absolute = path.startsWith("/") && !path.startsWith("//");
+		segments = Arrays.stream(path.split("/")).filter(s -> !s.isBlank()).map(String::trim).toArray(String[]::new);
+		if (segments.length == 0) {
+			stream.close();
+			throw new IllegalArgumentException("The path of the elements must not be empty");
+		}
+		// Unsupported XPath syntax would be taken as tag name and silently match nothing
+		if (path.indexOf("//", 1) >= 0 || Arrays.stream(segments).anyMatch(XMLElementReader::isUnsupported)) {
+			stream.close();
+			throw new IllegalArgumentException("The path '" + path + "' is no simple path of tag names");
+		}
+		input = stream;
+		try {
+			reader = XMLFactories.getXMLInputFactory().createXMLStreamReader(stream);
+		} catch (XMLStreamException e) {
+			stream.close();
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * @return a sequential stream of the remaining matching elements that closes this reader when it gets
+	 *         closed
+	 */
+	public Stream<XMLRecord> stream() {
+		Spliterator<XMLRecord> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(() -> {
+			try {
+				close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			try {
+				next = readNext();
+			} catch (XMLStreamException e) {
+				throw new UncheckedIOException(new IOException(e));
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public XMLRecord next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		XMLRecord ret = next;
+		next = null;
+		return ret;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Moves the reader to the next matching element and reads it completely.
+	 *
+	 * @return the element or null at the end of the document
+	 */
+	private XMLRecord readNext() throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				push(getName());
+				if (matches()) {
+					return readElement();
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the current element including its descendants. The reader is positioned at the start of the
+	 * element and gets moved to its end.
+	 */
+	private XMLRecord readElement() throws XMLStreamException {
+		String name = names[depth - 1];
+		StringBuilder path = new StringBuilder();
+		for (int i = 0; i < depth; i++) {
+			path.append('/').append(names[i]);
+		}
+		Map<String, String> attributes = new LinkedHashMap<>();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String prefix = reader.getAttributePrefix(i);
+			String attrName = prefix == null || prefix.isEmpty() ? reader.getAttributeLocalName(i) : prefix + ":" + reader.getAttributeLocalName(i);
+			attributes.put(attrName, reader.getAttributeValue(i));
+		}
+		Map<String, String> children = new LinkedHashMap<>();
+		StringBuilder text = new StringBuilder();
+		// Text content of the direct child that is currently read, null if it is a repeated tag
+		String childName = null;
+		StringBuilder childText = null;
+		int level = 0;
+		while (level >= 0) {
+			int event = reader.next();
+			switch (event) {
+				case XMLStreamConstants.START_ELEMENT -> {
+					level++;
+					if (level == 1) {
+						childName = getName();
+						childText = children.containsKey(childName) ? null : new StringBuilder();
+					}
+				}
+				case XMLStreamConstants.END_ELEMENT -> {
+					if (level == 1 && childText != null) {
+						children.put(childName, childText.toString());
+					}
+					level--;
+				}
+				case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+					text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					if (level >= 1 && childText != null) {
+						childText.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+				}
+				default -> {
+					// Comments and processing instructions are not part of the text content
+				}
+			}
+		}
+		depth--;
+		return new XMLRecord(name, path.toString(), Collections.unmodifiableMap(attributes), Collections.unmodifiableMap(children), text.toString());
+	}
+
+	/**
+	 * @return true if the path segment contains XPath syntax other than a tag name or the wildcard
+	 */
+	private static boolean isUnsupported(String segment) {
+		// A dot is a valid character of a tag name, only the abbreviated steps . and .. are rejected
+		return segment.contains("[") || segment.contains("]") || segment.contains("@") || segment.contains("(")
+				|| segment.contains("::") || segment.equals(".") || segment.equals("..");
+	}
+
+	private boolean matches() {
+		if (absolute ? depth != segments.length : depth < segments.length) {
+			return false;
+		}
+		int offset = depth - segments.length;
+		for (int i = 0; i < segments.length; i++) {
+			if (!segments[i].equals("*") && !segments[i].equals(names[offset + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void push(String name) {
+		if (depth == names.length) {
+			names = Arrays.copyOf(names, depth * 2);
+		}
+		names[depth++] = name;
+	}
+
+	/**
+	 * @return the tag name of the current element including the prefix, like {@link org.w3c.dom.Element#getTagName()}
+	 */
+	private String getName() {
+		String prefix = reader.getPrefix();
+		return prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+	}
+}
@@ -0,0 +1,145 @@
+package org.opentdk.api.io;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+
+/**
+ * Configured XML parsers, transformers and XPath objects that are shared by {@link XMLEditor} and the
+ * classes using it. Looking up the implementation of a JAXP factory and creating a parser or transformer
+ * is much more expensive than the processing of a small document, so every thread keeps one configured
+ * instance of each type and reuses it after a reset.
+ * <p>
+ * The instances are not thread-safe. The returned object must only be used by the calling thread and only
+ * until the next call of the same method in that thread, e.g.:
+ * <pre>
+ * Document doc = XMLFactories.getDocumentBuilder().parse(file);
+ * </pre>
+ * All factories use the secure processing feature. The document builders and the streaming readers
+ * additionally disallow document type definitions, which prevents almost all XML entity attacks.
+ *
+ * @author LK Test Solutions
+ */
+public final class XMLFactories {
+
+	private static final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<>();
+	private static final ThreadLocal<SAXParser> saxParsers = new ThreadLocal<>();
+	private static final ThreadLocal<Transformer> transformers = new ThreadLocal<>();
+	private static final ThreadLocal<XPathFactory> xPathFactories = new ThreadLocal<>();
+	private static final ThreadLocal<XMLInputFactory> xmlInputFactories = new ThreadLocal<>();
+
+	private XMLFactories() {
+	}
+
+	/**
+	 * @return the document builder of the current thread, reset to its initial configuration
+	 * @throws ParserConfigurationException if the parser does not support the security settings
+	 */
+	public static DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilder ret = documentBuilders.get();
+		if (ret == null) {
+			DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+			// Security settings: If document type definitions (DTD) are disallowed, almost all XML entity attacks are prevented
+			dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+			// Set recommended secure processing features
+			dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			// Security settings: This prevents the parser to expand the entity reference node
+			dbf.setExpandEntityReferences(false);
+			ret = dbf.newDocumentBuilder();
+			documentBuilders.set(ret);
+		} else {
+			ret.reset();
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the SAX parser of the current thread, reset to its initial configuration. It is used to check
+	 *         if a document is well-formed.
+	 * @throws ParserConfigurationException if the parser can not be created
+	 * @throws org.xml.sax.SAXException     if the parser does not support the secure processing feature
+	 */
+	public static SAXParser getSAXParser() throws ParserConfigurationException, org.xml.sax.SAXException {
+		SAXParser ret = saxParsers.get();
+		if (ret == null) {
+			SAXParserFactory spf = SAXParserFactory.newInstance();
+			spf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			ret = spf.newSAXParser();
+			saxParsers.set(ret);
+		} else {
+			ret.reset();
+		}
+		return ret;
+	}
+
+	/**
+	 * Gets the transformer of the current thread that writes a document or node with indentation. The
+	 * {@link XMLEditor} uses the faster {@link XMLDocumentWriter} with the same output format instead.
+	 *
+	 * @param skipHeader true if the output should not start with the XML declaration
+	 * @return the transformer with the output properties for the given header option
+	 * @throws TransformerConfigurationException if the transformer does not support the secure processing
+	 *                                           feature
+	 */
+	public static Transformer getTransformer(boolean skipHeader) throws TransformerConfigurationException {
+		Transformer ret = transformers.get();
+		if (ret == null) {
+			TransformerFactory transformerFactory = TransformerFactory.newInstance();
+			// Set recommended secure processing features
+			transformerFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			ret = transformerFactory.newTransformer();
+			transformers.set(ret);
+		} else {
+			ret.reset();
+		}
+		ret.setOutputProperty(OutputKeys.INDENT, "yes");
+		// true ==> No XML header in the output
+		if (skipHeader) {
+			ret.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+		}
+		return ret;
+	}
+
+	/**
+	 * Gets the StAX factory of the current thread that creates the streaming readers of
+	 * {@link XMLElementReader}. Document type definitions and external entities are not supported.
+	 *
+	 * @return the configured factory
+	 */
+	public static XMLInputFactory getXMLInputFactory() {
+		XMLInputFactory ret = xmlInputFactories.get();
+		if (ret == null) {
+			ret = XMLInputFactory.newInstance();
+			ret.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			ret.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			xmlInputFactories.set(ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Creates a new XPath object from the factory of the current thread. Unlike the other instances, the
+	 * XPath object belongs to the caller and can be kept, e.g. by an {@link XMLEditor} to compile its
+	 * expressions.
+	 *
+	 * @return a new XPath object
+	 */
+	public static XPath newXPath() {
+		XPathFactory factory = xPathFactories.get();
+		if (factory == null) {
+			factory = XPathFactory.newInstance();
+			xPathFactories.set(factory);
+		}
+		return factory.newXPath();
+	}
+}
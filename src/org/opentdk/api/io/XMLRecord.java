@@ -0,0 +1,45 @@
+package org.opentdk.api.io;
+
+import java.util.Map;
+
+/**
+ * An element of an XML document that was read by {@link XMLElementReader} without building the document
+ * tree. It only holds the values of the element itself and of its direct children.
+ *
+ * @param name       the tag name of the element
+ * @param path       the absolute path of the element, e.g. /Contacts/Business/person
+ * @param attributes the attributes of the element by name
+ * @param children   the text content of the direct child elements by tag name. If a tag occurs more than
+ *                   once, the first occurrence is used.
+ * @param text       the text content of the element including all descendants, like
+ *                   {@link org.w3c.dom.Node#getTextContent()}
+ * @author LK Test Solutions
+ */
+public record XMLRecord(String name, String path, Map<String, String> attributes, Map<String, String> children, String text) {
+
+	/**
+	 * Gets a value of the element by name, which is used to check filter rules against the element. The name
+	 * of the element itself refers to its text content, otherwise an attribute of that name is looked up
+	 * first and the text content of a direct child element second. An attribute name may also be written
+	 * with a leading @.
+	 *
+	 * @param key the tag name of the element, an attribute name or the tag name of a child element
+	 * @return the value, or an empty string if the element has no attribute or child of that name, like
+	 *         {@link org.w3c.dom.Element#getAttribute(String)}
+	 */
+	public String getValue(String key) {
+		if (key.equals(name)) {
+			return text;
+		}
+		String ret;
+		if (key.startsWith("@")) {
+			ret = attributes.get(key.substring(1));
+		} else {
+			ret = attributes.get(key);
+			if (ret == null) {
+				ret = children.get(key);
+			}
+		}
+		return ret == null ? "" : ret;
+	}
+}
@@ -0,0 +1,121 @@
+package org.opentdk.api.util;
+
+/**
+ * Statistics of pairs of numbers that get calculated in a single pass: the {@link StatSummary} of both
+ * variables and the co-moment, which results in the covariance and the linear correlation coefficient. Adding
+ * a pair allocates nothing.
+ * <p>
+ * An instance is not thread-safe, but summaries of parts of the data can be merged with
+ * {@link #combine(BivariateStatSummary)}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class BivariateStatSummary {
+
+	private final StatSummary x = new StatSummary();
+	private final StatSummary y = new StatSummary();
+
+	/**
+	 * Sum of the products of the differences of both variables to their mean.
+	 */
+	private double c2;
+
+	/**
+	 * Adds a pair of values to the statistics.
+	 *
+	 * @param xValue the value of the first variable
+	 * @param yValue the value of the second variable
+	 */
+	public void accept(double xValue, double yValue) {
+		// Difference to the mean of x before and of y after the update, see Welford
+		double dx = x.getCount() == 0 ? 0 : xValue - x.getMean();
+		x.accept(xValue);
+		y.accept(yValue);
+		c2 += dx * (yValue - y.getMean());
+	}
+
+	/**
+	 * Adds the pairs of two arrays to the statistics. If the arrays do not have the same length, the pairs
+	 * up to the length of the smaller one are added.
+	 *
+	 * @param xValues the values of the first variable
+	 * @param yValues the values of the second variable
+	 * @return this summary
+	 */
+	public BivariateStatSummary acceptAll(double[] xValues, double[] yValues) {
+		int size = Math.min(xValues.length, yValues.length);
+		for (int i = 0; i < size; i++) {
+			accept(xValues[i], yValues[i]);
+		}
+		return this;
+	}
+
+	/**
+	 * Merges the statistics of another part of the data into this summary.
+	 *
+	 * @param other the summary of the other part, which does not get changed
+	 * @return this summary
+	 */
+	public BivariateStatSummary combine(BivariateStatSummary other) {
+		long count = getCount();
+		long otherCount = other.getCount();
+		if (otherCount > 0 && count > 0) {
+			double dx = other.x.getMean() - x.getMean();
+			double dy = other.y.getMean() - y.getMean();
+			c2 += other.c2 + dx * dy * count * otherCount / (count + otherCount);
+		} else if (otherCount > 0) {
+			c2 = other.c2;
+		}
+		x.combine(other.x);
+		y.combine(other.y);
+		return this;
+	}
+
+	/**
+	 * @return the number of pairs
+	 */
+	public long getCount() {
+		return x.getCount();
+	}
+
+	/**
+	 * @return the statistics of the first variable
+	 */
+	public StatSummary getX() {
+		return x;
+	}
+
+	/**
+	 * @return the statistics of the second variable
+	 */
+	public StatSummary getY() {
+		return y;
+	}
+
+	/**
+	 * Gets the bias corrected sample covariance or the non bias corrected population covariance.
+	 *
+	 * @param biasCorrected true: Bias corrected. False: Non bias corrected, like
+	 *                      {@link MathUtil#getCovariance(double[], double[])}.
+	 * @return a (negative) positive value if there is a (negative) positive linear correlation, or NaN if
+	 *         there are no pairs
+	 */
+	public double getCovariance(boolean biasCorrected) {
+		long count = getCount();
+		if (count == 0) {
+			return Double.NaN;
+		} else if (count == 1) {
+			return 0;
+		}
+		return c2 / (biasCorrected ? count - 1 : count);
+	}
+
+	/**
+	 * Gets the linear correlation coefficient of Pearson.
+	 *
+	 * @return the value in the range of -1 to 1, or NaN if one of the variables has no deviation
+	 */
+	public double getCorrelation() {
+		return c2 / Math.sqrt(x.getSecondMoment() * y.getSecondMoment());
+	}
+}
@@ -1,13 +1,20 @@
 package org.opentdk.api.util;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
 
 
 /**
@@ -15,6 +22,13 @@ import java.util.Map;
  */
 public class CSVUtil {
 
+	/**
+	 * Upper and lower limit for the size of the chunks that get parsed in parallel by
+	 * {@link #readFile(File, String, Charset, int)}.
+	 */
+	private static final long MAX_CHUNK_SIZE = 256L << 20;
+	private static final long MIN_CHUNK_SIZE = 64L << 10;
+
 	/**
 	 * Reads the content of a file and parses each line into an array of strings
 	 * using the specified delimiter. The parsed data is returned as a list of string arrays.
@@ -38,6 +52,179 @@ public class CSVUtil {
 		return data;
 	}
 
+	/**
+	 * Reads the content of a file with the {@link MappedCSVReader}, which maps the file into memory and
+	 * splits the lines by scanning the raw bytes. Returns the same result as
+	 * {@link #readFile(File, String, Charset)}, but avoids the line copies and the regular expression
+	 * based splitting.
+	 *
+	 * @param filePath the file to be read
+	 * @param delimiter the single character used to split each line into an array of strings, see {@link MappedCSVReader#supports(String, Charset)}
+	 * @param encoding the character encoding used to read the file
+	 * @return a list of string arrays, where each array represents a line in the file split by the delimiter
+	 * @throws IOException if an I/O error occurs while reading the file
+	 */
+	public static List<String[]> readFileMapped(File filePath, String delimiter, Charset encoding) throws IOException {
+		List<String[]> data = new ArrayList<>();
+		try (MappedCSVReader reader = new MappedCSVReader(filePath.toPath(), delimiter, encoding)) {
+			while (reader.next()) {
+				data.add(reader.toArray());
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Reads the content of a file in parallel. The file gets split at line boundaries into chunks that are
+	 * parsed on a separate {@link ForkJoinPool} with the given parallelism. The parsed chunks are joined in
+	 * their original order, so the result is the same as with {@link #readFile(File, String, Charset)}.
+	 * Chunks get parsed with the {@link MappedCSVReader} if it supports the delimiter, otherwise every chunk
+	 * gets decoded and split line by line. A parallelism of 1 or less reads the file sequentially, as well
+	 * as an encoding that does not encode the line break as the single byte 0x0A like ASCII, e.g. UTF-16.
+	 *
+	 * @param filePath the file to be read
+	 * @param delimiter the delimiter used to split each line into an array of strings
+	 * @param encoding the character encoding used to read the file
+	 * @param parallelism the number of threads used to parse the chunks
+	 * @return a list of string arrays, where each array represents a line in the file split by the delimiter
+	 * @throws IOException if an I/O error occurs while reading the file
+	 */
+	public static List<String[]> readFile(File filePath, String delimiter, Charset encoding, int parallelism) throws IOException {
+		// The chunks are split at the byte of an ASCII line break, which only works if each chunk can be decoded on its own
+		if (parallelism <= 1 || !Arrays.equals("\n".getBytes(encoding), new byte[] {'\n'})) {
+			return readFile(filePath, delimiter, encoding);
+		}
+		long[] bounds = getChunkBounds(filePath.toPath(), parallelism);
+		if (bounds.length <= 2) {
+			return readFile(filePath, delimiter, encoding);
+		}
+		List<ForkJoinTask<List<String[]>>> tasks = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			for (int i = 0; i < bounds.length - 1; i++) {
+				long start = bounds[i];
+				long end = bounds[i + 1];
+				tasks.add(pool.submit(() -> readChunk(filePath.toPath(), delimiter, encoding, start, end)));
+			}
+			List<List<String[]>> chunks = new ArrayList<>();
+			int size = 0;
+			for (ForkJoinTask<List<String[]>> task : tasks) {
+				List<String[]> chunk = task.get();
+				chunks.add(chunk);
+				size += chunk.size();
+			}
+			List<String[]> data = new ArrayList<>(size);
+			for (List<String[]> chunk : chunks) {
+				data.addAll(chunk);
+			}
+			return data;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IllegalStateException("Parallel parsing of " + filePath + " failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Parallel parsing of " + filePath + " was interrupted");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Determines the offsets where the file gets split into chunks for parallel parsing. Every offset
+	 * except the last one is located at the beginning of a line. Several chunks per thread are created
+	 * to balance the load, but a chunk is never larger than {@link #MAX_CHUNK_SIZE}.
+	 *
+	 * @param filePath the file to be split
+	 * @param parallelism the number of threads used to parse the chunks
+	 * @return ascending offsets starting with 0 and ending with the file size
+	 * @throws IOException if an I/O error occurs while reading the file
+	 */
+	private static long[] getChunkBounds(Path filePath, int parallelism) throws IOException {
+		try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			long chunkCount = Math.max(Math.max(parallelism, 1) * 4L, fileSize / MAX_CHUNK_SIZE + 1);
+			long chunkSize = Math.max(fileSize / chunkCount, MIN_CHUNK_SIZE);
+			List<Long> bounds = new ArrayList<>();
+			bounds.add(0L);
+			ByteBuffer buffer = ByteBuffer.allocate(8192);
+			long pos = chunkSize;
+			while (pos < fileSize) {
+				// Move forward to the beginning of the next line
+				long lineStart = -1;
+				while (lineStart < 0 && pos < fileSize) {
+					buffer.clear();
+					int read = channel.read(buffer, pos);
+					for (int i = 0; i < read; i++) {
+						if (buffer.get(i) == '\n') {
+							lineStart = pos + i + 1;
+							break;
+						}
+					}
+					pos += Math.max(read, 0);
+				}
+				if (lineStart < 0 || lineStart >= fileSize) {
+					break;
+				}
+				bounds.add(lineStart);
+				pos = lineStart + chunkSize;
+			}
+			bounds.add(fileSize);
+			return bounds.stream().mapToLong(Long::longValue).toArray();
+		}
+	}
+
+	/**
+	 * Parses the lines between the given offsets of a file.
+	 */
+	private static List<String[]> readChunk(Path filePath, String delimiter, Charset encoding, long start, long end) throws IOException {
+		List<String[]> data = new ArrayList<>();
+		if (MappedCSVReader.supports(delimiter, encoding)) {
+			try (MappedCSVReader reader = new MappedCSVReader(filePath, delimiter, encoding, start, end)) {
+				while (reader.next()) {
+					data.add(reader.toArray());
+				}
+			}
+		} else {
+			ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+			try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+				while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+					// read until the chunk is complete
+				}
+			}
+			new String(buffer.array(), 0, buffer.position(), encoding).lines().forEach(line -> data.add(line.split(delimiter)));
+		}
+		return data;
+	}
+
+	/**
+	 * Opens the file for lazy reading and parses one line at a time into an array of strings using the
+	 * specified delimiter. In contrast to {@link #readFile(File, String, Charset)} only the current line is
+	 * held in memory, so the returned stream has to be closed to release the underlying reader.
+	 *
+	 * @param filePath the file to be read
+	 * @param delimiter the delimiter used to split each line into an array of strings
+	 * @param encoding the character encoding used to read the file
+	 * @return a stream of string arrays, where each array represents a line in the file split by the delimiter
+	 * @throws IOException if an I/O error occurs while opening the file
+	 */
+	public static Stream<String[]> streamFile(Path filePath, String delimiter, Charset encoding) throws IOException {
+		BufferedReader br = Files.newBufferedReader(filePath, encoding);
+		try {
+			return br.lines().map(line -> line.split(delimiter)).onClose(() -> {
+				try {
+					br.close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (RuntimeException e) {
+			br.close();
+			throw e;
+		}
+	}
+
 	/**
 	 * Filters the provided tabular data based on a specific column and a filter value.
 	 * The method returns rows where the value in the specified column matches the given filter value.
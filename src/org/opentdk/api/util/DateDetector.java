@@ -0,0 +1,289 @@
+package org.opentdk.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the dates of all formats in a string with a single scan, with the same results as
+ * {@link DateUtil#findDate(String)}.
+ * <p>
+ * {@link DateUtil#findDate(String)} searches the first match of each format's regular expression and
+ * ranks the matches with {@link DateUtil#calculateMatchScore(String, String, String)}. Most formats only
+ * consist of digits and literal characters, so their regular expressions have a fixed length. These formats
+ * are merged into a trie over their character classes, and one scan over the input walks the trie from
+ * every position to find the first match of all of them at once. The few formats with variable-length parts,
+ * like the day of week 'E', are searched with their regular expression, but only if one combined pattern of
+ * these formats matches the input at all.
+ * <p>
+ * Instances are immutable and thread-safe. The detector of the current configuration is returned by
+ * {@link DateUtil#getDateDetector()}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+public final class DateDetector {
+
+    /**
+     * A date found in the input.
+     *
+     * @param format the date format of {@link DateUtil#getAllFormats()} that matches
+     * @param start  the index of the first character of the date in the input
+     * @param end    the index after the last character of the date in the input
+     * @param date   the date as found in the input
+     * @param score  the score of the match, see {@link DateUtil#calculateMatchScore(String, String, String)}
+     */
+    public record Candidate(String format, int start, int end, String date, int score) {
+    }
+
+    /**
+     * Node of the trie. The children are reached by a digit or by a literal character.
+     */
+    private static final class Node {
+        private Node digit;
+        private final Map<Character, Node> literals = new HashMap<>();
+
+        /**
+         * Indexes of the formats that end at this node.
+         */
+        private int[] formats = new int[0];
+    }
+
+    /**
+     * The formats in the order of the formats list.
+     */
+    private final List<String> formats;
+
+    /**
+     * The compiled regular expression of each format.
+     */
+    private final Pattern[] patterns;
+
+    /**
+     * Indexes of the formats in the order of the ranking: descending length of the format, then the position
+     * in the formats list. Formats that can not be found are not part of the ranking.
+     */
+    private final int[] ranking;
+
+    /**
+     * Root of the trie with all formats that only consist of digits and literal characters.
+     */
+    private final Node root = new Node();
+
+    /**
+     * Indexes of the formats with variable-length parts, which are searched with their regular expression.
+     */
+    private final int[] regexFormats;
+
+    /**
+     * Alternation of the regular expressions of all {@link #regexFormats}. If it does not match, none of
+     * these formats matches.
+     */
+    private final Pattern combined;
+
+    /**
+     * Creates a detector for the given formats.
+     *
+     * @param formats  the date formats in the order of their priority
+     * @param patterns the compiled regular expression of each format, see {@link DateUtil#convertDateFormatToRegex(String)}
+     */
+    DateDetector(List<String> formats, Pattern[] patterns) {
+        this.formats = formats;
+        this.patterns = patterns;
+        List<Integer> ranked = new ArrayList<>();
+        List<Integer> regex = new ArrayList<>();
+        StringBuilder alternation = new StringBuilder();
+        for (int i = 0; i < formats.size(); i++) {
+            String format = formats.get(i);
+            // The day of year alone is ignored by DateUtil.findDate
+            if (format.contentEquals("D")) {
+                continue;
+            }
+            String tokens = getTokens(format);
+            if (tokens == null) {
+                regex.add(i);
+                ranked.add(i);
+                alternation.append(alternation.isEmpty() ? "" : "|").append("(?:").append(patterns[i].pattern()).append(")");
+            } else if (tokens.length() == format.length()) {
+                addToTrie(tokens, i);
+                ranked.add(i);
+            }
+            // Otherwise quotes make the match shorter than the format, so DateUtil.findDate never accepts it
+        }
+        ranked.sort(Comparator.comparingInt((Integer i) -> formats.get(i).length()).reversed().thenComparingInt(i -> i));
+        ranking = ranked.stream().mapToInt(Integer::intValue).toArray();
+        regexFormats = regex.stream().mapToInt(Integer::intValue).toArray();
+        combined = regexFormats.length == 0 ? null : Pattern.compile(alternation.toString());
+    }
+
+    /**
+     * @return the formats of the detector
+     */
+    public List<String> getFormats() {
+        return formats;
+    }
+
+    /**
+     * Searches the date with the highest score in a string, see {@link DateUtil#findDate(String)}.
+     *
+     * @param input string that may contain a date/time
+     * @return the detected date/time or empty
+     */
+    public Optional<String> findDate(String input) {
+        List<Candidate> candidates = scan(input, true);
+        return candidates.isEmpty() ? Optional.empty() : Optional.of(candidates.getFirst().date());
+    }
+
+    /**
+     * Searches the dates of all formats in a string. For every format, the first match in the input is a
+     * candidate if it has the length of the format and a positive score, which are the conditions of
+     * {@link DateUtil#findDate(String)}.
+     *
+     * @param input string that may contain dates/times
+     * @return the candidates ordered by descending score, the first one is the result of {@link #findDate(String)}
+     */
+    public List<Candidate> findAll(String input) {
+        return scan(input, false);
+    }
+
+    /**
+     * Searches the date with the highest score in each of the given values, e.g. all values of a column.
+     *
+     * @param inputs strings that may contain a date/time
+     * @return a list with the detected date/time of each input at the same position, or null if the input
+     * contains no date
+     */
+    public List<String> findDates(List<String> inputs) {
+        List<String> ret = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            ret.add(input == null ? null : findDate(input).orElse(null));
+        }
+        return ret;
+    }
+
+    private List<Candidate> scan(String input, boolean bestOnly) {
+        if (ranking.length == 0) {
+            return List.of();
+        }
+        // Inputs that are too long for a positive score can be rejected without a scan
+        String longest = formats.get(ranking[0]);
+        if (DateUtil.calculateMatchScore(input, longest, longest) <= 0) {
+            return List.of();
+        }
+        int[] starts = new int[formats.size()];
+        int[] ends = new int[formats.size()];
+        Arrays.fill(starts, -1);
+        scanTrie(input, starts, ends);
+        if (combined != null && combined.matcher(input).find()) {
+            for (int i : regexFormats) {
+                Matcher matcher = patterns[i].matcher(input);
+                if (matcher.find()) {
+                    starts[i] = matcher.start();
+                    ends[i] = matcher.end();
+                }
+            }
+        }
+        List<Candidate> ret = new ArrayList<>();
+        for (int i : ranking) {
+            String format = formats.get(i);
+            if (starts[i] < 0 || ends[i] - starts[i] != format.length()) {
+                continue;
+            }
+            int score = DateUtil.calculateMatchScore(input, format, format);
+            if (score <= 0) {
+                // All following formats are shorter and get a lower score
+                break;
+            }
+            ret.add(new Candidate(format, starts[i], ends[i], input.substring(starts[i], ends[i]), score));
+            if (bestOnly) {
+                break;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Walks the trie from every position of the input and stores the first match of each format.
+     */
+    private void scanTrie(String input, int[] starts, int[] ends) {
+        List<Node> active = new ArrayList<>();
+        List<Node> next = new ArrayList<>();
+        for (int start = 0; start < input.length(); start++) {
+            active.clear();
+            active.add(root);
+            for (int pos = start; pos < input.length() && !active.isEmpty(); pos++) {
+                char c = input.charAt(pos);
+                next.clear();
+                for (Node node : active) {
+                    if (node.digit != null && c >= '0' && c <= '9') {
+                        next.add(node.digit);
+                    }
+                    Node literal = node.literals.get(c);
+                    if (literal != null) {
+                        next.add(literal);
+                    }
+                }
+                for (Node node : next) {
+                    for (int format : node.formats) {
+                        if (starts[format] < 0) {
+                            starts[format] = start;
+                            ends[format] = pos + 1;
+                        }
+                    }
+                }
+                List<Node> swap = active;
+                active = next;
+                next = swap;
+            }
+        }
+    }
+
+    private void addToTrie(String tokens, int format) {
+        Node node = root;
+        for (int i = 0; i < tokens.length(); i++) {
+            char token = tokens.charAt(i);
+            if (token == 0) {
+                if (node.digit == null) {
+                    node.digit = new Node();
+                }
+                node = node.digit;
+            } else {
+                node = node.literals.computeIfAbsent(token, c -> new Node());
+            }
+        }
+        node.formats = Arrays.copyOf(node.formats, node.formats.length + 1);
+        node.formats[node.formats.length - 1] = format;
+    }
+
+    /**
+     * Converts a format into the sequence of characters matched by its regular expression, see
+     * {@link DateUtil#convertDateFormatToRegex(String)}. A digit is represented by the character 0.
+     *
+     * @return the tokens of the format, or null if the format contains parts of variable length
+     */
+    private static String getTokens(String format) {
+        StringBuilder tokens = new StringBuilder();
+        boolean inLiteral = false;
+        for (int i = 0; i < format.length(); i++) {
+            char c = format.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+                continue;
+            }
+            String letterRegex = inLiteral ? null : DateUtil.getLetterRegex(c);
+            if (letterRegex == null) {
+                tokens.append(c);
+            } else if (letterRegex.equals("\\d{1}")) {
+                tokens.append((char) 0);
+            } else {
+                return null;
+            }
+        }
+        return tokens.toString();
+    }
+}
@@ -0,0 +1,201 @@
+package org.opentdk.api.util;
+
+import java.time.DateTimeException;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects and parses dates like {@link DateUtil#retrieveTemporal(String)}, {@link DateUtil#findDate(String)}
+ * and {@link DateUtil#compare(String, String)}, but for many values in a row, e.g. all values of a column
+ * that get checked by a date filter. The results are the same as the ones of {@link DateUtil}.
+ * <p>
+ * The instance learns which formats can parse the values of a column: values are grouped by their shape,
+ * which is the value with all digits replaced by 0, and for each shape only the formats that accepted the
+ * shape are tried again. Since the values of a column mostly share one shape, the winning format is usually
+ * found with a single parse.
+ * <p>
+ * Instances are thread-safe. The formatters and regular expressions are taken from a {@link DateParser},
+ * by default the configuration of {@link DateUtil} at the time the instance gets created.
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class DateMatcher {
+
+    /**
+     * Maximum number of shapes that get learned per instance. Values with other shapes are still parsed
+     * correctly, but without the learned formats.
+     */
+    private static final int MAX_SHAPES = 4096;
+
+    /**
+     * Pattern letters whose parse result does not only depend on the shape of the value, like the
+     * offset 'X', which rejects hours above 18.
+     */
+    private static final String ZONE_LETTERS = "XxZOzVv";
+
+    /**
+     * Last parsed operand of {@link #compare(String, String)}.
+     */
+    private record Operand(String text, ZonedDateTime dateTime) {
+    }
+
+    /**
+     * The configuration with the precompiled formats.
+     */
+    private final DateParser parser;
+
+    /**
+     * True for the formats whose parse result does not only depend on the shape of the value. These
+     * formats are always candidates.
+     */
+    private final boolean[] zoneDependent;
+
+    /**
+     * For each learned shape the indexes of the formats that may parse values with this shape.
+     */
+    private final Map<String, int[]> shapes = new ConcurrentHashMap<>();
+
+    private volatile Operand operand;
+
+    /**
+     * Creates a matcher for the current formats of {@link DateUtil}.
+     */
+    public DateMatcher() {
+        this(DateUtil.getParser());
+    }
+
+    /**
+     * Creates a matcher for the formats and the time zone of a parser.
+     *
+     * @param parser the configuration used to parse the values
+     */
+    public DateMatcher(DateParser parser) {
+        this.parser = parser;
+        zoneDependent = new boolean[parser.formats.size()];
+        for (int i = 0; i < zoneDependent.length; i++) {
+            zoneDependent[i] = isZoneDependent(parser.formats.get(i));
+        }
+    }
+
+    /**
+     * Parses a date, time or time stamp with the first format that accepts it, see
+     * {@link DateUtil#retrieveTemporal(String)}.
+     *
+     * @param dateTime input date in all available formats
+     * @return {@link java.time.temporal.TemporalAccessor}
+     * @throws DateTimeException if none of the formats accepts the input
+     */
+    public TemporalAccessor parse(String dateTime) {
+        String shape = getShape(dateTime);
+        int[] candidates = shapes.get(shape);
+        if (candidates == null) {
+            candidates = findCandidates(dateTime);
+            if (shapes.size() < MAX_SHAPES) {
+                shapes.put(shape, candidates);
+            }
+        }
+        TemporalAccessor ret = parser.parse(dateTime, candidates);
+        if (ret == null) {
+            throw new DateTimeException("Format not supported ==> " + dateTime);
+        }
+        return ret;
+    }
+
+    /**
+     * Parses a date, time or time stamp into a {@link ZonedDateTime}, see {@link DateUtil#retrieveZonedDateTime(TemporalAccessor)}.
+     *
+     * @param dateTime input date in all available formats
+     * @return the date and time in the time zone of the parser
+     * @throws DateTimeException if none of the formats accepts the input
+     */
+    public ZonedDateTime parseZoned(String dateTime) {
+        return parser.retrieveZonedDateTime(parse(dateTime));
+    }
+
+    /**
+     * Compares two strings as date, time or time stamp, see {@link DateUtil#compare(String, String)}. The
+     * second string is usually the value of a filter rule, so it gets parsed only once for all calls
+     * with the same string.
+     *
+     * @param dateTime        first comparison string.
+     * @param compareDateTime second comparison string.
+     * @return 0 = both instants are equal; -1 = first instant is before second; 1 = first instant is after second.
+     * @throws DateTimeException if one of the strings is not a supported date
+     */
+    public int compare(String dateTime, String compareDateTime) {
+        ZonedDateTime first = parseZoned(dateTime);
+        Operand current = operand;
+        if (current == null || !current.text().equals(compareDateTime)) {
+            current = new Operand(compareDateTime, parseZoned(compareDateTime));
+            operand = current;
+        }
+        ZonedDateTime second = current.dateTime();
+        if (first.isBefore(second)) {
+            return -1;
+        } else if (first.isAfter(second)) {
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Searches a date in a string, see {@link DateUtil#findDate(String)}.
+     *
+     * @param input string that may contain a date/time
+     * @return the detected date/time or empty
+     */
+    public Optional<String> findDate(String input) {
+        return parser.getDateDetector().findDate(input);
+    }
+
+    /**
+     * Checks all formats for a value with an unknown shape.
+     *
+     * @return the indexes of the formats that may parse values with the shape of the given value
+     */
+    private int[] findCandidates(String dateTime) {
+        int[] ret = new int[zoneDependent.length];
+        int count = 0;
+        for (int i = 0; i < zoneDependent.length; i++) {
+            if (zoneDependent[i] || DateParser.parsesUnresolved(parser.formatters[i], dateTime)) {
+                ret[count++] = i;
+            }
+        }
+        return Arrays.copyOf(ret, count);
+    }
+
+    /**
+     * @return the value with all ASCII digits replaced by 0, which are the only digits accepted by the formatters
+     */
+    private static String getShape(String value) {
+        char[] shape = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '1' && c <= '9') {
+                if (shape == null) {
+                    shape = value.toCharArray();
+                }
+                shape[i] = '0';
+            }
+        }
+        return shape == null ? value : new String(shape);
+    }
+
+    private static boolean isZoneDependent(String format) {
+        boolean inLiteral = false;
+        for (int i = 0; i < format.length(); i++) {
+            char c = format.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            } else if (!inLiteral && ZONE_LETTERS.indexOf(c) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,567 @@
+package org.opentdk.api.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParsePosition;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable configuration of the date, time and time stamp functions with the time zone and the supported
+ * formats. Everything that only depends on the configuration, like the formatter and the regular expression
+ * of each format, is prepared once when the parser gets created.
+ * <p>
+ * A parser can be shared between threads without synchronization. Jobs that need another time zone or
+ * additional formats create their own parser with {@link #withZone(ZoneId)} or {@link #withPattern(String)}
+ * instead of changing the configuration of {@link DateUtil}, whose static methods delegate to a default parser.
+ * <pre>
+ * DateParser parser = DateUtil.getParser().withZone(ZoneId.of("UTC")).withPattern("yyyy_MM_dd");
+ * String date = parser.get("2021_03_29", "dd.MM.yyyy");
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public final class DateParser {
+
+    /**
+     * Maximum number of formatters for patterns that are not part of a parser, that are kept by
+     * {@link #getFormatter(String)}.
+     */
+    private static final int MAX_FORMATTERS = 256;
+
+    /**
+     * Formatters for patterns that are not part of a parser, e.g. the output formats of {@link #get(String)}.
+     * Formatters do not depend on the configuration, so they are shared by all parsers.
+     */
+    private static final Map<String, DateTimeFormatter> patternFormatters = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link ZoneId} used to convert the parsed values into instants.
+     */
+    private final ZoneId zoneId;
+
+    /**
+     * The supported formats in the order of their priority.
+     */
+    final List<String> formats;
+
+    /**
+     * The formatter of each format, same order as {@link #formats}.
+     */
+    final DateTimeFormatter[] formatters;
+
+    /**
+     * Indexes of all formats in ascending order, the order used by {@link #retrieveTemporal(String)}.
+     */
+    private final int[] allFormats;
+
+    /**
+     * Single pass detection of the dates of all formats, see {@link #findDate(String)}.
+     */
+    private final DateDetector detector;
+
+    private final Map<String, DateTimeFormatter> formattersByPattern;
+
+    /**
+     * Creates a parser with the given configuration.
+     *
+     * @param zoneId  the time zone used to convert the parsed values into instants
+     * @param formats the supported formats in the order of their priority
+     * @throws IllegalArgumentException if one of the formats is invalid
+     */
+    public DateParser(ZoneId zoneId, List<String> formats) {
+        this.zoneId = Objects.requireNonNull(zoneId);
+        this.formats = List.copyOf(formats);
+        formatters = new DateTimeFormatter[this.formats.size()];
+        Pattern[] patterns = new Pattern[this.formats.size()];
+        allFormats = new int[this.formats.size()];
+        Map<String, DateTimeFormatter> byPattern = new HashMap<>();
+        for (int i = 0; i < this.formats.size(); i++) {
+            String format = this.formats.get(i);
+            allFormats[i] = i;
+            formatters[i] = DateTimeFormatter.ofPattern(format);
+            byPattern.putIfAbsent(format, formatters[i]);
+            patterns[i] = Pattern.compile(DateUtil.convertDateFormatToRegex(format));
+        }
+        formattersByPattern = Map.copyOf(byPattern);
+        detector = new DateDetector(this.formats, patterns);
+    }
+
+    /**
+     * @param zone the time zone of the new parser
+     * @return a parser with the formats of this parser and the given time zone
+     */
+    public DateParser withZone(ZoneId zone) {
+        return new DateParser(zone, formats);
+    }
+
+    /**
+     * @param format pattern that gets supported by the new parser with the lowest priority
+     * @return a parser with the time zone and the formats of this parser and the given format
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public DateParser withPattern(String format) {
+        List<String> added = new ArrayList<>(formats);
+        added.add(format);
+        return new DateParser(zoneId, added);
+    }
+
+    /**
+     * @return the time zone used to convert the parsed values into instants
+     */
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Gets the formatter of a date format. The formatters of the formats and of other patterns
+     * are created once and reused, since {@link DateTimeFormatter} is immutable and thread-safe.
+     *
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @return the formatter of the format
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public DateTimeFormatter getFormatter(String format) {
+        DateTimeFormatter formatter = formattersByPattern.get(format);
+        if (formatter == null) {
+            formatter = patternFormatters.get(format);
+            if (formatter == null) {
+                formatter = DateTimeFormatter.ofPattern(format);
+                if (patternFormatters.size() < MAX_FORMATTERS) {
+                    patternFormatters.put(format, formatter);
+                }
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * @return the supported formats as unmodifiable list
+     */
+    public List<String> getAllFormats() {
+        return formats;
+    }
+
+    /**
+     * @return all available formats of the parser as pipe separated string in brackets for regular expression checks.
+     */
+    public String getAllFormatsAsRegex() {
+        StringBuilder ret = new StringBuilder("(");
+        for(int index = 0; index < formats.size(); index++) {
+            ret.append(formats.get(index));
+            if(index < formats.size() - 1) {
+                ret.append("|");
+            }
+        }
+        ret.append(")");
+        return ret.toString();
+    }
+
+    /**
+     * Compares to strings as date, time or time stamp.
+     *
+     * @param dateTime        first comparison string.
+     * @param compareDateTime second comparison string.
+     * @return 0 = both instants are equal; -1 = first instant is before second; 1 = first instant is after second.
+     */
+    public int compare(String dateTime, String compareDateTime) {
+        ZonedDateTime first = retrieveZonedDateTime(retrieveTemporal(dateTime));
+        ZonedDateTime second = retrieveZonedDateTime(retrieveTemporal(compareDateTime));
+        if (first.isBefore(second)) {
+            return -1;
+        } else if (first.isAfter(second)) {
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Get the day difference between two instants as integer value. Turn of the year will be taken into account as well. E.g. getDayDiff("20193112",
+     * "20200101") would return 1.
+     *
+     * @param dateTime        The first comparison input string.
+     * @param compareDateTime The second comparison string.
+     * @param type            the unit that will be compared e.g. days or seconds.
+     * @return A positive integer value, or 0 if the instants are similar and -1 when no instant format could be detected.
+     */
+    public int diff(String dateTime, String compareDateTime, ChronoUnit type) {
+        ZonedDateTime first = retrieveZonedDateTime(retrieveTemporal(dateTime));
+        ZonedDateTime second = retrieveZonedDateTime(retrieveTemporal(compareDateTime));
+        // Ensure comparison between the correct instance types
+        switch(type) {
+            case NANOS, MICROS, MILLIS, SECONDS, MINUTES, HOURS, HALF_DAYS -> {
+                first = first.toLocalDateTime().atZone(zoneId);
+                second = second.toLocalDateTime().atZone(zoneId);
+            }
+            case DAYS, WEEKS, MONTHS, YEARS, DECADES, CENTURIES, MILLENNIA, ERAS -> {
+                first = first.toLocalDate().atStartOfDay(zoneId);
+                second = second.toLocalDate().atStartOfDay(zoneId);
+            }
+            default -> throw new IllegalArgumentException("Unexpected value: " + type);
+        }
+        return (int) Math.abs(type.between(first, second));
+    }
+
+    /**
+     * Retrieves the current date, time or time stamp.
+     *
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @return The current instant in the committed format as string.
+     */
+    public String get(String format) {
+        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(instant);
+    }
+
+    /**
+     * Retrieves the date, time or time stamp depending on the input instant.
+     *
+     * @param dateTime A valid date, time or time stamp string.
+     * @param format   The preferred date/time format e.g. yyyyMMdd.
+     * @return The formatted/transformed string or an empty string if no instant could be retrieved.
+     */
+    public String get(String dateTime, String format) {
+        ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(instant);
+    }
+
+    /**
+     * Retrieves the current date.
+     *
+     * @param millis The milliseconds from the epoch of 1970-01-01T00:00:00Z.
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @return The detected date as string in the default time zone.
+     */
+    public String get(long millis, String format) {
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), zoneId));
+    }
+
+    /**
+     * Retrieves the current date, time or time stamp shifted to the past or future.
+     *
+     * @param diff   The amount to travel. This depends on the committed unit.
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @param unit   The travel unit e.g. <code>ChronoUnit.DAYS</code>.
+     * @return The resulting date string in the committed format.
+     */
+    public String get(int diff, String format, ChronoUnit unit) {
+        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
+        if (diff > 0) {
+            instant = instant.plus(diff, unit);
+        } else if (diff < 0) {
+            instant = instant.minus(-diff, unit);
+        }
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(instant);
+    }
+
+    /**
+     * Retrieves the committed date, time or time stamp shifted to the past or future.
+     *
+     * @param dateTime A valid date, time or time stamp string.
+     * @param diff     The amount to travel. This depends on the committed unit.
+     * @param format   The preferred date/time format e.g. yyyyMMdd.
+     * @param unit     The travel unit e.g. <code>ChronoUnit.DAYS</code>.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String get(String dateTime, int diff, String format, ChronoUnit unit) {
+        ZonedDateTime zonedInstant = retrieveZonedDateTime(retrieveTemporal(dateTime));
+        if (diff > 0) {
+            zonedInstant = zonedInstant.plus(diff, unit);
+        } else if (diff < 0) {
+            zonedInstant = zonedInstant.minus(-diff, unit);
+        }
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(zonedInstant);
+    }
+
+    /**
+     * Retrieves the first date or time stamp depending on the committed type.
+     *
+     * @param type   The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getFirstOf(ChronoField type, String format) {
+        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
+        instant = instant.with(type, instant.range(type).getMinimum());
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(instant);
+    }
+
+    /**
+     * Retrieves the first date or time stamp depending on the committed type.
+     *
+     * @param dateTime A valid date, time or time stamp string.
+     * @param type     The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format   The preferred date/time format e.g. yyyyMMdd.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getFirstOf(String dateTime, ChronoField type, String format) {
+        ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
+        instant = instant.with(type, instant.range(type).getMinimum());
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(instant);
+    }
+
+    /**
+     * Retrieves the first date or time stamp depending on the committed type with the possibility to travel to the past or future.
+     *
+     * @param type   The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @param unit   The travel unit e.g. <code>ChronoUnit.DAYS</code>.
+     * @param diff   The amount to travel. This depends on the committed unit.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getFirstOf(ChronoField type, String format, ChronoUnit unit, int diff) {
+        return getFirstOf(get(diff, format, unit), type, format);
+    }
+
+    /**
+     * Retrieves the first date or time stamp depending on the committed type with the possibility to travel to the past or future.
+     *
+     * @param dateTime A valid date, time or time stamp string.
+     * @param type     The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format   The preferred date/time format e.g. yyyyMMdd.
+     * @param unit     The travel unit e.g. <code>ChronoUnit.DAYS</code>.
+     * @param diff     The amount to travel. This depends on the committed unit.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getFirstOf(String dateTime, ChronoField type, String format, ChronoUnit unit, int diff) {
+        return getFirstOf(get(dateTime, diff, format, unit), type, format);
+    }
+
+    /**
+     * Retrieves the last date or time stamp depending on the committed type.
+     *
+     * @param type   The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getLastOf(ChronoField type, String format) {
+        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
+        instant = instant.with(type, instant.range(type).getMaximum());
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(instant);
+    }
+
+    /**
+     * Retrieves the last date or time stamp depending on the committed type.
+     *
+     * @param dateTime A valid date, time or time stamp string.
+     * @param type     The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format  The preferred date/time format e.g. yyyyMMdd.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getLastOf(String dateTime, ChronoField type, String format) {
+        ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
+        instant = instant.with(type, instant.range(type).getMaximum());
+        DateTimeFormatter formatter = getFormatter(format);
+        return formatter.format(instant);
+    }
+
+    /**
+     * Retrieves the last date or time stamp depending on the committed type with the possibility to travel to the past or future.
+     *
+     * @param type   The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @param unit   The travel unit e.g. <code>ChronoUnit.DAYS</code>.
+     * @param diff   The amount to travel. This depends on the committed unit.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getLastOf(ChronoField type, String format, ChronoUnit unit, int diff) {
+        return getLastOf(get(diff, format, unit), type, format);
+    }
+
+    /**
+     * Retrieves the last date or time stamp depending on the committed type with the possibility to travel to the past or future.
+     *
+     * @param dateTime A valid date, time or time stamp string.
+     * @param type     The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @param format   The preferred date/time format e.g. yyyyMMdd.
+     * @param unit     The travel unit e.g. <code>ChronoUnit.DAYS</code>.
+     * @param diff     The amount to travel. This depends on the committed unit.
+     * @return The resulting date/time string in the committed format.
+     */
+    public String getLastOf(String dateTime, ChronoField type, String format, ChronoUnit unit, int diff) {
+        return getLastOf(get(dateTime, diff, format, unit), type, format);
+    }
+
+    /**
+     * Retrieves the number of the part of the committed date, time or time stamp depending on the committed type.
+     *
+     * @param dateTime A valid date, time or time stamp string.
+     * @param type     The field to use e.g. <code>ChronoField.DAY_OF_WEEK</code> gets the first day of the week.
+     * @return The number as integer value.
+     */
+    public int getNumber(String dateTime, ChronoField type) {
+        return retrieveZonedDateTime(retrieveTemporal(dateTime)).get(type);
+    }
+
+    /**
+     * Method to search a date in a string.
+     *
+     * @param input string that may contain a date/time
+     * @return the detected date/time or empty
+     */
+    public Optional<String> findDate(String input) {
+        // Returns the match with the highest calculateMatchScore, see DateDetector
+        return detector.findDate(input);
+    }
+
+    /**
+     * Searches the dates of all formats in a string, ranked like in {@link #findDate(String)}.
+     *
+     * @param input string that may contain dates/times
+     * @return the candidates ordered by descending score, the first one is the result of {@link #findDate(String)}
+     */
+    public List<DateDetector.Candidate> findAllDates(String input) {
+        return detector.findAll(input);
+    }
+
+    /**
+     * Searches a date in each of the given strings, e.g. all values of a column.
+     *
+     * @param inputs strings that may contain a date/time
+     * @return a list with the detected date/time of each input at the same position, or null if the input
+     * contains no date
+     */
+    public List<String> findDates(List<String> inputs) {
+        return detector.findDates(inputs);
+    }
+
+    /**
+     * Searches a date in each line of a file. The file is read line by line, so it does not have to fit into
+     * memory.
+     *
+     * @param file    the file to be searched, e.g. a log file
+     * @param charset the character set of the file
+     * @return the detected date/time of all lines that contain a date, by line number starting with 1
+     * @throws IOException if the file can not be read
+     */
+    public Map<Integer, String> findDates(Path file, Charset charset) throws IOException {
+        Map<Integer, String> ret = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, charset)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                Optional<String> date = detector.findDate(line);
+                if (date.isPresent()) {
+                    ret.put(lineNumber, date.get());
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @return the detector of the parser, which can be used for many searches with the same formats
+     */
+    public DateDetector getDateDetector() {
+        return detector;
+    }
+
+    /**
+     * Gets a {@link java.time.temporal.TemporalAccessor} object out of a date string to pass it to te {@link #retrieveZonedDateTime(TemporalAccessor)} method.
+     * @param dateTime input date in all available formats
+     * @return {@link java.time.temporal.TemporalAccessor}
+     * @throws IllegalArgumentException if all formats got checked without result
+     */
+    public TemporalAccessor retrieveTemporal(String dateTime) {
+        TemporalAccessor ret = parse(dateTime, allFormats);
+        if (ret == null) {
+            throw new DateTimeException("Format not supported ==> " + dateTime);
+        }
+        return ret;
+    }
+
+    /**
+     * Converts a parsed date, time or time stamp into a {@link ZonedDateTime} in the zone of the parser. Times
+     * without date get the current date, and week based formats like 'yyyy-'W'ww-u' get resolved by ISO week.
+     *
+     * @param temporal the result of {@link #retrieveTemporal(String)}
+     * @return the date and time in the zone of the parser
+     */
+    public ZonedDateTime retrieveZonedDateTime(TemporalAccessor temporal) {
+        ZonedDateTime ret;
+        try {
+            ret = LocalDateTime.from(temporal).atZone(zoneId);
+        } catch (DateTimeException e) {
+            ret = null;
+        }
+        if(ret == null) {
+            try {
+                ret = LocalDate.from(temporal).atStartOfDay(zoneId);
+            } catch(DateTimeException e) {
+                ret = null;
+            }
+        }
+        if(ret == null) {
+            try {
+                ret = LocalTime.from(temporal).atDate(LocalDate.now()).atZone(zoneId);
+            } catch (DateTimeException e) {
+                ret = null;
+            }
+        }
+        // Last try for special formats
+        if(ret == null) {
+            int year = 0;
+            int week = 1;
+            int dayOfWeek = 1;
+            if(temporal.isSupported(ChronoField.YEAR)) {
+                year = temporal.get(ChronoField.YEAR);
+            }
+            if(temporal.isSupported(WeekFields.ISO.weekOfYear())) {
+                week = (int) temporal.getLong(WeekFields.ISO.weekOfYear());
+            }
+            if(temporal.isSupported(WeekFields.ISO.dayOfWeek())) {
+                dayOfWeek = (int) temporal.getLong(WeekFields.ISO.dayOfWeek());
+            }
+            ret = LocalDate.of(year, 1, 1).with(WeekFields.ISO.weekOfYear(), week).with(WeekFields.ISO.dayOfWeek(), dayOfWeek).atStartOfDay(zoneId);
+        }
+        return ret;
+    }
+
+    /**
+     * Parses a value with the first format that accepts it. Formats that can not consume the whole value
+     * are skipped without creating an exception.
+     *
+     * @param dateTime input date in all available formats
+     * @param candidates the indexes of the formats to try in ascending order
+     * @return the parsed value or null if none of the formats accepts the value
+     */
+    TemporalAccessor parse(String dateTime, int[] candidates) {
+        for (int i : candidates) {
+            if (!parsesUnresolved(formatters[i], dateTime)) {
+                continue;
+            }
+            try {
+                return formatters[i].parse(dateTime);
+            } catch (DateTimeParseException e) {
+                // The value fits the pattern, but is not a valid date, e.g. month 13
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the formatter can consume the whole value, which is required to parse it
+     */
+    static boolean parsesUnresolved(DateTimeFormatter formatter, String dateTime) {
+        ParsePosition position = new ParsePosition(0);
+        return formatter.parseUnresolved(dateTime, position) != null && position.getErrorIndex() < 0 && position.getIndex() == dateTime.length();
+    }
+}
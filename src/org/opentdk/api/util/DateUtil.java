@@ -27,9 +27,11 @@
  */
 package org.opentdk.api.util;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.time.temporal.*;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -44,24 +46,19 @@ import java.util.regex.Pattern;
 public class DateUtil {
 
     /**
-     * The {@link ZoneId} that gets used in the date and time utility functions of the <code>DateUtil</code> class. The default is
+     * Set a new time zone by committing a string with the UTC value e.g. 'UTC+01:00'. The default is
      * <code>ZoneId.systemDefault()</code> which is 'UTC+02:00' for Berlin (summer-time) and 'UTC+1' for winter time.
-     */
-    private static ZoneId zoneId = ZoneId.systemDefault();
-
-    /**
-     * Set a new time zone by committing a string with the UTC value e.g. 'UTC+01:00'.
      *
-     * @param zone {@link #zoneId}
+     * @param zone the {@link ZoneId} that gets used in the date and time utility functions of the <code>DateUtil</code> class
      */
-    public static void setZoneId(String zone) {
-        zoneId = ZoneId.of(zone);
+    public static synchronized void setZoneId(String zone) {
+        parser = parser.withZone(ZoneId.of(zone));
     }
 
     /**
-     * List of all supported date formats. Can be enriched by {@link #addPattern(String)}.
+     * List of the date formats that are supported by default. Can be enriched by {@link #addPattern(String)}.
      */
-    private static List<String> formats = Arrays.asList(
+    private static final List<String> formats = List.of(
             "dd.MM.yyyy",
             // Dates
             "yyyyMMdd",              // Kompaktformat ohne Trenner
@@ -159,33 +156,60 @@ public class DateUtil {
     );
 
     /**
-     * @return {@link #formats}
+     * Regular expressions for the letters of a date format, see {@link #convertDateFormatToRegex(String)}.
+     */
+    private static final Map<Character, String> FORMAT_TO_REGEX = getCharacterStringMap();
+
+    /**
+     * Special characters that need escaping in regex
+     */
+    private static final Map<Character, String> SPECIAL_CHARACTERS = Map.of('.', "\\.", '-', "-", '/', "/", ':', ":", ',', ",");
+
+    /**
+     * The configuration used by the static methods, see {@link #getParser()}.
+     */
+    private static volatile DateParser parser = new DateParser(ZoneId.systemDefault(), formats);
+
+    /**
+     * @return the current configuration of <code>DateUtil</code>. The parser is immutable, so jobs that need
+     * another time zone or additional formats can derive their own parser from it without affecting other threads.
+     */
+    public static DateParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Gets the formatter of a date format. The formatters of the {@link #formats} list and of other patterns
+     * are created once and reused, since {@link DateTimeFormatter} is immutable and thread-safe.
+     *
+     * @param format The preferred date/time format e.g. yyyyMMdd.
+     * @return the formatter of the format
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public static DateTimeFormatter getFormatter(String format) {
+        return parser.getFormatter(format);
+    }
+
+    /**
+     * @return {@link #formats} as unmodifiable list
      */
     public static List<String> getAllFormats() {
-        return formats;
+        return parser.getAllFormats();
     }
 
     /**
      * @return all available formats of DateUtil as pipe separated string in brackets for regular expression checks.
      */
     public static String getAllFormatsAsRegex() {
-        StringBuilder ret = new StringBuilder("(");
-        for(int index = 0; index < formats.size(); index++) {
-            ret.append(formats.get(index));
-            if(index < formats.size() - 1) {
-                ret.append("|");
-            }
-        }
-        ret.append(")");
-        return ret.toString();
+        return parser.getAllFormatsAsRegex();
     }
 
     /**
      * @param format pattern to add to the {@link #formats} list during runtime. Allows to take this format into account
      *               when using DateUtil
      */
-    public static void addPattern(String format) {
-        formats.add(format);
+    public static synchronized void addPattern(String format) {
+        parser = parser.withPattern(format);
     }
 
     /**
@@ -196,15 +220,7 @@ public class DateUtil {
      * @return 0 = both instants are equal; -1 = first instant is before second; 1 = first instant is after second.
      */
     public static int compare(String dateTime, String compareDateTime) {
-        ZonedDateTime first = retrieveZonedDateTime(retrieveTemporal(dateTime));
-        ZonedDateTime second = retrieveZonedDateTime(retrieveTemporal(compareDateTime));
-        if (first.isBefore(second)) {
-            return -1;
-        } else if (first.isAfter(second)) {
-            return 1;
-        } else {
-            return 0;
-        }
+        return parser.compare(dateTime, compareDateTime);
     }
 
     /**
@@ -217,21 +233,7 @@ public class DateUtil {
      * @return A positive integer value, or 0 if the instants are similar and -1 when no instant format could be detected.
      */
     public static int diff(String dateTime, String compareDateTime, ChronoUnit type) {
-        ZonedDateTime first = retrieveZonedDateTime(retrieveTemporal(dateTime));
-        ZonedDateTime second = retrieveZonedDateTime(retrieveTemporal(compareDateTime));
-        // Ensure comparison between the correct instance types
-        switch(type) {
-            case NANOS, MICROS, MILLIS, SECONDS, MINUTES, HOURS, HALF_DAYS -> {
-                first = first.toLocalDateTime().atZone(zoneId);
-                second = second.toLocalDateTime().atZone(zoneId);
-            }
-            case DAYS, WEEKS, MONTHS, YEARS, DECADES, CENTURIES, MILLENNIA, ERAS -> {
-                first = first.toLocalDate().atStartOfDay(zoneId);
-                second = second.toLocalDate().atStartOfDay(zoneId);
-            }
-            default -> throw new IllegalArgumentException("Unexpected value: " + type);
-        }
-        return (int) Math.abs(type.between(first, second));
+        return parser.diff(dateTime, compareDateTime, type);
     }
 
     /**
@@ -241,9 +243,7 @@ public class DateUtil {
      * @return The current instant in the committed format as string.
      */
     public static String get(String format) {
-        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(instant);
+        return parser.get(format);
     }
 
     /**
@@ -254,9 +254,7 @@ public class DateUtil {
      * @return The formatted/transformed string or an empty string if no instant could be retrieved.
      */
     public static String get(String dateTime, String format) {
-        ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(instant);
+        return parser.get(dateTime, format);
     }
 
     /**
@@ -267,8 +265,7 @@ public class DateUtil {
      * @return The detected date as string in the default time zone.
      */
     public static String get(long millis, String format) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), zoneId));
+        return parser.get(millis, format);
     }
 
     /**
@@ -280,14 +277,7 @@ public class DateUtil {
      * @return The resulting date string in the committed format.
      */
     public static String get(int diff, String format, ChronoUnit unit) {
-        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
-        if (diff > 0) {
-            instant = instant.plus(diff, unit);
-        } else if (diff < 0) {
-            instant = instant.minus(-diff, unit);
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(instant);
+        return parser.get(diff, format, unit);
     }
 
     /**
@@ -300,14 +290,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String get(String dateTime, int diff, String format, ChronoUnit unit) {
-        ZonedDateTime zonedInstant = retrieveZonedDateTime(retrieveTemporal(dateTime));
-        if (diff > 0) {
-            zonedInstant = zonedInstant.plus(diff, unit);
-        } else if (diff < 0) {
-            zonedInstant = zonedInstant.minus(-diff, unit);
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(zonedInstant);
+        return parser.get(dateTime, diff, format, unit);
     }
 
     /**
@@ -318,10 +301,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getFirstOf(ChronoField type, String format) {
-        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
-        instant = instant.with(type, instant.range(type).getMinimum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(instant);
+        return parser.getFirstOf(type, format);
     }
 
     /**
@@ -333,10 +313,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getFirstOf(String dateTime, ChronoField type, String format) {
-        ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
-        instant = instant.with(type, instant.range(type).getMinimum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(instant);
+        return parser.getFirstOf(dateTime, type, format);
     }
 
     /**
@@ -349,7 +326,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getFirstOf(ChronoField type, String format, ChronoUnit unit, int diff) {
-        return getFirstOf(get(diff, format, unit), type, format);
+        return parser.getFirstOf(type, format, unit, diff);
     }
 
     /**
@@ -363,7 +340,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getFirstOf(String dateTime, ChronoField type, String format, ChronoUnit unit, int diff) {
-        return getFirstOf(get(dateTime, diff, format, unit), type, format);
+        return parser.getFirstOf(dateTime, type, format, unit, diff);
     }
 
     /**
@@ -374,10 +351,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getLastOf(ChronoField type, String format) {
-        ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
-        instant = instant.with(type, instant.range(type).getMaximum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(instant);
+        return parser.getLastOf(type, format);
     }
 
     /**
@@ -389,10 +363,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getLastOf(String dateTime, ChronoField type, String format) {
-        ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
-        instant = instant.with(type, instant.range(type).getMaximum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        return formatter.format(instant);
+        return parser.getLastOf(dateTime, type, format);
     }
 
     /**
@@ -405,7 +376,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getLastOf(ChronoField type, String format, ChronoUnit unit, int diff) {
-        return getLastOf(get(diff, format, unit), type, format);
+        return parser.getLastOf(type, format, unit, diff);
     }
 
     /**
@@ -419,7 +390,7 @@ public class DateUtil {
      * @return The resulting date/time string in the committed format.
      */
     public static String getLastOf(String dateTime, ChronoField type, String format, ChronoUnit unit, int diff) {
-        return getLastOf(get(dateTime, diff, format, unit), type, format);
+        return parser.getLastOf(dateTime, type, format, unit, diff);
     }
 
     /**
@@ -430,7 +401,7 @@ public class DateUtil {
      * @return The number as integer value.
      */
     public static int getNumber(String dateTime, ChronoField type) {
-        return retrieveZonedDateTime(retrieveTemporal(dateTime)).get(type);
+        return parser.getNumber(dateTime, type);
     }
 
     /**
@@ -442,7 +413,7 @@ public class DateUtil {
      */
     public static String parse(String inStr, String pFormat) {
         String parsedDate = "";
-        Pattern p = Pattern.compile(pFormat);
+        Pattern p = PatternCache.get(pFormat);
         Matcher mDate = p.matcher(inStr);
         if (mDate.find()) {
             parsedDate = inStr.substring(mDate.start(), mDate.end());
@@ -504,26 +475,48 @@ public class DateUtil {
      * @return the detected date/time or empty
      */
     public static Optional<String> findDate(String input) {
-        String bestMatch = null;
-        int highestScore = 0;
-
-        for (String format : formats) {
-            String regex = convertDateFormatToRegex(format);
-            Pattern pattern = Pattern.compile(regex);
-            Matcher matcher = pattern.matcher(input);
-            if (matcher.find()) {
-                String foundDate = matcher.group();
-                if(foundDate.length() == format.length() && !format.contentEquals("D")) {
-//                    ZonedDateTime.parse(foundDate, DateTimeFormatter.ofPattern(format).withZone(zoneId));
-                    int currentScore = calculateMatchScore(input, foundDate, format);
-                    if (currentScore > highestScore) {
-                        highestScore = currentScore;
-                        bestMatch = foundDate;
-                    }
-                }
-            }
-        }
-        return Optional.ofNullable(bestMatch);
+        return parser.findDate(input);
+    }
+
+    /**
+     * Searches the dates of all formats in a string, ranked like in {@link #findDate(String)}.
+     *
+     * @param input string that may contain dates/times
+     * @return the candidates ordered by descending score, the first one is the result of {@link #findDate(String)}
+     */
+    public static List<DateDetector.Candidate> findAllDates(String input) {
+        return parser.findAllDates(input);
+    }
+
+    /**
+     * Searches a date in each of the given strings, e.g. all values of a column.
+     *
+     * @param inputs strings that may contain a date/time
+     * @return a list with the detected date/time of each input at the same position, or null if the input
+     * contains no date
+     */
+    public static List<String> findDates(List<String> inputs) {
+        return parser.findDates(inputs);
+    }
+
+    /**
+     * Searches a date in each line of a file. The file is read line by line, so it does not have to fit into
+     * memory.
+     *
+     * @param file    the file to be searched, e.g. a log file
+     * @param charset the character set of the file
+     * @return the detected date/time of all lines that contain a date, by line number starting with 1
+     * @throws IOException if the file can not be read
+     */
+    public static Map<Integer, String> findDates(Path file, Charset charset) throws IOException {
+        return parser.findDates(file, charset);
+    }
+
+    /**
+     * @return the detector of the current configuration, which can be used for many searches with the same formats
+     */
+    public static DateDetector getDateDetector() {
+        return parser.getDateDetector();
     }
 
     /**
@@ -535,15 +528,8 @@ public class DateUtil {
      * @return A regex for the given format, e.g., \d{2}\.\d{2}\.\d{4}
      */
     public static String convertDateFormatToRegex(String dateFormat) {
-        Map<Character, String> formatToRegex = getCharacterStringMap();
-
-        // Special characters that need escaping in regex
-        Map<Character, String> specialCharacters = new HashMap<>();
-        specialCharacters.put('.', "\\.");
-        specialCharacters.put('-', "-");
-        specialCharacters.put('/', "/");
-        specialCharacters.put(':', ":");
-        specialCharacters.put(',', ",");
+        Map<Character, String> formatToRegex = FORMAT_TO_REGEX;
+        Map<Character, String> specialCharacters = SPECIAL_CHARACTERS;
 
         StringBuilder regexPattern = new StringBuilder();
         boolean inLiteral = false;
@@ -566,6 +552,15 @@ public class DateUtil {
         return regexPattern.toString();
     }
 
+    /**
+     * @param letter a letter of a date format
+     * @return the regular expression of the letter, see {@link #convertDateFormatToRegex(String)}, or null if
+     * the character is matched literally
+     */
+    static String getLetterRegex(char letter) {
+        return letter == '\'' ? null : FORMAT_TO_REGEX.get(letter);
+    }
+
     private static Map<Character, String> getCharacterStringMap() {
         Map<Character, String> formatToRegex = new HashMap<>();
         formatToRegex.put('d', "\\d{1}");       // Day of month
@@ -586,7 +581,7 @@ public class DateUtil {
         formatToRegex.put('z', "[A-Za-z/]+");     // Time zone names
         formatToRegex.put('X', "[+-]\\d{2}(:?\\d{2})?"); // ISO Time zone
         formatToRegex.put('\'', "");              // Escaped single quote (literal text)
-        return formatToRegex;
+        return Map.copyOf(formatToRegex);
     }
 
     /**
@@ -596,15 +591,7 @@ public class DateUtil {
      * @throws IllegalArgumentException if all formats got checked without result
      */
     public static TemporalAccessor retrieveTemporal(String dateTime) {
-        for(String pattern : getAllFormats()) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-            try {
-                return formatter.parse(dateTime);
-            } catch(DateTimeParseException e) {
-                continue;
-            }
-        }
-        throw new DateTimeException("Format not supported ==> " + dateTime);
+        return parser.retrieveTemporal(dateTime);
     }
 
     /**
@@ -629,42 +616,6 @@ public class DateUtil {
     }
 
     public static ZonedDateTime retrieveZonedDateTime(TemporalAccessor temporal) {
-        ZonedDateTime ret;
-        try {
-            ret = LocalDateTime.from(temporal).atZone(zoneId);
-        } catch (DateTimeException e) {
-            ret = null;
-        }
-        if(ret == null) {
-            try {
-                ret = LocalDate.from(temporal).atStartOfDay(zoneId);
-            } catch(DateTimeException e) {
-                ret = null;
-            }
-        }
-        if(ret == null) {
-            try {
-                ret = LocalTime.from(temporal).atDate(LocalDate.now()).atZone(zoneId);
-            } catch (DateTimeException e) {
-                ret = null;
-            }
-        }
-        // Last try for special formats
-        if(ret == null) {
-            int year = 0;
-            int week = 1;
-            int dayOfWeek = 1;
-            if(temporal.isSupported(ChronoField.YEAR)) {
-                year = temporal.get(ChronoField.YEAR);
-            }
-            if(temporal.isSupported(WeekFields.ISO.weekOfYear())) {
-                week = (int) temporal.getLong(WeekFields.ISO.weekOfYear());
-            }
-            if(temporal.isSupported(WeekFields.ISO.dayOfWeek())) {
-                dayOfWeek = (int) temporal.getLong(WeekFields.ISO.dayOfWeek());
-            }
-            ret = LocalDate.of(year, 1, 1).with(WeekFields.ISO.weekOfYear(), week).with(WeekFields.ISO.dayOfWeek(), dayOfWeek).atStartOfDay(zoneId);
-        }
-        return ret;
+        return parser.retrieveZonedDateTime(temporal);
     }
 }
\ No newline at end of file
@@ -0,0 +1,394 @@
+package org.opentdk.api.util;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Class with static methods for date arithmetic on many values, e.g. all values of a column. The values get
+ * parsed once into a <code>long[]</code> with the milliseconds or the days since the epoch of 1970-01-01, and
+ * comparisons, differences, shifts and buckets are calculated on these primitives. Strings are only created again
+ * by {@link #format(long[], String)}.
+ * <p>
+ * The results are the same as the ones of {@link DateUtil#compare(String, String)},
+ * {@link DateUtil#diff(String, String, ChronoUnit)} and {@link DateUtil#get(String, int, String, ChronoUnit)}
+ * for each single value. Values that are not a supported date are stored as {@link #MISSING}, and every
+ * calculation with a missing value results in {@link #MISSING}.
+ * <pre>
+ * long[] created = EpochUtil.toEpochMillis(container.getColumn("Created"));
+ * long[] closed = EpochUtil.toEpochMillis(container.getColumn("Closed"));
+ * long[] hours = EpochUtil.diff(created, closed, ChronoUnit.HOURS);
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public final class EpochUtil {
+
+    /**
+     * Marker for values that are not a supported date. {@link Long#MIN_VALUE} is no valid epoch value of
+     * {@link Instant} or {@link LocalDate}.
+     */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private EpochUtil() {
+    }
+
+    /**
+     * Parses date, time or time stamp strings with the configuration of {@link DateUtil}.
+     *
+     * @param values strings in all available formats
+     * @return the milliseconds since 1970-01-01T00:00:00Z of each value at the same position, or {@link #MISSING}
+     * if the value is null or not supported
+     */
+    public static long[] toEpochMillis(List<String> values) {
+        return toEpochMillis(DateUtil.getParser(), values);
+    }
+
+    /**
+     * Parses date, time or time stamp strings with the formats and the time zone of a parser.
+     *
+     * @param parser the configuration used to parse the values
+     * @param values strings in all available formats
+     * @return the milliseconds since 1970-01-01T00:00:00Z of each value at the same position, or {@link #MISSING}
+     * if the value is null or not supported
+     */
+    public static long[] toEpochMillis(DateParser parser, List<String> values) {
+        DateMatcher matcher = new DateMatcher(parser);
+        long[] ret = new long[values.size()];
+        for (int i = 0; i < ret.length; i++) {
+            ZonedDateTime dateTime = parseZoned(matcher, values.get(i));
+            ret[i] = dateTime == null ? MISSING : dateTime.toInstant().toEpochMilli();
+        }
+        return ret;
+    }
+
+    /**
+     * Parses date strings with the configuration of {@link DateUtil}. The time of day gets dropped.
+     *
+     * @param values strings in all available formats
+     * @return the days since 1970-01-01 of each value at the same position, or {@link #MISSING} if the value is
+     * null or not supported
+     */
+    public static long[] toEpochDays(List<String> values) {
+        return toEpochDays(DateUtil.getParser(), values);
+    }
+
+    /**
+     * Parses date strings with the formats and the time zone of a parser. The time of day gets dropped.
+     *
+     * @param parser the configuration used to parse the values
+     * @param values strings in all available formats
+     * @return the days since 1970-01-01 of each value at the same position, or {@link #MISSING} if the value is
+     * null or not supported
+     */
+    public static long[] toEpochDays(DateParser parser, List<String> values) {
+        DateMatcher matcher = new DateMatcher(parser);
+        long[] ret = new long[values.size()];
+        for (int i = 0; i < ret.length; i++) {
+            ZonedDateTime dateTime = parseZoned(matcher, values.get(i));
+            ret[i] = dateTime == null ? MISSING : dateTime.toLocalDate().toEpochDay();
+        }
+        return ret;
+    }
+
+    /**
+     * Converts milliseconds into the local dates of a time zone.
+     *
+     * @param millis milliseconds since 1970-01-01T00:00:00Z
+     * @param zone   the time zone of the local dates
+     * @return the days since 1970-01-01 of each value at the same position
+     */
+    public static long[] toEpochDays(long[] millis, ZoneId zone) {
+        long[] ret = new long[millis.length];
+        // A fixed offset like UTC needs no lookup of the zone rules per value
+        ZoneOffset fixed = zone.getRules().isFixedOffset() ? zone.getRules().getOffset(Instant.EPOCH) : null;
+        for (int i = 0; i < ret.length; i++) {
+            if (millis[i] == MISSING) {
+                ret[i] = MISSING;
+            } else if (fixed != null) {
+                ret[i] = Math.floorDiv(millis[i] + fixed.getTotalSeconds() * 1000L, MILLIS_PER_DAY);
+            } else {
+                ret[i] = LocalDate.ofInstant(Instant.ofEpochMilli(millis[i]), zone).toEpochDay();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Compares two arrays of epoch values position by position.
+     *
+     * @param first  the first comparison values, milliseconds or days
+     * @param second the second comparison values in the same unit
+     * @return 0 = both values are equal; -1 = first value is before second; 1 = first value is after second;
+     * {@link Integer#MIN_VALUE} if one of the values is missing
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static int[] compare(long[] first, long[] second) {
+        checkLength(first, second);
+        int[] ret = new int[first.length];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = first[i] == MISSING || second[i] == MISSING ? Integer.MIN_VALUE : Long.compare(first[i], second[i]);
+        }
+        return ret;
+    }
+
+    /**
+     * Compares epoch values with a single value, e.g. the deadline of a report.
+     *
+     * @param values the first comparison values, milliseconds or days
+     * @param value  the second comparison value in the same unit
+     * @return 0 = both values are equal; -1 = value of the array is before; 1 = value of the array is after;
+     * {@link Integer#MIN_VALUE} if the value of the array is missing
+     */
+    public static int[] compare(long[] values, long value) {
+        int[] ret = new int[values.length];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = values[i] == MISSING ? Integer.MIN_VALUE : Long.compare(values[i], value);
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the difference between two arrays of milliseconds position by position, see
+     * {@link DateUtil#diff(String, String, ChronoUnit)}.
+     *
+     * @param first  the first milliseconds since 1970-01-01T00:00:00Z
+     * @param second the second milliseconds since 1970-01-01T00:00:00Z
+     * @param unit   a time based unit from <code>ChronoUnit.NANOS</code> to <code>ChronoUnit.HALF_DAYS</code>
+     * @return the absolute difference in the committed unit, or {@link #MISSING} if one of the values is missing
+     * @throws IllegalArgumentException if the arrays have different lengths or the unit is date based, which
+     *                                  is supported by {@link #diffDays(long[], long[], ChronoUnit)}
+     */
+    public static long[] diff(long[] first, long[] second, ChronoUnit unit) {
+        checkLength(first, second);
+        checkTimeBased(unit);
+        long[] ret = new long[first.length];
+        for (int i = 0; i < ret.length; i++) {
+            if (first[i] == MISSING || second[i] == MISSING) {
+                ret[i] = MISSING;
+            } else {
+                ret[i] = convertMillis(Math.abs(second[i] - first[i]), unit);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the difference between two arrays of days position by position, see
+     * {@link DateUtil#diff(String, String, ChronoUnit)}.
+     *
+     * @param first  the first days since 1970-01-01
+     * @param second the second days since 1970-01-01
+     * @param unit   a date based unit from <code>ChronoUnit.DAYS</code> to <code>ChronoUnit.MILLENNIA</code>
+     * @return the absolute difference in the committed unit, or {@link #MISSING} if one of the values is missing
+     * @throws IllegalArgumentException if the arrays have different lengths or the unit is not date based
+     */
+    public static long[] diffDays(long[] first, long[] second, ChronoUnit unit) {
+        checkLength(first, second);
+        checkDateBased(unit);
+        long[] ret = new long[first.length];
+        for (int i = 0; i < ret.length; i++) {
+            if (first[i] == MISSING || second[i] == MISSING) {
+                ret[i] = MISSING;
+            } else if (unit == ChronoUnit.DAYS) {
+                ret[i] = Math.abs(second[i] - first[i]);
+            } else if (unit == ChronoUnit.WEEKS) {
+                ret[i] = Math.abs(second[i] - first[i]) / 7;
+            } else {
+                // Months and longer units depend on the calendar
+                ret[i] = Math.abs(unit.between(LocalDate.ofEpochDay(first[i]), LocalDate.ofEpochDay(second[i])));
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Shifts milliseconds to the past or future, see {@link DateUtil#get(String, int, String, ChronoUnit)}.
+     *
+     * @param millis milliseconds since 1970-01-01T00:00:00Z
+     * @param diff   the amount to travel. This depends on the committed unit.
+     * @param unit   a time based unit from <code>ChronoUnit.MILLIS</code> to <code>ChronoUnit.HALF_DAYS</code>
+     * @return the shifted values at the same position, missing values stay missing
+     * @throws IllegalArgumentException if the unit is shorter than milliseconds or date based, which is supported
+     *                                  by {@link #shiftDays(long[], long, ChronoUnit)}
+     */
+    public static long[] shift(long[] millis, long diff, ChronoUnit unit) {
+        checkTimeBased(unit);
+        if (unit == ChronoUnit.NANOS || unit == ChronoUnit.MICROS) {
+            throw new IllegalArgumentException("Unit is shorter than milliseconds: " + unit);
+        }
+        long offset = Math.multiplyExact(diff, unit.getDuration().toMillis());
+        long[] ret = new long[millis.length];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = millis[i] == MISSING ? MISSING : millis[i] + offset;
+        }
+        return ret;
+    }
+
+    /**
+     * Shifts days to the past or future, see {@link DateUtil#get(String, int, String, ChronoUnit)}.
+     *
+     * @param days days since 1970-01-01
+     * @param diff the amount to travel. This depends on the committed unit.
+     * @param unit a date based unit from <code>ChronoUnit.DAYS</code> to <code>ChronoUnit.MILLENNIA</code>
+     * @return the shifted values at the same position, missing values stay missing
+     * @throws IllegalArgumentException if the unit is not date based
+     */
+    public static long[] shiftDays(long[] days, long diff, ChronoUnit unit) {
+        checkDateBased(unit);
+        long[] ret = new long[days.length];
+        for (int i = 0; i < ret.length; i++) {
+            if (days[i] == MISSING) {
+                ret[i] = MISSING;
+            } else if (unit == ChronoUnit.DAYS || unit == ChronoUnit.WEEKS) {
+                ret[i] = days[i] + diff * (unit == ChronoUnit.DAYS ? 1 : 7);
+            } else {
+                // Months and longer units keep the day of month where possible
+                ret[i] = LocalDate.ofEpochDay(days[i]).plus(diff, unit).toEpochDay();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Assigns epoch values to buckets of the same width, e.g. hours or 15 minutes. The buckets start at the
+     * epoch, so buckets of hours or days in milliseconds are aligned to UTC.
+     *
+     * @param values milliseconds or days since the epoch
+     * @param width  the width of the buckets in the same unit as the values
+     * @return the start of the bucket of each value at the same position, missing values stay missing
+     * @throws IllegalArgumentException if the width is less than 1
+     */
+    public static long[] bucket(long[] values, long width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("The width of the buckets must be at least 1");
+        }
+        long[] ret = new long[values.length];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = values[i] == MISSING ? MISSING : Math.floorDiv(values[i], width) * width;
+        }
+        return ret;
+    }
+
+    /**
+     * Assigns days to the calendar week, month or year they belong to.
+     *
+     * @param days days since 1970-01-01
+     * @param unit <code>ChronoUnit.DAYS</code>, <code>ChronoUnit.WEEKS</code> (starting on Monday),
+     *             <code>ChronoUnit.MONTHS</code> or <code>ChronoUnit.YEARS</code>
+     * @return the first day of the bucket of each value at the same position, missing values stay missing
+     * @throws IllegalArgumentException if the unit is not supported
+     */
+    public static long[] bucketDays(long[] days, ChronoUnit unit) {
+        long[] ret = new long[days.length];
+        for (int i = 0; i < ret.length; i++) {
+            if (days[i] == MISSING) {
+                ret[i] = MISSING;
+                continue;
+            }
+            switch (unit) {
+                case DAYS -> ret[i] = days[i];
+                // 1970-01-01 was a Thursday, three days after Monday
+                case WEEKS -> ret[i] = days[i] - Math.floorMod(days[i] + 3, 7);
+                case MONTHS -> ret[i] = LocalDate.ofEpochDay(days[i]).withDayOfMonth(1).toEpochDay();
+                case YEARS -> ret[i] = LocalDate.ofEpochDay(days[i]).with(TemporalAdjusters.firstDayOfYear()).toEpochDay();
+                default -> throw new IllegalArgumentException("Unexpected value: " + unit);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Formats milliseconds in the time zone of {@link DateUtil}.
+     *
+     * @param millis milliseconds since 1970-01-01T00:00:00Z
+     * @param format the preferred date/time format e.g. yyyyMMdd.
+     * @return the formatted value at the same position, or null if the value is missing
+     */
+    public static String[] format(long[] millis, String format) {
+        return format(DateUtil.getParser(), millis, format);
+    }
+
+    /**
+     * Formats milliseconds in the time zone of a parser.
+     *
+     * @param parser the configuration with the time zone
+     * @param millis milliseconds since 1970-01-01T00:00:00Z
+     * @param format the preferred date/time format e.g. yyyyMMdd.
+     * @return the formatted value at the same position, or null if the value is missing
+     */
+    public static String[] format(DateParser parser, long[] millis, String format) {
+        DateTimeFormatter formatter = parser.getFormatter(format).withZone(parser.getZoneId());
+        String[] ret = new String[millis.length];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = millis[i] == MISSING ? null : formatter.format(Instant.ofEpochMilli(millis[i]));
+        }
+        return ret;
+    }
+
+    /**
+     * Formats days as dates.
+     *
+     * @param days   days since 1970-01-01
+     * @param format the preferred date format e.g. yyyyMMdd.
+     * @return the formatted value at the same position, or null if the value is missing
+     */
+    public static String[] formatDays(long[] days, String format) {
+        DateTimeFormatter formatter = DateUtil.getFormatter(format);
+        String[] ret = new String[days.length];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = days[i] == MISSING ? null : formatter.format(LocalDate.ofEpochDay(days[i]));
+        }
+        return ret;
+    }
+
+    private static ZonedDateTime parseZoned(DateMatcher matcher, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return matcher.parseZoned(value);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a non-negative duration in milliseconds into a time based unit, truncated like
+     * {@link ChronoUnit#between(java.time.temporal.Temporal, java.time.temporal.Temporal)}.
+     */
+    private static long convertMillis(long millis, ChronoUnit unit) {
+        return switch (unit) {
+            case NANOS -> Math.multiplyExact(millis, 1_000_000L);
+            case MICROS -> Math.multiplyExact(millis, 1_000L);
+            default -> millis / unit.getDuration().toMillis();
+        };
+    }
+
+    private static void checkLength(long[] first, long[] second) {
+        if (first.length != second.length) {
+            throw new IllegalArgumentException("Arrays have different lengths: " + first.length + " != " + second.length);
+        }
+    }
+
+    private static void checkTimeBased(ChronoUnit unit) {
+        if (!unit.isTimeBased()) {
+            throw new IllegalArgumentException("Unit is not time based: " + unit);
+        }
+    }
+
+    private static void checkDateBased(ChronoUnit unit) {
+        if (!unit.isDateBased()) {
+            throw new IllegalArgumentException("Unit is not date based: " + unit);
+        }
+    }
+}
@@ -20,7 +20,7 @@ public class LineParser {
 	public static String parseLine(String line, ParseMode mode, String regex, boolean includePattern) {
 		StringBuilder res = new StringBuilder();
 		
-		Pattern pattern = Pattern.compile(regex, 2);
+		Pattern pattern = PatternCache.get(regex, Pattern.CASE_INSENSITIVE);
 		Matcher matcher;
 		if (!line.isEmpty()) {
 			matcher = pattern.matcher(line);
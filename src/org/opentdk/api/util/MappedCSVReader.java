@@ -0,0 +1,255 @@
+package org.opentdk.api.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Cursor based reader for CSV-like files that maps the file into memory with {@link FileChannel#map}
+ * instead of decoding it line by line. Delimiters and line breaks get detected by scanning the raw
+ * bytes, and the cells of the current row are only kept as offsets into the mapping. A string is
+ * created when a cell gets read by {@link #get(int)}, so cells that are never accessed cost nothing.
+ * <pre>
+ * try (MappedCSVReader reader = new MappedCSVReader(path, ";", StandardCharsets.UTF_8)) {
+ *     while (reader.next()) {
+ *         String name = reader.get(1);
+ *     }
+ * }
+ * </pre>
+ * The delimiter has to be a single character that is encoded as one byte in the used encoding and has no
+ * special meaning in a regular expression, see {@link #supports(String, Charset)}. Rows get split with the
+ * same result as {@link String#split(String)}, i.e. trailing empty cells are removed.
+ *
+ * @author LK Test Solutions
+ */
+public class MappedCSVReader implements Closeable {
+
+	/**
+	 * Maximum size of one mapped region of the file. Files that are larger get mapped region by region.
+	 * A single line must not exceed this size.
+	 */
+	private static final long MAX_REGION_SIZE = 1L << 30;
+
+	/**
+	 * Characters that {@link String#split(String)} interprets as part of a regular expression.
+	 */
+	private static final String REGEX_META_CHARACTERS = ".$|()[{^?*+\\";
+
+	private final FileChannel channel;
+	private final Charset encoding;
+	private final byte delimiter;
+	/**
+	 * File offset at which the reader stops, either the file size or the end of the selected range.
+	 */
+	private final long endOffset;
+	/**
+	 * Currently mapped region of the file and its offset within the file.
+	 */
+	private MappedByteBuffer region;
+	private long regionStart;
+	/**
+	 * File offset of the line that gets read by the next call of {@link #next()}.
+	 */
+	private long nextLineStart;
+	/**
+	 * Start and end offsets of the cells of the current row, relative to the mapped region.
+	 */
+	private int[] cellStarts = new int[16];
+	private int[] cellEnds = new int[16];
+	private int cellCount;
+	/**
+	 * Reusable buffer to copy the bytes of a cell before decoding them.
+	 */
+	private byte[] cellBuffer = new byte[256];
+
+	/**
+	 * Opens the file and prepares the cursor in front of the first line.
+	 *
+	 * @param filePath  the file to be read
+	 * @param delimiter the single character that separates the cells of a line
+	 * @param encoding  the character encoding of the file
+	 * @throws IOException              if the file cannot be opened
+	 * @throws IllegalArgumentException if the delimiter is not supported for the encoding
+	 */
+	public MappedCSVReader(Path filePath, String delimiter, Charset encoding) throws IOException {
+		this(filePath, delimiter, encoding, 0, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Opens the file and prepares the cursor in front of the line that starts at the given offset. The
+	 * reader stops at the end offset, so several readers can process separate ranges of the same file.
+	 * Both offsets have to be located at the beginning of a line.
+	 *
+	 * @param filePath    the file to be read
+	 * @param delimiter   the single character that separates the cells of a line
+	 * @param encoding    the character encoding of the file
+	 * @param startOffset the file offset of the first line to be read
+	 * @param endOffset   the file offset behind the last line to be read, limited to the file size
+	 * @throws IOException              if the file cannot be opened
+	 * @throws IllegalArgumentException if the delimiter is not supported for the encoding or the range is invalid
+	 */
+	public MappedCSVReader(Path filePath, String delimiter, Charset encoding, long startOffset, long endOffset) throws IOException {
+		if (!supports(delimiter, encoding)) {
+			throw new IllegalArgumentException("Delimiter '" + delimiter + "' is not supported for encoding " + encoding);
+		}
+		if (startOffset < 0 || endOffset < startOffset) {
+			throw new IllegalArgumentException("Invalid range " + startOffset + " to " + endOffset);
+		}
+		this.encoding = encoding;
+		this.delimiter = delimiter.getBytes(encoding)[0];
+		channel = FileChannel.open(filePath, StandardOpenOption.READ);
+		this.endOffset = Math.min(endOffset, channel.size());
+		nextLineStart = startOffset;
+	}
+
+	/**
+	 * Checks if the combination of delimiter and encoding can be processed by scanning single bytes. A
+	 * delimiter with a special meaning in a regular expression, like | or ., is not supported, since the
+	 * result would differ from the splitting with {@link String#split(String)}.
+	 *
+	 * @param delimiter the delimiter of the cells
+	 * @param encoding  the character encoding of the file
+	 * @return true if the delimiter is a single byte character in the encoding and no regular expression
+	 *         meta character, and the line breaks are encoded as the ASCII bytes 0x0A and 0x0D
+	 */
+	public static boolean supports(String delimiter, Charset encoding) {
+		return delimiter != null && delimiter.length() == 1 && delimiter.charAt(0) < 0x80 && REGEX_META_CHARACTERS.indexOf(delimiter.charAt(0)) < 0
+				&& delimiter.getBytes(encoding).length == 1 && Arrays.equals("\n".getBytes(encoding), new byte[] {'\n'})
+				&& Arrays.equals("\r".getBytes(encoding), new byte[] {'\r'});
+	}
+
+	/**
+	 * Moves the cursor to the next line of the file.
+	 *
+	 * @return true if a line could be read, false if the end of the file is reached
+	 * @throws IOException if the file cannot be mapped or a line exceeds the maximum region size
+	 */
+	public boolean next() throws IOException {
+		if (nextLineStart >= endOffset) {
+			cellCount = 0;
+			return false;
+		}
+		if (region == null || nextLineStart >= regionStart + region.limit()) {
+			mapRegion(nextLineStart);
+		}
+		if (!scanLine()) {
+			// The line crosses the end of the mapped region
+			if (nextLineStart == regionStart) {
+				throw new IOException("Line at offset " + nextLineStart + " exceeds the maximum size of " + MAX_REGION_SIZE + " bytes");
+			}
+			mapRegion(nextLineStart);
+			scanLine();
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of cells of the current line
+	 */
+	public int size() {
+		return cellCount;
+	}
+
+	/**
+	 * Decodes a single cell of the current line.
+	 *
+	 * @param column the index of the cell within the line, starting from 0
+	 * @return the content of the cell as string
+	 * @throws IndexOutOfBoundsException if the line has no cell with the given index
+	 */
+	public String get(int column) {
+		if (column < 0 || column >= cellCount) {
+			throw new IndexOutOfBoundsException("Index " + column + " out of bounds for length " + cellCount);
+		}
+		int length = cellEnds[column] - cellStarts[column];
+		if (length == 0) {
+			return "";
+		}
+		if (length > cellBuffer.length) {
+			cellBuffer = new byte[Math.max(length, cellBuffer.length * 2)];
+		}
+		region.get(cellStarts[column], cellBuffer, 0, length);
+		return new String(cellBuffer, 0, length, encoding);
+	}
+
+	/**
+	 * Decodes all cells of the current line.
+	 *
+	 * @return an array with the content of all cells of the current line
+	 */
+	public String[] toArray() {
+		String[] ret = new String[cellCount];
+		for (int i = 0; i < cellCount; i++) {
+			ret[i] = get(i);
+		}
+		return ret;
+	}
+
+	@Override
+	public void close() throws IOException {
+		region = null;
+		channel.close();
+	}
+
+	private void mapRegion(long start) throws IOException {
+		regionStart = start;
+		region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAX_REGION_SIZE, endOffset - start));
+	}
+
+	/**
+	 * Scans the bytes of the line that starts at {@link #nextLineStart} and stores the offsets of its
+	 * cells.
+	 *
+	 * @return false if no line break was found before the end of the region and the file continues
+	 */
+	private boolean scanLine() {
+		int limit = region.limit();
+		int lineStart = (int) (nextLineStart - regionStart);
+		int pos = lineStart;
+		int cellStart = lineStart;
+		cellCount = 0;
+		while (pos < limit) {
+			byte b = region.get(pos);
+			if (b == '\n') {
+				break;
+			}
+			if (b == delimiter) {
+				addCell(cellStart, pos);
+				cellStart = pos + 1;
+			}
+			pos++;
+		}
+		if (pos == limit && regionStart + limit < endOffset) {
+			return false;
+		}
+		int contentEnd = pos;
+		if (contentEnd > cellStart && region.get(contentEnd - 1) == '\r') {
+			contentEnd--;
+		}
+		addCell(cellStart, contentEnd);
+		nextLineStart = regionStart + Math.min(pos + 1, limit);
+
+		// Same result as String.split: remove trailing empty cells, but an empty line is one empty cell
+		if (contentEnd > lineStart || cellCount > 1) {
+			while (cellCount > 0 && cellEnds[cellCount - 1] == cellStarts[cellCount - 1]) {
+				cellCount--;
+			}
+		}
+		return true;
+	}
+
+	private void addCell(int start, int end) {
+		if (cellCount == cellStarts.length) {
+			cellStarts = Arrays.copyOf(cellStarts, cellCount * 2);
+			cellEnds = Arrays.copyOf(cellEnds, cellCount * 2);
+		}
+		cellStarts[cellCount] = start;
+		cellEnds[cellCount] = end;
+		cellCount++;
+	}
+}
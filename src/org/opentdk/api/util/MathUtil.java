@@ -3,6 +3,7 @@ package org.opentdk.api.util;
 import org.apache.commons.math3.stat.StatUtils;
 import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
 
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -53,6 +54,38 @@ public class MathUtil {
 		return mean;
 	}
 
+	/**
+	 * Get the arithmetic mean of an array of numeric values, see {@link #getArithmeticMean(List)}.
+	 * 
+	 * @param values the values without boxing
+	 * @return the mean value of the committed values in double precision or NaN (Not a number) if the
+	 *         array is empty
+	 */
+	public static double getArithmeticMean(final double[] values) {
+		return MathUtil.getArithmeticMean(values, false);
+	}
+
+	/**
+	 * Get the arithmetic mean of an array of numeric values, see {@link #getArithmeticMean(List, boolean)}.
+	 * 
+	 * @param values        the values without boxing
+	 * @param skipNegatives If true, the negative values get ignored.
+	 * @return the mean value of the committed values in double precision or NaN (Not a number) if the
+	 *         array is empty
+	 */
+	public static double getArithmeticMean(final double[] values, boolean skipNegatives) {
+		if (values.length == 0) {
+			return Double.NaN;
+		}
+		double mean = 0;
+		for (double temp : values) {
+			if (Double.isFinite(temp) && !(skipNegatives && temp < 0)) {
+				mean += temp;
+			}
+		}
+		return mean / values.length;
+	}
+
 	/**
 	 * Get the minimum of a list of numbers as double value.
 	 * 
@@ -85,6 +118,34 @@ public class MathUtil {
 		return min;
 	}
 
+	/**
+	 * Get the minimum of an array of numbers, see {@link #getMinimum(List, int)}.
+	 * 
+	 * @param values the values without boxing
+	 * @param mode   1: Get the smallest value, 2: Get the value that is the closest to 0.
+	 * @return the minimum of the committed values or NaN if the array is empty
+	 */
+	public static double getMinimum(final double[] values, final int mode) {
+		if (values.length == 0 || (mode != 1 && mode != 2)) {
+			return Double.NaN;
+		}
+
+		double min = 0f;
+		for (int i = 0; i < values.length; i++) {
+			double val = values[i];
+			if (Double.isFinite(val)) {
+				if (mode == 1) {
+					if (i == 0 || (val < min)) {
+						min = val;
+					}
+				} else if (i == 0 || (Math.abs(val) < min)) {
+					min = val;
+				}
+			}
+		}
+		return min;
+	}
+
 	/**
 	 * Get the maximum of a list of numbers as double value.
 	 * 
@@ -108,6 +169,27 @@ public class MathUtil {
 		return max;
 	}
 
+	/**
+	 * Get the maximum of an array of numbers, see {@link #getMaximum(List)}.
+	 * 
+	 * @param values the values without boxing
+	 * @return the maximum of the committed values or NaN if the array is empty
+	 */
+	public static double getMaximum(final double[] values) {
+		if (values.length == 0) {
+			return Double.NaN;
+		}
+
+		double max = 0f;
+		for (int i = 0; i < values.length; i++) {
+			double val = values[i];
+			if (Double.isFinite(val) && (i == 0 || val > max)) {
+				max = val;
+			}
+		}
+		return max;
+	}
+
 	/**
 	 * Returns an estimate of the percentile of the values in the rawValues List.
 	 * 
@@ -120,6 +202,125 @@ public class MathUtil {
 		return StatUtils.percentile(arr, p);
 	}
 
+	/**
+	 * Returns an estimate of the percentile of the values in an array, see {@link #getPercentile(List, double)}.
+	 * 
+	 * @param values the values sequence, which does not get changed
+	 * @param p      the percentile value to compute, a value between 0 and 100
+	 * @return the calculated percentile of the values
+	 */
+	public static double getPercentile(double[] values, double p) {
+		return StatUtils.percentile(values, p);
+	}
+
+	/**
+	 * Computes the same percentile as {@link #getPercentile(double[], double)} without copying and sorting
+	 * the values. The two values next to the percentile are searched with a selection algorithm, which needs
+	 * linear time on average. NaN values are ignored.
+	 * <p>
+	 * The committed array is used as working memory, so the order of its values gets changed. For data that
+	 * does not fit into memory, see {@link QuantileSketch}.
+	 * 
+	 * @param values the values sequence, which gets reordered
+	 * @param p      the percentile value to compute, a value greater than 0 and up to 100
+	 * @return the calculated percentile of the values or NaN if there are no values
+	 * @throws IllegalArgumentException if p is not in the range of 0 (exclusive) to 100
+	 */
+	public static double selectPercentile(double[] values, double p) {
+		if (!(p > 0 && p <= 100)) {
+			throw new IllegalArgumentException("Percentile must be greater than 0 and up to 100: " + p);
+		}
+		// Move the NaN values to the end
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (!Double.isNaN(values[i])) {
+				double temp = values[size];
+				values[size++] = values[i];
+				values[i] = temp;
+			}
+		}
+		if (size == 0) {
+			return Double.NaN;
+		} else if (size == 1) {
+			return values[0];
+		}
+		// Position of the percentile like the legacy estimation of commons math
+		double pos = p * (size + 1) / 100;
+		int intPos = (int) Math.floor(pos);
+		double dif = pos - intPos;
+		if (pos < 1) {
+			return select(values, size, 0);
+		} else if (pos >= size) {
+			return select(values, size, size - 1);
+		}
+		double lower = select(values, size, intPos - 1);
+		// After the selection all greater values are on the right side, so the next value is their minimum
+		double upper = values[intPos];
+		for (int i = intPos + 1; i < size; i++) {
+			upper = Math.min(upper, values[i]);
+		}
+		return lower + dif * (upper - lower);
+	}
+
+	/**
+	 * Searches the k-th smallest value with quickselect and a median of three pivot. Afterwards, the smaller
+	 * values are left and the greater values right of position k.
+	 */
+	private static double select(double[] values, int size, int k) {
+		int left = 0, right = size - 1;
+		while (right > left) {
+			int middle = (left + right) >>> 1;
+			// Sort left, middle and right, the median becomes the pivot
+			if (values[middle] < values[left]) {
+				swap(values, middle, left);
+			}
+			if (values[right] < values[left]) {
+				swap(values, right, left);
+			}
+			if (values[right] < values[middle]) {
+				swap(values, right, middle);
+			}
+			double pivot = values[middle];
+			int i = left, j = right;
+			while (i <= j) {
+				while (values[i] < pivot) {
+					i++;
+				}
+				while (values[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(values, i++, j--);
+				}
+			}
+			if (k <= j) {
+				right = j;
+			} else if (k >= i) {
+				left = i;
+			} else {
+				break;
+			}
+		}
+		return values[k];
+	}
+
+	private static void swap(double[] values, int i, int j) {
+		double temp = values[i];
+		values[i] = values[j];
+		values[j] = temp;
+	}
+
+	/**
+	 * Estimates the percentiles of an array with a {@link QuantileSketch}, e.g. for a part of the data that
+	 * gets merged with the sketches of other parts.
+	 * 
+	 * @param values the values sequence
+	 * @return the sketch with all values
+	 */
+	public static QuantileSketch getQuantileSketch(final double[] values) {
+		return new QuantileSketch().acceptAll(values);
+	}
+
 	/**
 	 * Get the value of the linear correlation between two variables. If the lists are null or empty,
 	 * NaN will be returned. If the lists do not have the same length, the size of the iteration will be
@@ -153,6 +354,27 @@ public class MathUtil {
 		return retVal / size;
 	}
 
+	/**
+	 * Get the covariance of two arrays, see {@link #getCovariance(List, List)}.
+	 * 
+	 * @param xValues the first data set
+	 * @param yValues the second data set
+	 * @return a (negative) positive value if there is a (negative) positive linear correlation between
+	 *         <code>xValues</code> and <code>yValues</code>
+	 */
+	public static double getCovariance(final double[] xValues, final double[] yValues) {
+		if (xValues.length == 0 || yValues.length == 0) {
+			return Double.NaN;
+		}
+
+		int size = Math.min(xValues.length, yValues.length);
+		double retVal = 0, xMean = getArithmeticMean(xValues), yMean = getArithmeticMean(yValues);
+		for (int i = 0; i < size; i++) {
+			retVal += (xValues[i] - xMean) * (yValues[i] - yMean);
+		}
+		return retVal / size;
+	}
+
 	/**
 	 * Computes the bias corrected sample standard deviation. The standard deviation is the positive
 	 * square root of the variance. Bias corrected means that the underestimation or overestimation gets
@@ -181,6 +403,28 @@ public class MathUtil {
 		return sd.evaluate(rawValues.stream().mapToDouble(d -> d).toArray());
 	}
 
+	/**
+	 * Computes the bias corrected sample standard deviation of an array, see {@link #getStandardDeviation(List)}.
+	 * 
+	 * @param values the values sequence
+	 * @return the calculated standard deviation of the values
+	 */
+	public static double getStandardDeviation(double[] values) {
+		return MathUtil.getStandardDeviation(values, true);
+	}
+
+	/**
+	 * Computes the bias corrected sample standard deviation or the non bias corrected population
+	 * standard deviation of an array in a single pass, see {@link #getStandardDeviation(List, boolean)}.
+	 * 
+	 * @param values        the values sequence
+	 * @param biasCorrected true: Bias corrected. False: Non bias corrected.
+	 * @return the calculated standard deviation of the values
+	 */
+	public static double getStandardDeviation(double[] values, boolean biasCorrected) {
+		return getSummary(values).getStandardDeviation(biasCorrected);
+	}
+
 	/**
 	 * Calculate a linear correlation coefficient (normed COVARIANCE) for two variables x and y by using
 	 * <code>getCovariance</code> and <code>getDeviation</code>. If one of the used methods returns NaN,
@@ -195,6 +439,86 @@ public class MathUtil {
 		return getCovariance(xValues, yValues) / (getStandardDeviation(xValues) * getStandardDeviation(yValues));
 	}
 
+	/**
+	 * Calculate a linear correlation coefficient for two arrays, see
+	 * {@link #getLinearCorrelationCoefficient(List, List)}. Arrays of the same length with finite values are
+	 * evaluated in a single pass.
+	 * 
+	 * @param xValues the first set of data
+	 * @param yValues the second set of data
+	 * @return the measure of dispersion in the range of 0 to |1|, where 1 is a perfect positive
+	 *         correlation, -1 a perfect negative correlation and 0 no linear correlation
+	 */
+	public static double getLinearCorrelationCoefficient(final double[] xValues, final double[] yValues) {
+		if (xValues.length == 0 || yValues.length == 0) {
+			return Double.NaN;
+		}
+		if (xValues.length != yValues.length) {
+			return getCovariance(xValues, yValues) / (getStandardDeviation(xValues) * getStandardDeviation(yValues));
+		}
+		BivariateStatSummary summary = getSummary(xValues, yValues);
+		if (!Double.isFinite(summary.getX().getSum()) || !Double.isFinite(summary.getY().getSum())) {
+			// getArithmeticMean skips values that are not finite, so the fused calculation does not apply
+			return getCovariance(xValues, yValues) / (getStandardDeviation(xValues) * getStandardDeviation(yValues));
+		}
+		// Population covariance divided by the sample standard deviations, like the List based method
+		return summary.getCovariance(false) / (summary.getX().getStandardDeviation(true) * summary.getY().getStandardDeviation(true));
+	}
+
+	/**
+	 * Calculates count, sum, minimum, maximum, mean and variance of an array in a single pass.
+	 * 
+	 * @param values the values sequence
+	 * @return the statistics of the values
+	 */
+	public static StatSummary getSummary(final double[] values) {
+		return new StatSummary().acceptAll(values);
+	}
+
+	/**
+	 * Calculates the statistics of the remaining values of a buffer in a single pass, e.g. of a memory mapped
+	 * file. The position of the buffer does not get changed.
+	 * 
+	 * @param values the buffer with the values from its position to its limit
+	 * @return the statistics of the values
+	 */
+	public static StatSummary getSummary(final DoubleBuffer values) {
+		StatSummary summary = new StatSummary();
+		for (int i = values.position(); i < values.limit(); i++) {
+			summary.accept(values.get(i));
+		}
+		return summary;
+	}
+
+	/**
+	 * Calculates the statistics of both arrays and their co-moment in a single pass. If the arrays do not have
+	 * the same length, the pairs up to the length of the smaller one are used.
+	 * 
+	 * @param xValues the first set of data
+	 * @param yValues the second set of data
+	 * @return the statistics of the pairs, including covariance and correlation
+	 */
+	public static BivariateStatSummary getSummary(final double[] xValues, final double[] yValues) {
+		return new BivariateStatSummary().acceptAll(xValues, yValues);
+	}
+
+	/**
+	 * Calculates the statistics of the remaining values of two buffers and their co-moment in a single pass.
+	 * The positions of the buffers do not get changed.
+	 * 
+	 * @param xValues the buffer with the first set of data
+	 * @param yValues the buffer with the second set of data
+	 * @return the statistics of the pairs up to the remaining values of the smaller buffer
+	 */
+	public static BivariateStatSummary getSummary(final DoubleBuffer xValues, final DoubleBuffer yValues) {
+		BivariateStatSummary summary = new BivariateStatSummary();
+		int size = Math.min(xValues.remaining(), yValues.remaining());
+		for (int i = 0; i < size; i++) {
+			summary.accept(xValues.get(xValues.position() + i), yValues.get(yValues.position() + i));
+		}
+		return summary;
+	}
+
 	/**
 	 * Get the significance (standard errors) of a calculated correlation between two variables. E.g. if
 	 * the result would be 0.01, the significance has the value 0.99 or 99 %.
@@ -223,6 +547,23 @@ public class MathUtil {
 		values.replaceAll(aDouble -> (aDouble - min) / (max - min));
 	}
 
+	/**
+	 * Norm the values of an array to a range between 0 and 1 in place, see {@link #norm(List)}. The array
+	 * gets changed instead of creating boxed values.
+	 * 
+	 * @param values the values that get replaced by their normed values
+	 * @return the committed array
+	 */
+	public static double[] norm(final double[] values) {
+		double max = getMaximum(values);
+		double min = getMinimum(values, 1);
+		double range = max - min;
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (values[i] - min) / range;
+		}
+		return values;
+	}
+
 	/**
 	 * The winsorization: Get the extreme values of a data set and set them to the next less extreme
 	 * value depending on the wished percentile.
@@ -405,6 +746,63 @@ public class MathUtil {
 		return retVal;
 	}
 
+	/**
+	 * Calculate the logarithm of every value of an array in place, see {@link #logListValues(List)}. Negative
+	 * values, which are skipped by the List method, become NaN.
+	 * 
+	 * @param values the values that get replaced by their logarithm
+	 * @return the committed array
+	 */
+	public static double[] logValues(final double[] values) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.log(values[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * Calculate the square root of every value of an array in place, see {@link #rootListValues(List)}.
+	 * Negative values, which are skipped by the List method, become NaN.
+	 * 
+	 * @param values the values that get replaced by their square root
+	 * @return the committed array
+	 */
+	public static double[] rootValues(final double[] values) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.sqrt(values[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * Calculate the inverse of every value of an array in place, see {@link #inversListValues(List)}.
+	 * 
+	 * @param values the values that get replaced by their inverse
+	 * @return the committed array
+	 */
+	public static double[] inversValues(final double[] values) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 1 / values[i];
+		}
+		return values;
+	}
+
+	/**
+	 * Calculate the logit <code>log(sat / x - 1)</code> of every value of an array in place, see
+	 * {@link #logisticListValues(List, double)}. Values without a result, which are skipped by the List
+	 * method, become NaN.
+	 * 
+	 * @param values the values that get replaced by their logit
+	 * @param sat    the saturation of the logistic function
+	 * @return the committed array
+	 */
+	public static double[] logisticValues(final double[] values, final double sat) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.log(sat / values[i] - 1);
+		}
+		return values;
+	}
+
 	/**
 	 * Get the greater double value.
 	 * 
@@ -0,0 +1,414 @@
+package org.opentdk.api.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Sorted multiset of double values that keeps ranks, percentiles and winsorization bounds available while
+ * values get added or removed, e.g. for a rolling window over a stream of measurements. Adding, removing and
+ * every query cost O(log n), instead of sorting all values again like {@link MathUtil#getRankList(java.util.List)}
+ * or {@link MathUtil#getWinsorizedValue(java.util.List, byte, boolean, java.util.List, double)}.
+ * <p>
+ * The values are kept in a randomized balanced search tree (treap). Every node holds a distinct value, how
+ * often it occurs and the number of values in its subtree. The nodes are stored in primitive arrays, so adding
+ * a value allocates nothing unless the arrays have to grow. The values are ordered like
+ * {@link Double#compare(double, double)}, NaN is greater than all other values.
+ * <pre>
+ * OrderStatisticTree window = new OrderStatisticTree();
+ * window.add(value);
+ * if (window.size() &gt; 1000) {
+ *     window.remove(oldest);
+ * }
+ * double border = window.getUpperWinsorBound((byte) 90);
+ * </pre>
+ * An instance is not thread-safe.
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class OrderStatisticTree {
+
+	/**
+	 * Index of the missing node, the node arrays start at index 1.
+	 */
+	private static final int NIL = 0;
+
+	private double[] values = new double[16];
+	private int[] counts = new int[16];
+	private int[] sizes = new int[16];
+	private int[] priorities = new int[16];
+	private int[] left = new int[16];
+	private int[] right = new int[16];
+
+	/**
+	 * Number of used node slots including the removed ones, which are chained by {@link #freeList}.
+	 */
+	private int nodeCount;
+	private int freeList = NIL;
+	private int root = NIL;
+
+	private final SplittableRandom random = new SplittableRandom();
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value to add
+	 */
+	public void add(double value) {
+		root = insert(root, value);
+	}
+
+	/**
+	 * Adds all values of an array.
+	 *
+	 * @param values the values to add
+	 * @return this tree
+	 */
+	public OrderStatisticTree addAll(double[] values) {
+		for (double value : values) {
+			add(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes one occurrence of a value.
+	 *
+	 * @param value the value to remove
+	 * @return true if the value was found and removed
+	 */
+	public boolean remove(double value) {
+		int before = size();
+		root = delete(root, value);
+		return size() < before;
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	public void clear() {
+		root = NIL;
+		nodeCount = 0;
+		freeList = NIL;
+	}
+
+	/**
+	 * @return the number of values including duplicates
+	 */
+	public int size() {
+		return sizes[root];
+	}
+
+	/**
+	 * @param value the value to look up
+	 * @return how often the value has been added and not removed
+	 */
+	public int count(double value) {
+		int node = root;
+		while (node != NIL) {
+			int cmp = Double.compare(value, values[node]);
+			if (cmp == 0) {
+				return counts[node];
+			}
+			node = cmp < 0 ? left[node] : right[node];
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the rank of a value, which is the number of smaller values. Equal values get the same rank, like
+	 * in {@link MathUtil#getRankList(java.util.List)}.
+	 *
+	 * @param value the value to look up, it does not have to be part of the tree
+	 * @return the number of values that are smaller than the given value
+	 */
+	public int getRank(double value) {
+		int rank = 0;
+		int node = root;
+		while (node != NIL) {
+			int cmp = Double.compare(value, values[node]);
+			if (cmp <= 0) {
+				node = left[node];
+			} else {
+				rank += sizes[left[node]] + counts[node];
+				node = right[node];
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Gets the value at a position of the sorted values.
+	 *
+	 * @param index the position, 0 for the smallest value
+	 * @return the value at the position
+	 * @throws IndexOutOfBoundsException if the index is negative or not less than {@link #size()}
+	 */
+	public double select(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+		}
+		int node = root;
+		while (true) {
+			int leftSize = sizes[left[node]];
+			if (index < leftSize) {
+				node = left[node];
+			} else if (index < leftSize + counts[node]) {
+				return values[node];
+			} else {
+				index -= leftSize + counts[node];
+				node = right[node];
+			}
+		}
+	}
+
+	/**
+	 * @return the smallest value or NaN if the tree is empty
+	 */
+	public double getMin() {
+		return size() == 0 ? Double.NaN : select(0);
+	}
+
+	/**
+	 * @return the greatest value or NaN if the tree is empty
+	 */
+	public double getMax() {
+		return size() == 0 ? Double.NaN : select(size() - 1);
+	}
+
+	/**
+	 * Computes the same percentile as {@link MathUtil#getPercentile(double[], double)} for the current values,
+	 * provided that the tree contains no NaN values.
+	 *
+	 * @param p the percentile value to compute, a value greater than 0 and up to 100
+	 * @return the calculated percentile or NaN if the tree is empty
+	 * @throws IllegalArgumentException if p is not in the range of 0 (exclusive) to 100
+	 */
+	public double getPercentile(double p) {
+		if (!(p > 0 && p <= 100)) {
+			throw new IllegalArgumentException("Percentile must be greater than 0 and up to 100: " + p);
+		}
+		int size = size();
+		if (size == 0) {
+			return Double.NaN;
+		} else if (size == 1) {
+			return select(0);
+		}
+		double pos = p * (size + 1) / 100;
+		int intPos = (int) Math.floor(pos);
+		if (pos < 1) {
+			return select(0);
+		} else if (pos >= size) {
+			return select(size - 1);
+		}
+		double lower = select(intPos - 1);
+		double upper = select(intPos);
+		return lower + (pos - intPos) * (upper - lower);
+	}
+
+	/**
+	 * Gets the smallest value that is not extreme, with the extreme values defined like in
+	 * {@link MathUtil#getWinsorizedValue(java.util.List, byte, boolean, java.util.List, double)}.
+	 *
+	 * @param percentil defines the range of the values that are not extreme from 0 to 100 percent. For
+	 *                  example: If percentile = 90, the first 5 percent and the last 5 percent of the values
+	 *                  are extreme.
+	 * @return the lower border of the values, or NaN if the tree is empty
+	 * @throws IndexOutOfBoundsException if percentil is not between 0 and 100
+	 */
+	public double getLowerWinsorBound(byte percentil) {
+		checkPercentil(percentil);
+		int size = size();
+		if (size == 0) {
+			return Double.NaN;
+		}
+		int index = (int) Math.ceil(getLowPercentile(percentil) * size);
+		return select(Math.min(index, size - 1));
+	}
+
+	/**
+	 * Gets the greatest value that is not extreme, see {@link #getLowerWinsorBound(byte)}.
+	 *
+	 * @param percentil defines the range of the values that are not extreme from 0 to 100 percent
+	 * @return the upper border of the values, or NaN if the tree is empty
+	 * @throws IndexOutOfBoundsException if percentil is not between 0 and 100
+	 */
+	public double getUpperWinsorBound(byte percentil) {
+		checkPercentil(percentil);
+		int size = size();
+		if (size == 0) {
+			return Double.NaN;
+		}
+		int index = (int) Math.floor((1 - getLowPercentile(percentil)) * (size - 1));
+		return select(Math.max(index, 0));
+	}
+
+	/**
+	 * Limits a value to the borders of the values that are not extreme, see {@link #getLowerWinsorBound(byte)}
+	 * and {@link #getUpperWinsorBound(byte)}.
+	 *
+	 * @param value     the value to winsorize, it does not have to be part of the tree
+	 * @param percentil defines the range of the values that are not extreme from 0 to 100 percent
+	 * @return the value limited to the borders, or the value itself if the tree is empty
+	 * @throws IndexOutOfBoundsException if percentil is not between 0 and 100
+	 */
+	public double winsorize(double value, byte percentil) {
+		if (size() == 0) {
+			checkPercentil(percentil);
+			return value;
+		}
+		double lower = getLowerWinsorBound(percentil);
+		double upper = getUpperWinsorBound(percentil);
+		if (Double.compare(value, lower) < 0) {
+			return lower;
+		}
+		return Double.compare(value, upper) > 0 ? upper : value;
+	}
+
+	/**
+	 * @return all values in ascending order
+	 */
+	public double[] toArray() {
+		double[] ret = new double[size()];
+		fill(root, ret, 0);
+		return ret;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	private int fill(int node, double[] target, int position) {
+		if (node == NIL) {
+			return position;
+		}
+		position = fill(left[node], target, position);
+		Arrays.fill(target, position, position + counts[node], values[node]);
+		return fill(right[node], target, position + counts[node]);
+	}
+
+	/**
+	 * Same share as in {@link MathUtil#getWinsorizedValue(java.util.List, byte, boolean, java.util.List, double)},
+	 * including the integer division.
+	 */
+	private static double getLowPercentile(byte percentil) {
+		return ((100 - percentil) / 2) * 0.01F;
+	}
+
+	private static void checkPercentil(byte percentil) {
+		if (percentil < 0 || percentil > 100) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	private int insert(int node, double value) {
+		if (node == NIL) {
+			return newNode(value);
+		}
+		int cmp = Double.compare(value, values[node]);
+		if (cmp == 0) {
+			counts[node]++;
+		} else if (cmp < 0) {
+			// The arrays may grow during the insert, so they must not be referenced before
+			int child = insert(left[node], value);
+			left[node] = child;
+			if (priorities[child] > priorities[node]) {
+				node = rotateRight(node);
+			}
+		} else {
+			int child = insert(right[node], value);
+			right[node] = child;
+			if (priorities[child] > priorities[node]) {
+				node = rotateLeft(node);
+			}
+		}
+		update(node);
+		return node;
+	}
+
+	private int delete(int node, double value) {
+		if (node == NIL) {
+			return NIL;
+		}
+		int cmp = Double.compare(value, values[node]);
+		if (cmp < 0) {
+			left[node] = delete(left[node], value);
+		} else if (cmp > 0) {
+			right[node] = delete(right[node], value);
+		} else if (counts[node] > 1) {
+			counts[node]--;
+		} else if (left[node] == NIL || right[node] == NIL) {
+			int child = left[node] == NIL ? right[node] : left[node];
+			freeNode(node);
+			return child;
+		} else {
+			// Rotate the node down until it has at most one child
+			if (priorities[left[node]] > priorities[right[node]]) {
+				node = rotateRight(node);
+				right[node] = delete(right[node], value);
+			} else {
+				node = rotateLeft(node);
+				left[node] = delete(left[node], value);
+			}
+		}
+		update(node);
+		return node;
+	}
+
+	private int rotateRight(int node) {
+		int pivot = left[node];
+		left[node] = right[pivot];
+		right[pivot] = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	private int rotateLeft(int node) {
+		int pivot = right[node];
+		right[node] = left[pivot];
+		left[pivot] = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	private void update(int node) {
+		sizes[node] = sizes[left[node]] + counts[node] + sizes[right[node]];
+	}
+
+	private int newNode(double value) {
+		int node;
+		if (freeList != NIL) {
+			node = freeList;
+			freeList = left[node];
+		} else {
+			node = ++nodeCount;
+			if (node == values.length) {
+				int capacity = values.length * 2;
+				values = Arrays.copyOf(values, capacity);
+				counts = Arrays.copyOf(counts, capacity);
+				sizes = Arrays.copyOf(sizes, capacity);
+				priorities = Arrays.copyOf(priorities, capacity);
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+			}
+		}
+		values[node] = value;
+		counts[node] = 1;
+		sizes[node] = 1;
+		priorities[node] = random.nextInt();
+		left[node] = NIL;
+		right[node] = NIL;
+		return node;
+	}
+
+	/**
+	 * Adds a removed node to the free list, which is chained by the left child.
+	 */
+	private void freeNode(int node) {
+		left[node] = freeList;
+		right[node] = NIL;
+		freeList = node;
+	}
+}
@@ -0,0 +1,155 @@
+package org.opentdk.api.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of compiled regular expressions that is shared by the util and filter packages. Classes
+ * that evaluate the same expression for many values, like {@link LineParser} for every line of a file,
+ * get the compiled {@link Pattern} from this cache instead of compiling it on each call.
+ * <p>
+ * The cache is thread-safe. A {@link Pattern} is immutable and can be used by several threads, but the
+ * {@link java.util.regex.Matcher} created from it can not. When the cache is full, the least recently
+ * used pattern gets removed.
+ *
+ * @author LK Test Solutions
+ */
+public final class PatternCache {
+
+	/**
+	 * Default maximum number of patterns in the cache.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * Key of the cache, the same expression compiled with different flags results in different patterns.
+	 */
+	private record Key(String regex, int flags) {
+	}
+
+	/**
+	 * Maximum number of patterns in the cache.
+	 */
+	private static volatile int capacity = DEFAULT_CAPACITY;
+
+	/**
+	 * The compiled patterns in access order, the eldest entry is the least recently used one.
+	 */
+	private static final Map<Key, Pattern> cache = new LinkedHashMap<>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+			return size() > capacity;
+		}
+	};
+
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+
+	private PatternCache() {
+	}
+
+	/**
+	 * Gets the compiled pattern of a regular expression without flags.
+	 *
+	 * @param regex the regular expression
+	 * @return the compiled pattern, see {@link Pattern#compile(String)}
+	 * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+	 */
+	public static Pattern get(String regex) {
+		return get(regex, 0);
+	}
+
+	/**
+	 * Gets the compiled pattern of a regular expression. The expression gets compiled on the first call and
+	 * taken from the cache afterwards. Invalid expressions are not cached.
+	 *
+	 * @param regex the regular expression
+	 * @param flags the match flags, e.g. {@link Pattern#CASE_INSENSITIVE}
+	 * @return the compiled pattern, see {@link Pattern#compile(String, int)}
+	 * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+	 */
+	public static Pattern get(String regex, int flags) {
+		Key key = new Key(regex, flags);
+		Pattern pattern;
+		synchronized (cache) {
+			pattern = cache.get(key);
+		}
+		if (pattern != null) {
+			hits.increment();
+			return pattern;
+		}
+		misses.increment();
+		// Compile outside the lock, so a slow expression does not block other threads
+		pattern = Pattern.compile(regex, flags);
+		synchronized (cache) {
+			Pattern existing = cache.putIfAbsent(key, pattern);
+			return existing != null ? existing : pattern;
+		}
+	}
+
+	/**
+	 * @return the number of calls of {@link #get(String, int)} that found the pattern in the cache
+	 */
+	public static long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of calls of {@link #get(String, int)} that had to compile the pattern
+	 */
+	public static long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of patterns in the cache
+	 */
+	public static int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * @return the maximum number of patterns in the cache
+	 */
+	public static int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Changes the maximum number of patterns in the cache. If the cache contains more patterns, the least
+	 * recently used ones get removed.
+	 *
+	 * @param maxSize the maximum number of patterns, at least 1
+	 * @throws IllegalArgumentException if maxSize is less than 1
+	 */
+	public static void setCapacity(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The capacity of the pattern cache must be at least 1");
+		}
+		synchronized (cache) {
+			capacity = maxSize;
+			var it = cache.entrySet().iterator();
+			while (cache.size() > capacity && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all patterns from the cache and resets the hit and miss counters.
+	 */
+	public static void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+		hits.reset();
+		misses.reset();
+	}
+}
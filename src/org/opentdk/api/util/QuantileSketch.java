@@ -0,0 +1,334 @@
+package org.opentdk.api.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Streaming estimation of quantiles with a KLL sketch (Karnin, Lang, Liberty). The sketch keeps a bounded
+ * number of values, independent of the number of values that get added, so percentiles of hundreds of millions
+ * of samples can be estimated without storing them.
+ * <p>
+ * The values are kept in levels of compactors. A value in level h stands for 2^h values of the input. When a
+ * level is full, it gets sorted and every second value is promoted to the next level, starting at a random
+ * offset. The error of the rank of an estimated quantile is about 1.7 / k of the number of values, e.g. 0.85
+ * percent for the default k of {@value #DEFAULT_K}. Count, minimum and maximum are exact.
+ * <p>
+ * Sketches of parts of the data can be merged with {@link #merge(QuantileSketch)}, e.g. one sketch per thread
+ * or per file. An instance itself is not thread-safe. For exact percentiles of data that fits into memory, see
+ * {@link MathUtil#selectPercentile(double[], double)}.
+ * <pre>
+ * QuantileSketch sketch = new QuantileSketch();
+ * values.forEach(sketch);
+ * double p99 = sketch.getPercentile(99);
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class QuantileSketch implements DoubleConsumer {
+
+	/**
+	 * Default capacity of the highest level, which defines the accuracy of the sketch.
+	 */
+	public static final int DEFAULT_K = 200;
+
+	/**
+	 * Factor between the capacities of two neighbouring levels.
+	 */
+	private static final double CAPACITY_FACTOR = 2.0 / 3.0;
+
+	private final int k;
+	private final SplittableRandom random;
+
+	/**
+	 * The values of each level, only the first {@link #sizes} values are used.
+	 */
+	private double[][] levels = new double[0][];
+	private int[] sizes = new int[0];
+
+	/**
+	 * Number of values in all levels and the maximum number before a level gets compacted.
+	 */
+	private int size;
+	private int capacity;
+
+	private long count;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+
+	/**
+	 * Creates a sketch with the default accuracy {@value #DEFAULT_K}.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * Creates a sketch with the given accuracy.
+	 *
+	 * @param k the capacity of the highest level, at least 8. A greater value results in a smaller error, but
+	 *          the sketch keeps about 3 * k values.
+	 * @throws IllegalArgumentException if k is less than 8
+	 */
+	public QuantileSketch(int k) {
+		this(k, new SplittableRandom());
+	}
+
+	/**
+	 * Creates a sketch with the given accuracy and a seed for the random offsets of the compactions, which
+	 * makes the estimation reproducible.
+	 *
+	 * @param k    the capacity of the highest level, at least 8
+	 * @param seed the seed of the random offsets
+	 * @throws IllegalArgumentException if k is less than 8
+	 */
+	public QuantileSketch(int k, long seed) {
+		this(k, new SplittableRandom(seed));
+	}
+
+	private QuantileSketch(int k, SplittableRandom random) {
+		if (k < 8) {
+			throw new IllegalArgumentException("The accuracy k of the sketch must be at least 8");
+		}
+		this.k = k;
+		this.random = random;
+		addLevel();
+	}
+
+	/**
+	 * Adds a value to the sketch. NaN values are ignored, like by {@link MathUtil#getPercentile(double[], double)}.
+	 *
+	 * @param value the next value of the sequence
+	 */
+	@Override
+	public void accept(double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		if (count == 0 || value < min) {
+			min = value;
+		}
+		if (count == 0 || value > max) {
+			max = value;
+		}
+		count++;
+		add(0, value);
+		if (size >= capacity) {
+			compress();
+		}
+	}
+
+	/**
+	 * Adds all values of an array to the sketch.
+	 *
+	 * @param values the values to add
+	 * @return this sketch
+	 */
+	public QuantileSketch acceptAll(double[] values) {
+		for (double value : values) {
+			accept(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Merges the values of another sketch into this sketch. The result has the same accuracy as a sketch of
+	 * all values.
+	 *
+	 * @param other the sketch of another part of the data, which does not get changed
+	 * @return this sketch
+	 */
+	public QuantileSketch merge(QuantileSketch other) {
+		if (other.count == 0) {
+			return this;
+		}
+		min = count == 0 ? other.min : Math.min(min, other.min);
+		max = count == 0 ? other.max : Math.max(max, other.max);
+		count += other.count;
+		for (int h = 0; h < other.levels.length; h++) {
+			while (levels.length <= h) {
+				addLevel();
+			}
+			for (int i = 0; i < other.sizes[h]; i++) {
+				add(h, other.levels[h][i]);
+			}
+		}
+		while (size >= capacity) {
+			compress();
+		}
+		return this;
+	}
+
+	/**
+	 * @return the number of values that were added, without NaN values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the smallest value or NaN if the sketch is empty
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the greatest value or NaN if the sketch is empty
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Estimates a quantile of the values.
+	 *
+	 * @param q the quantile to compute, a value between 0 and 1
+	 * @return the smallest kept value whose estimated rank is at least q of the values, or NaN if the
+	 *         sketch is empty
+	 * @throws IllegalArgumentException if q is not between 0 and 1
+	 */
+	public double getQuantile(double q) {
+		if (!(q >= 0 && q <= 1)) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+		}
+		if (count == 0) {
+			return Double.NaN;
+		} else if (q == 0) {
+			return min;
+		} else if (q == 1) {
+			return max;
+		}
+		long target = (long) Math.ceil(q * getWeight());
+		int[] positions = new int[levels.length];
+		for (int h = 0; h < levels.length; h++) {
+			Arrays.sort(levels[h], 0, sizes[h]);
+		}
+		// Merge the sorted levels until the accumulated weight reaches the target
+		long weight = 0;
+		while (true) {
+			int next = -1;
+			for (int h = 0; h < levels.length; h++) {
+				if (positions[h] < sizes[h] && (next < 0 || levels[h][positions[h]] < levels[next][positions[next]])) {
+					next = h;
+				}
+			}
+			if (next < 0) {
+				return max;
+			}
+			weight += 1L << next;
+			if (weight >= target) {
+				return levels[next][positions[next]];
+			}
+			positions[next]++;
+		}
+	}
+
+	/**
+	 * Estimates a percentile of the values, see {@link #getQuantile(double)}.
+	 *
+	 * @param p the percentile to compute, a value between 0 and 100
+	 * @return the estimated percentile or NaN if the sketch is empty
+	 * @throws IllegalArgumentException if p is not between 0 and 100
+	 */
+	public double getPercentile(double p) {
+		return getQuantile(p / 100);
+	}
+
+	/**
+	 * Estimates the rank of a value, e.g. the share of requests that were faster than a threshold.
+	 *
+	 * @param value the value to look up
+	 * @return the estimated share of the values that are less than or equal to the value, between 0 and 1, or
+	 *         NaN if the sketch is empty
+	 */
+	public double getRank(double value) {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		long weight = 0;
+		for (int h = 0; h < levels.length; h++) {
+			for (int i = 0; i < sizes[h]; i++) {
+				if (levels[h][i] <= value) {
+					weight += 1L << h;
+				}
+			}
+		}
+		return (double) weight / getWeight();
+	}
+
+	/**
+	 * @return the number of values that are kept by the sketch
+	 */
+	public int getRetained() {
+		return size;
+	}
+
+	/**
+	 * @return the sum of the weights of the kept values, which equals the count
+	 */
+	private long getWeight() {
+		long weight = 0;
+		for (int h = 0; h < levels.length; h++) {
+			weight += (long) sizes[h] << h;
+		}
+		return weight;
+	}
+
+	private void add(int level, double value) {
+		if (sizes[level] == levels[level].length) {
+			levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+		}
+		levels[level][sizes[level]++] = value;
+		size++;
+	}
+
+	/**
+	 * Compacts the lowest level that reached its capacity. Every second value of the sorted level is promoted
+	 * with the double weight to the next level, an odd value remains in the level.
+	 */
+	private void compress() {
+		for (int h = 0; h < levels.length; h++) {
+			if (sizes[h] < getCapacity(h)) {
+				continue;
+			}
+			if (h == levels.length - 1) {
+				addLevel();
+			}
+			double[] level = levels[h];
+			int pairs = sizes[h] / 2;
+			Arrays.sort(level, 0, sizes[h]);
+			int offset = random.nextBoolean() ? 1 : 0;
+			for (int i = 0; i < pairs; i++) {
+				add(h + 1, level[2 * i + offset]);
+			}
+			// The greatest value remains if the number of values is odd
+			int remaining = sizes[h] - 2 * pairs;
+			if (remaining > 0) {
+				level[0] = level[sizes[h] - 1];
+			}
+			size -= 2 * pairs;
+			sizes[h] = remaining;
+			return;
+		}
+	}
+
+	private void addLevel() {
+		int height = levels.length + 1;
+		levels = Arrays.copyOf(levels, height);
+		sizes = Arrays.copyOf(sizes, height);
+		levels[height - 1] = new double[Math.max(8, k)];
+		capacity = 0;
+		for (int h = 0; h < height; h++) {
+			capacity += getCapacity(h);
+		}
+	}
+
+	/**
+	 * @return the capacity of a level, which shrinks geometrically from the highest level to the lowest
+	 */
+	private int getCapacity(int level) {
+		int depth = levels.length - 1 - level;
+		return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_FACTOR, depth)));
+	}
+}
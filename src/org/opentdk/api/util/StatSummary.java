@@ -0,0 +1,167 @@
+package org.opentdk.api.util;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Statistics of a sequence of numbers that get calculated in a single pass: count, sum, minimum, maximum,
+ * mean and variance. Mean and variance are updated with the algorithm of Welford, which is numerically stable
+ * even for large values with a small deviation. Adding a value allocates nothing, so the statistics of a column
+ * with millions of values can be calculated without boxing.
+ * <p>
+ * Summaries of parts of the data can be merged with {@link #combine(StatSummary)}, e.g. when the parts get
+ * summarized by different threads. An instance itself is not thread-safe.
+ * <pre>
+ * StatSummary summary = MathUtil.getSummary(values);
+ * double sd = summary.getStandardDeviation(true);
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class StatSummary implements DoubleConsumer {
+
+	private long count;
+	private double sum;
+	private double mean;
+
+	/**
+	 * Sum of the squared differences to the mean.
+	 */
+	private double m2;
+
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Adds a value to the statistics. NaN values make the mean and the variance NaN.
+	 *
+	 * @param value the next value of the sequence
+	 */
+	@Override
+	public void accept(double value) {
+		count++;
+		sum += value;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds all values of an array to the statistics.
+	 *
+	 * @param values the values to add
+	 * @return this summary
+	 */
+	public StatSummary acceptAll(double[] values) {
+		for (double value : values) {
+			accept(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Merges the statistics of another part of the data into this summary, see the parallel algorithm of
+	 * Chan et al.
+	 *
+	 * @param other the summary of the other part, which does not get changed
+	 * @return this summary
+	 */
+	public StatSummary combine(StatSummary other) {
+		if (other.count == 0) {
+			return this;
+		}
+		if (count == 0) {
+			count = other.count;
+			sum = other.sum;
+			mean = other.mean;
+			m2 = other.m2;
+			min = other.min;
+			max = other.max;
+			return this;
+		}
+		long total = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		m2 += other.m2 + delta * delta * count * other.count / total;
+		count = total;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		return this;
+	}
+
+	/**
+	 * @return the number of values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the sum of the values
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return the arithmetic mean of the values or NaN if there are no values
+	 */
+	public double getMean() {
+		return count == 0 ? Double.NaN : mean;
+	}
+
+	/**
+	 * @return the smallest value or NaN if there are no values
+	 */
+	public double getMin() {
+		return count == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * @return the greatest value or NaN if there are no values
+	 */
+	public double getMax() {
+		return count == 0 ? Double.NaN : max;
+	}
+
+	/**
+	 * Gets the bias corrected sample variance or the non bias corrected population variance, like
+	 * {@link org.apache.commons.math3.stat.descriptive.moment.Variance}.
+	 *
+	 * @param biasCorrected true: Bias corrected. False: Non bias corrected.
+	 * @return the variance, 0 for a single value or NaN if there are no values
+	 */
+	public double getVariance(boolean biasCorrected) {
+		if (count == 0) {
+			return Double.NaN;
+		} else if (count == 1) {
+			return 0;
+		}
+		return m2 / (biasCorrected ? count - 1 : count);
+	}
+
+	/**
+	 * Gets the bias corrected sample standard deviation or the non bias corrected population standard
+	 * deviation, see {@link MathUtil#getStandardDeviation(double[], boolean)}.
+	 *
+	 * @param biasCorrected true: Bias corrected. False: Non bias corrected.
+	 * @return the standard deviation, 0 for a single value or NaN if there are no values
+	 */
+	public double getStandardDeviation(boolean biasCorrected) {
+		return Math.sqrt(getVariance(biasCorrected));
+	}
+
+	/**
+	 * @return the sum of the squared differences to the mean, the second central moment multiplied with the count
+	 */
+	double getSecondMoment() {
+		return m2;
+	}
+
+	@Override
+	public String toString() {
+		return "StatSummary[count=" + count + ", mean=" + getMean() + ", sd=" + getStandardDeviation(true) + ", min=" + getMin() + ", max=" + getMax() + "]";
+	}
+}
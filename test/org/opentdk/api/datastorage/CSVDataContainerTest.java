@@ -1,17 +1,28 @@
 package org.opentdk.api.datastorage;
 
+import org.opentdk.api.exception.DataContainerException;
 import org.opentdk.api.filter.EOperator;
 import org.opentdk.api.filter.Filter;
+import org.opentdk.api.filter.FilterRule;
+import org.opentdk.api.util.CSVUtil;
+import org.opentdk.api.util.MappedCSVReader;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class CSVDataContainerTest {
     private static final String content = "ID,Name,Alter,Land\n" + "1,Emma,42,Deutschland\n" + "2,Chris,29,Schweiz\n" + "3,Hannah,35,Österreich\n" + "4,Ben,19,Frankreich\n" + "5,Greta,51,Spanien\n" + "6,Felix,27,Italien\n" + "7,Julia,null,Deutschland\n" + "8,David,41,Österreich\n" + "9,'Ivan',60,Schweiz\n" + "10,Anna,31,Frankreich\n";
@@ -148,9 +159,299 @@ public class CSVDataContainerTest {
         filter.addFilterRule("Name", "Ben", EOperator.EQUALS);
         List<String[]> actual = dc.tabInstance().getRows(filter);
         Assert.assertEquals(actual.isEmpty(), true);
+
+        // Rows that are not adjacent are deleted the same way in both storage modes
+        for (CSVDataContainer.EStorageMode mode : CSVDataContainer.EStorageMode.values()) {
+            CSVDataContainer csv = prepareFile().tabInstance();
+            csv.setStorageMode(mode);
+            filter.clear();
+            filter.addFilterRule("Land", new String[] {"Schweiz", "Frankreich"}, EOperator.IN);
+            csv.deleteRows(filter);
+            Assert.assertEquals(csv.getColumn("Name"), List.of("Emma", "Hannah", "Greta", "Felix", "Julia", "David"), mode.name());
+        }
         System.out.println("Success: Row for 'Ben' is deleted");
     }
 
+    @Test
+    public void streamRows() throws IOException {
+        DataContainer dc = prepareFile();
+        Filter filter = new Filter();
+        filter.addFilterRule("Land", "Schweiz", EOperator.EQUALS);
+        List<String> actual = new ArrayList<>();
+        dc.forEachRow(Paths.get("tmp/CSVDataContainerTest.csv"), filter, row -> actual.add(row[1]));
+        List<String> expected = List.of("Chris", "'Ivan'");
+        Assert.assertEquals(actual, expected);
+        Assert.assertTrue(dc.tabInstance().getRows().isEmpty());
+        Assert.assertEquals(dc.tabInstance().getHeaderMap().get("Land"), 3);
+        System.out.println("Success: Streamed rows are " + actual);
+    }
+
+    @Test
+    public void readMapped() throws IOException {
+        DataContainer dc = prepareFile();
+        dc.tabInstance().setReadMode(CSVDataContainer.EReadMode.MAPPED);
+        dc.readData(Paths.get("tmp/CSVDataContainerTest.csv"));
+        List<String> actual = dc.tabInstance().getColumn("Name");
+        List<String> expected = prepareFile().tabInstance().getColumn("Name");
+        Assert.assertEquals(actual, expected);
+
+        Filter filter = new Filter();
+        filter.addFilterRule("Alter", "50", EOperator.GREATER_THAN);
+        try (Stream<String[]> rows = dc.streamRows(Paths.get("tmp/CSVDataContainerTest.csv"), filter)) {
+            actual = rows.map(row -> row[1]).toList();
+        }
+        expected = List.of("Greta", "'Ivan'");
+        Assert.assertEquals(actual, expected);
+
+        // A regular expression meta character as delimiter gets the same rows as the split based read
+        Path file = Paths.get("tmp/CSVDataContainerPipe.csv");
+        Files.writeString(file, "a|b\nx0|y\n");
+        CSVDataContainer mapped = CSVDataContainer.newInstance();
+        mapped.setDelimiter("|");
+        mapped.setReadMode(CSVDataContainer.EReadMode.MAPPED);
+        mapped.readData(file);
+        CSVDataContainer split = CSVDataContainer.newInstance();
+        split.setDelimiter("|");
+        split.readData(file);
+        Assert.assertEquals(mapped.getRow(0), split.getRow(0));
+        Assert.assertEquals(mapped.getRow(0), "x0|y".split("|"));
+        Assert.assertFalse(MappedCSVReader.supports("|", StandardCharsets.UTF_8));
+
+        // The line break of EBCDIC is a single byte, but not the ASCII line feed
+        Charset ebcdic = Charset.forName("IBM037");
+        Assert.assertFalse(MappedCSVReader.supports(";", ebcdic));
+        Assert.assertTrue(MappedCSVReader.supports(";", StandardCharsets.ISO_8859_1));
+        Files.writeString(file, "a;b\r\nx;y\nz;w\n", ebcdic);
+        Assert.assertEquals(CSVUtil.readFile(file.toFile(), ";", ebcdic).size(), 3);
+        Files.deleteIfExists(file);
+        System.out.println("Success: Mapped rows are " + actual);
+    }
+
+    @Test
+    public void readParallel() throws IOException {
+        Path tempFile = Files.createTempFile("CSVDataContainerTest", ".csv");
+        try {
+            StringBuilder largeContent = new StringBuilder(content);
+            for (int i = 11; i <= 20000; i++) {
+                largeContent.append(i).append(",Name").append(i).append(",").append(i % 90).append(",Land").append(i % 7).append("\n");
+            }
+            Files.writeString(tempFile, largeContent);
+            // A meta character like | splits every character, the parallel read must do the same
+            for (String delimiter : List.of(",", ",|;", "|")) {
+                CSVDataContainer expected = CSVDataContainer.newInstance();
+                expected.setDelimiter(delimiter);
+                expected.readData(tempFile);
+                CSVDataContainer actual = CSVDataContainer.newInstance();
+                actual.setDelimiter(delimiter);
+                actual.readData(tempFile, 4);
+                Assert.assertEquals(actual.getHeaders(), expected.getHeaders());
+                Assert.assertEquals(actual.getRows().size(), 20000);
+                for (int i = 0; i < expected.getRows().size(); i++) {
+                    Assert.assertEquals(actual.getRow(i), expected.getRow(i));
+                }
+            }
+
+            // The line break of UTF-16 is no single byte, the file is read sequentially
+            Files.writeString(tempFile, largeContent, StandardCharsets.UTF_16LE);
+            List<String[]> utf16 = CSVUtil.readFile(tempFile.toFile(), ",", StandardCharsets.UTF_16LE, 4);
+            List<String[]> sequential = CSVUtil.readFile(tempFile.toFile(), ",", StandardCharsets.UTF_16LE);
+            Assert.assertEquals(utf16.size(), 20001);
+            for (int i = 0; i < sequential.size(); i++) {
+                Assert.assertEquals(utf16.get(i), sequential.get(i));
+            }
+            System.out.println("Success: Parallel read returns the rows in the original order");
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Test
+    public void columnStorage() throws IOException {
+        DataContainer dc = prepareFile();
+        dc.tabInstance().setStorageMode(CSVDataContainer.EStorageMode.COLUMNS);
+        Assert.assertEquals(dc.tabInstance().getColumn("Alter"), prepareFile().tabInstance().getColumn("Alter"));
+        Assert.assertEquals(dc.tabInstance().getRow(2), new String[] {"3", "Hannah", "35", "Österreich"});
+
+        dc.tabInstance().addColumn("Geschlecht");
+        dc.tabInstance().addRow(List.of("11", "Fabian", "29"));
+        dc.tabInstance().setValue("Name", "emma", "Emilia");
+        Filter filter = new Filter();
+        filter.addFilterRule("Land", "Schweiz", EOperator.EQUALS);
+        dc.tabInstance().deleteRows(filter);
+        writeFile(dc);
+
+        CSVDataContainer rows = CSVDataContainer.newInstance();
+        rows.setDelimiter(",");
+        rows.setStorageMode(CSVDataContainer.EStorageMode.COLUMNS);
+        rows.readData(Paths.get("tmp/CSVDataContainerTest.csv"));
+        List<String> actual = rows.getColumn("Name");
+        List<String> expected = List.of("Emilia", "Hannah", "Ben", "Greta", "Felix", "Julia", "David", "Anna", "Fabian");
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(rows.getValue(8, "Geschlecht"), "");
+        rows.setStorageMode(CSVDataContainer.EStorageMode.ROWS);
+        Assert.assertEquals(rows.getRow(0), new String[] {"1", "Emilia", "42", "Deutschland", ""});
+        System.out.println("Success: Column storage names are " + actual);
+    }
+
+    @Test
+    public void dictionaryEncoding() throws IOException {
+        DataContainer dc = prepareFile();
+        CSVDataContainer csv = dc.tabInstance();
+        csv.setStorageMode(CSVDataContainer.EStorageMode.COLUMNS);
+        csv.setDictionaryEncoding("Land", true);
+        Assert.assertTrue(csv.isDictionaryEncoded("Land"));
+
+        Filter filter = new Filter();
+        filter.addFilterRule("Land", new String[] {"Schweiz", "Spanien"}, EOperator.IN);
+        List<String> actual = csv.getColumn("Name", filter);
+        List<String> expected = List.of("Chris", "Greta", "'Ivan'");
+        Assert.assertEquals(actual, expected);
+
+        csv.addRow(new String[] {"11", "Fabian", "29", "Schweiz"});
+        csv.setValue("Land", "Spanien", "Schweiz");
+        filter.clear();
+        filter.addFilterRule("Land", "Schweiz", EOperator.EQUALS);
+        actual = csv.getColumn("Name", filter);
+        expected = List.of("Chris", "Greta", "'Ivan'", "Fabian");
+        Assert.assertEquals(actual, expected);
+
+        csv.readData(Paths.get("tmp/CSVDataContainerTest.csv"));
+        Assert.assertTrue(csv.isDictionaryEncoded("Land"));
+        Assert.assertEquals(csv.getColumn("Land"), prepareFile().tabInstance().getColumn("Land"));
+        System.out.println("Success: Names with encoded country are " + actual);
+    }
+
+    @Test
+    public void createIndex() throws IOException {
+        CSVDataContainer csv = prepareFile().tabInstance();
+        csv.createIndex("Land", CSVDataContainer.EIndexType.HASH);
+        csv.createIndex("Alter", CSVDataContainer.EIndexType.SORTED);
+
+        Filter filter = new Filter();
+        filter.addFilterRule("Land", new String[] {"Schweiz", "Spanien"}, EOperator.IN);
+        filter.addFilterRule("Alter", "50", EOperator.GREATER_THAN);
+        List<String> actual = csv.getColumn("Name", filter);
+        Assert.assertEquals(actual, List.of("Greta", "'Ivan'"));
+
+        filter.clear();
+        filter.addFilterRule("Alter", "30", EOperator.LESS_OR_EQUAL_THAN);
+        Assert.assertEquals(csv.getColumn("Name", filter), List.of("Chris", "Ben", "Felix"));
+
+        csv.addRow(new String[] {"11", "Fabian", "29", "Bayern"});
+        csv.setValue("Alter", "27", "45");
+        csv.deleteRow(0);
+        Assert.assertEquals(csv.getColumn("Name", filter), List.of("Chris", "Ben", "Fabian"));
+
+        filter.clear();
+        filter.addFilterRule("Land", "bayern", EOperator.EQUALS_IGNORE_CASE);
+        Assert.assertEquals(csv.getRow(filter), new String[] {"11", "Fabian", "29", "Bayern"});
+        System.out.println("Success: Indexed rows are " + actual);
+    }
+
+    @Test
+    public void indexAfterReload() throws IOException {
+        Path file = Paths.get("tmp/CSVDataContainerIndex.csv");
+        CSVDataContainer csv = CSVDataContainer.newInstance();
+        csv.setDelimiter(";");
+        Files.writeString(file, "Name;City\nAnna;Berlin\nBen;Wien\n");
+        csv.readData(file);
+        csv.createIndex("Name", CSVDataContainer.EIndexType.HASH);
+        csv.createIndex("City", CSVDataContainer.EIndexType.HASH);
+
+        // The indexed columns are looked up again by header after reading data with another column order
+        Files.writeString(file, "City;Name\nBerlin;Anna\nWien;Ben\n");
+        csv.readData(file);
+        Filter filter = new Filter();
+        filter.addFilterRule("Name", "Anna", EOperator.EQUALS);
+        Assert.assertEquals(csv.getRows(filter).size(), 1);
+        csv.setValue("Name", "Ben", "Bert");
+        filter.clear();
+        filter.addFilterRule("Name", "Bert", EOperator.EQUALS);
+        Assert.assertEquals(csv.getRow(filter), new String[] {"Wien", "Bert"});
+
+        // The index of a column that does not exist anymore gets dropped
+        Files.writeString(file, "Name;Land\nAnna;Deutschland\n");
+        csv.readData(file, 2);
+        Assert.assertFalse(csv.hasIndex("City"));
+        Assert.assertTrue(csv.hasIndex("Name"));
+        filter.clear();
+        filter.addFilterRule("Name", "Anna", EOperator.EQUALS);
+        Assert.assertEquals(csv.getRow(filter), new String[] {"Anna", "Deutschland"});
+        Files.deleteIfExists(file);
+        System.out.println("Success: Index follows the column after reading new data");
+    }
+
+    @Test
+    public void numericFilter() throws IOException {
+        CSVDataContainer csv = prepareFile().tabInstance();
+        csv.addRow(new String[] {"11", "Fabian", "40.75", "Bayern"});
+        csv.addRow(new String[] {"12", "Gerd", "unbekannt", "Bayern"});
+
+        Filter filter = new Filter();
+        filter.addFilterRule("Alter", "40.5", EOperator.GREATER_THAN);
+        List<String> actual = csv.getColumn("Name", filter);
+        Assert.assertEquals(actual, List.of("Emma", "Greta", "David", "'Ivan'", "Fabian"));
+
+        csv.setStorageMode(CSVDataContainer.EStorageMode.COLUMNS);
+        filter.clear();
+        filter.addFilterRule("Alter", "41", EOperator.LESS_OR_EQUAL_THAN, FilterRule.ERuleFormat.DOUBLE);
+        Assert.assertEquals(csv.getColumn("Name", filter), List.of("Chris", "Hannah", "Ben", "Felix", "David", "Anna", "Fabian"));
+        csv.setValue("Alter", "40.75", "41.5");
+        Assert.assertEquals(csv.getColumn("Name", filter), List.of("Chris", "Hannah", "Ben", "Felix", "David", "Anna"));
+
+        filter.clear();
+        filter.addFilterRule("ID", "9000000000000000000", EOperator.LESS_THAN, FilterRule.ERuleFormat.LONG);
+        Assert.assertEquals(csv.getRows(filter).size(), 12);
+
+        // The interpreted check of a rule compares like the compiled one
+        for (FilterRule.ERuleFormat format : List.of(FilterRule.ERuleFormat.STRING, FilterRule.ERuleFormat.LONG, FilterRule.ERuleFormat.DOUBLE)) {
+            filter.clear();
+            filter.addFilterRule("Alter", "41", EOperator.GREATER_OR_EQUAL_THAN, format);
+            FilterRule rule = filter.getFilterRules().getFirst();
+            for (String value : List.of("41", " 40 ", "41.5", "-3", "1e3", "unbekannt")) {
+                Assert.assertEquals(rule.checkValue(value), rule.compile().test(value), format + " " + value);
+            }
+        }
+        System.out.println("Success: Numeric filter rows are " + actual);
+    }
+
+    @Test
+    public void aggregate() throws IOException {
+        CSVDataContainer csv = prepareFile().tabInstance();
+        Map<List<String>, GroupAggregate> result = csv.aggregate("Alter", "Land");
+        Assert.assertEquals(result.size(), 6);
+        GroupAggregate germany = result.get(List.of("Deutschland"));
+        Assert.assertEquals(germany.getRowCount(), 2);
+        Assert.assertEquals(germany.getCount(), 1);
+        Assert.assertEquals(germany.getMean(), 42.0);
+        Assert.assertEquals(result.get(List.of("Schweiz")).getMax(), 60.0);
+
+        // Enough rows for several parallel tasks, the results must not depend on the storage mode
+        for (int i = 0; i < 100000; i++) {
+            csv.addRow(new String[] {String.valueOf(i + 11), "Name" + (i % 7), String.valueOf(i % 100), i % 2 == 0 ? "Schweiz" : "Spanien"});
+        }
+        Filter filter = new Filter();
+        filter.addFilterRule("Land", new String[] {"Schweiz", "Spanien"}, EOperator.IN);
+        Set<CSVDataContainer.EAggregation> aggregations = EnumSet.allOf(CSVDataContainer.EAggregation.class);
+        for (CSVDataContainer.EStorageMode mode : CSVDataContainer.EStorageMode.values()) {
+            csv.setStorageMode(mode);
+            result = csv.aggregate("Alter", filter, aggregations, "Land", "Name");
+            Assert.assertEquals(result.size(), 2 * 7 + 3);
+            GroupAggregate group = result.get(List.of("Spanien", "Name1"));
+            Assert.assertEquals(group.getRowCount(), 50000 / 7 + 1);
+            Assert.assertEquals(group.getDistinctCount(), 50);
+            Assert.assertEquals(group.getMin(), 1.0);
+            Assert.assertEquals(group.getMax(), 99.0);
+            Assert.assertEquals(group.getPercentile(50), 50.0, 3.0);
+            Assert.assertEquals(result.get(List.of("Schweiz", "Chris")).getSum(), 29.0);
+            GroupAggregate all = csv.aggregate("Alter", filter, aggregations).get(List.of());
+            Assert.assertEquals(all.getCount(), 100003);
+            Assert.assertEquals(all.getSum(), 100 * 49.5 * 1000 + 29 + 51 + 60, 1e-6);
+        }
+        Assert.assertThrows(DataContainerException.class, () -> csv.aggregate("Alter", "Unbekannt"));
+        System.out.println("Success: Aggregated groups are " + result.keySet().size());
+    }
+
     private DataContainer prepareFile() throws IOException {
         String filePath = "tmp/CSVDataContainerTest.csv";
         Path tempFile = Paths.get(filePath);
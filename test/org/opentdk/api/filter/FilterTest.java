@@ -0,0 +1,114 @@
+package org.opentdk.api.filter;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public class FilterTest {
+
+    private static final EOperator[] STRING_OPERATORS = {EOperator.EQUALS, EOperator.EQUALS_IGNORE_CASE, EOperator.NOT_EQUALS,
+            EOperator.NOT_EQUALS_IGNORE_CASE, EOperator.CONTAINS, EOperator.CONTAINS_IGNORE_CASE, EOperator.STARTS_WITH,
+            EOperator.STARTS_WITH_IGNORE_CASE, EOperator.ENDS_WITH, EOperator.ENDS_WITH_IGNORE_CASE, EOperator.IN};
+
+    private static final String[] FILTER_VALUES = {"Anna", " Anna ", "anna", "ANNA", "Ärger", "ärger", "İstanbul", "ılık",
+            "straße", "STRASSE", "null", "", "An"};
+
+    private static final String[] VALUES = {"Anna", " Anna ", "\tanna\n", "ANNA", "Annabell", "Hanna", "Ärger", "ÄRGER",
+            " ärger", "istanbul", "İSTANBUL", "ILIK", "ılık", "Straße", "STRASSE", "null", " null ", "", "   ", "An", null};
+
+    private static void assertSameResult(FilterRule rule, String[] values) {
+        Predicate<String> check = rule.compile();
+        for (String v : values) {
+            Assert.assertEquals(check.test(v), rule.checkValue(v),
+                    "Rule " + rule.getFilterOperator() + " " + String.join("|", rule.getValues()) + " for value '" + v + "'");
+        }
+    }
+
+    @Test
+    public void compiledRule() {
+        for (EOperator operator : STRING_OPERATORS) {
+            for (String filterValue : FILTER_VALUES) {
+                assertSameResult(new FilterRule("Name", filterValue, operator), VALUES);
+            }
+        }
+        System.out.println("Success: Compiled string rules match checkValue");
+    }
+
+    @Test
+    public void compiledRuleTurkishLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            for (EOperator operator : STRING_OPERATORS) {
+                for (String filterValue : FILTER_VALUES) {
+                    assertSameResult(new FilterRule("Name", filterValue, operator), VALUES);
+                }
+            }
+            assertSameResult(new FilterRule("City", "istanbul", EOperator.EQUALS_IGNORE_CASE), new String[] {"ISTANBUL", "İSTANBUL", "Istanbul"});
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        System.out.println("Success: Compiled string rules match checkValue with Turkish locale");
+    }
+
+    @Test
+    public void compiledMultiValueRule() {
+        String[][] filterValues = {{"Anna", "Hanna"}, {" Anna", "ärger "}, {"null", "Anna"}, {"null", "null"}, {"", "An"}};
+        for (EOperator operator : STRING_OPERATORS) {
+            for (String[] values : filterValues) {
+                assertSameResult(new FilterRule("Name", values, operator), VALUES);
+                assertSameResult(new FilterRule("Name", values, operator, EOperator.OR, FilterRule.ERuleFormat.STRING), VALUES);
+            }
+        }
+        System.out.println("Success: Compiled multi value rules match checkValue");
+    }
+
+    @Test
+    public void compiledRegexRule() {
+        String[] regexValues = {"A.*a", "^An", "n{2}", "[äÄ]rger", "(?i)anna", "null"};
+        for (EOperator operator : new EOperator[] {EOperator.EQUALS, EOperator.NOT_EQUALS}) {
+            for (String regex : regexValues) {
+                assertSameResult(new FilterRule("Name", regex, operator, FilterRule.ERuleFormat.REGEX), VALUES);
+            }
+            assertSameResult(new FilterRule("Name", new String[] {"A.*a", "H.*"}, operator, FilterRule.ERuleFormat.REGEX), VALUES);
+        }
+        System.out.println("Success: Compiled regex rules match checkValue");
+    }
+
+    @Test
+    public void compiledFilter() {
+        Map<String, Integer> headerMap = Map.of("Name", 0, "Land", 1);
+        String[] anna = {"Anna", "Schweiz"};
+        String[] emma = {"Emma", "Deutschland"};
+
+        Filter filter = new Filter();
+        filter.addFilterRule("Name", "Anna", EOperator.EQUALS);
+        filter.addFilterRule("Land", "Schweiz", EOperator.EQUALS);
+        CompiledFilter check = filter.compile(headerMap);
+        Assert.assertTrue(check.test(anna));
+        Assert.assertFalse(check.test(emma));
+        Assert.assertTrue(check.test(i -> anna[i]));
+
+        // A wild card accepts any data set, so the following rules are ignored, even with unknown headers
+        Filter wildcard = new Filter();
+        wildcard.addFilterRule("Name", "*", EOperator.EQUALS);
+        wildcard.addFilterRule("Unknown", "Anna", EOperator.EQUALS);
+        Assert.assertTrue(wildcard.compile(headerMap).test(emma));
+        Filter percent = new Filter();
+        percent.addFilterRule("Land", "Schweiz", EOperator.EQUALS);
+        percent.addFilterRule("Name", "%", EOperator.EQUALS);
+        Assert.assertTrue(percent.compile(headerMap).test(anna));
+        Assert.assertFalse(percent.compile(headerMap).test(emma));
+
+        Filter unknown = new Filter();
+        unknown.addFilterRule("Name", "Anna", EOperator.EQUALS);
+        unknown.addFilterRule("Unknown", "Anna", EOperator.EQUALS);
+        Assert.assertThrows(IllegalArgumentException.class, () -> unknown.compile(headerMap));
+
+        Assert.assertTrue(new Filter().compile(headerMap).test(emma));
+        System.out.println("Success: Filter compiles wild cards and rejects unknown headers");
+    }
+}
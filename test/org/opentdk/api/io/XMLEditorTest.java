@@ -0,0 +1,209 @@
+package org.opentdk.api.io;
+
+import org.opentdk.api.datastorage.DataContainer;
+import org.opentdk.api.filter.EOperator;
+import org.opentdk.api.filter.Filter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPathExpressionException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+public class XMLEditorTest {
+
+    @Test
+    public void batch() throws IOException, ParserConfigurationException, SAXException, TransformerException, XPathExpressionException {
+        Path file = Files.createTempFile("batch", ".xml");
+        try {
+            Files.writeString(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><settings><users/></settings>");
+            XMLEditor editor = new XMLEditor(file);
+            String before = Files.readString(file);
+
+            editor.beginBatch();
+            for (int i = 0; i < 100; i++) {
+                editor.addElement("/settings/users", "user", "name", "user" + i);
+            }
+            Element user = editor.getElement("/settings/users/user[@name='user5']");
+            editor.setElementValue(user, "admin");
+            editor.beginBatch();
+            editor.delElement("/settings/users", "user", "name", "user0");
+            editor.commit();
+            // Nothing is written before the outermost batch is committed
+            Assert.assertTrue(editor.isBatch());
+            Assert.assertTrue(editor.hasPendingChanges());
+            Assert.assertEquals(Files.readString(file), before);
+
+            editor.commit();
+            Assert.assertFalse(editor.isBatch());
+            Assert.assertFalse(editor.hasPendingChanges());
+            XMLEditor saved = new XMLEditor(file);
+            Assert.assertEquals(saved.getElementsListByXPath("/settings/users/user").size(), 99);
+            Assert.assertEquals(saved.readXPath("/settings/users/user[@name='user5']"), "admin");
+
+            // Without a batch every change is written immediately
+            editor.addElement("/settings/users", "user", "name", "single");
+            Assert.assertTrue(Files.readString(file).contains("single"));
+            Assert.assertThrows(IllegalStateException.class, editor::commit);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.out.println("Success: Batch of changes is saved once");
+    }
+
+    @Test
+    public void xPathCache() throws IOException, ParserConfigurationException, SAXException, XPathExpressionException {
+        XMLEditor editor = new XMLEditor(new ByteArrayInputStream("<settings><app name=\"a\">1</app><app name=\"b\">2</app></settings>".getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(editor.readXPath("/settings/app[@name='b']"), "2");
+            Assert.assertEquals(editor.getText("/settings/app[1]"), "1");
+            Assert.assertEquals(editor.getElementsListByXPath("/settings/app").size(), 2);
+        }
+        Assert.assertEquals(editor.getXPathCacheCount(), 3);
+        Assert.assertThrows(XPathExpressionException.class, () -> editor.getElement("/settings/app[@name="));
+        Assert.assertEquals(editor.getXPathCacheCount(), 3);
+
+        // Least recently used expressions are removed first
+        editor.setXPathCacheSize(1);
+        Assert.assertEquals(editor.getXPathCacheCount(), 1);
+        Assert.assertEquals(editor.getElementsListByXPath("/settings/app").size(), 2);
+        editor.setXPathCacheSize(0);
+        Assert.assertEquals(editor.readXPath("/settings/app[@name='a']"), "1");
+        Assert.assertEquals(editor.getXPathCacheCount(), 0);
+        System.out.println("Success: Compiled XPath expressions are cached");
+    }
+
+    @Test
+    public void factories() throws Exception {
+        Assert.assertSame(XMLFactories.getDocumentBuilder(), XMLFactories.getDocumentBuilder());
+        Assert.assertSame(XMLFactories.getTransformer(true), XMLFactories.getTransformer(false));
+        DocumentBuilder other = CompletableFuture.supplyAsync(() -> {
+            try {
+                return XMLFactories.getDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+        Assert.assertNotSame(other, XMLFactories.getDocumentBuilder());
+
+        // The reused transformer does not keep the output options of the previous call
+        XMLEditor editor = new XMLEditor(new ByteArrayInputStream("<settings><app>1</app></settings>".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertFalse(editor.asString(editor.getRoot(), true).startsWith("<?xml"));
+        Assert.assertTrue(editor.asString().startsWith("<?xml"));
+        Assert.assertTrue(editor.validateXMLString("<a><b/></a>"));
+        Assert.assertFalse(editor.validateXMLString("<a><b></a>"));
+        Assert.assertThrows(SAXException.class, () -> new XMLEditor(new ByteArrayInputStream("<!DOCTYPE a [<!ENTITY e \"x\">]><a>&e;</a>".getBytes(StandardCharsets.UTF_8))));
+        System.out.println("Success: Factories are reused per thread");
+    }
+
+    @Test
+    public void elementReader() throws IOException {
+        Path file = Files.createTempFile("contacts", ".xml");
+        try {
+            Files.writeString(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Contacts>"
+                    + "<Business><person id=\"1\"><name>Emma</name><city>Berlin</city></person>"
+                    + "<person id=\"2\"><name>Ben</name><city>Wien</city><!-- moved --></person>"
+                    + "<group><person id=\"3\"><name>Anna &amp; Paul</name><city>Berlin</city></person></group></Business>"
+                    + "<Private><person id=\"4\"><name>Felix</name><city><![CDATA[Berlin]]></city></person></Private></Contacts>");
+
+            try (XMLElementReader reader = new XMLElementReader(file, "/Contacts/Business/person")) {
+                XMLRecord first = reader.next();
+                Assert.assertEquals(first.path(), "/Contacts/Business/person");
+                Assert.assertEquals(first.getValue("id"), "1");
+                Assert.assertEquals(first.getValue("@id"), "1");
+                Assert.assertEquals(first.getValue("city"), "Berlin");
+                Assert.assertEquals(first.getValue("person"), "EmmaBerlin");
+                Assert.assertEquals(first.getValue("missing"), "");
+                Assert.assertEquals(reader.next().children().keySet().toString(), "[name, city]");
+                Assert.assertFalse(reader.hasNext());
+            }
+            try (XMLElementReader reader = new XMLElementReader(file, "//person")) {
+                Assert.assertEquals(reader.stream().map(p -> p.getValue("name")).toList(), List.of("Emma", "Ben", "Anna & Paul", "Felix"));
+            }
+            try (XMLElementReader reader = new XMLElementReader(file, "/Contacts/*/person")) {
+                Assert.assertEquals(reader.stream().count(), 3);
+            }
+
+            // Same values as the document tree of the container
+            Filter filter = new Filter();
+            filter.addFilterRule("XPath", "/Contacts/Business/person", EOperator.EQUALS);
+            DataContainer dc = DataContainer.newContainer(file);
+            Assert.assertEquals(dc.get(file, "name", filter), dc.get("name", filter));
+            filter.addFilterRule("name", "Ben", EOperator.NOT_EQUALS);
+            Assert.assertEquals(dc.get(file, "name", filter), new String[] {"Emma"});
+
+            Filter cityFilter = new Filter();
+            cityFilter.addFilterRule("city", "Berlin", EOperator.EQUALS);
+            try (Stream<XMLRecord> persons = dc.streamElements(file, "person", cityFilter)) {
+                Assert.assertEquals(persons.map(p -> p.getValue("id")).toList(), List.of("1", "3", "4"));
+            }
+            Assert.assertThrows(IllegalArgumentException.class, () -> new XMLElementReader(file, "/"));
+            // XPath syntax that the reader does not support is rejected instead of matching nothing
+            for (String path : List.of("/Contacts/Business/person[@id='1']", "/Contacts/Business/person/..", "person/@id", "/Contacts//person", "child::person", "person/name/text()")) {
+                Assert.assertThrows(IllegalArgumentException.class, () -> new XMLElementReader(file, path));
+            }
+            Filter predicate = new Filter();
+            predicate.addFilterRule("XPath", "/Contacts/Business/person[@id='1']", EOperator.EQUALS);
+            Assert.assertThrows(IllegalArgumentException.class, () -> dc.streamElements(file, "name", predicate));
+            Assert.assertThrows(IllegalArgumentException.class, () -> new XMLElementReader(file, "/Contacts/./Business"));
+
+            // A dot is part of a valid tag name
+            try (XMLElementReader reader = new XMLElementReader(new ByteArrayInputStream("<root><log.entry level=\"1\">started</log.entry></root>".getBytes(StandardCharsets.UTF_8)), "/root/log.entry")) {
+                Assert.assertEquals(reader.next().getValue("log.entry"), "started");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.out.println("Success: Elements are streamed without the document tree");
+    }
+
+    @Test
+    public void documentWriter() throws Exception {
+        String content = "<settings><app name=\"a &amp; &quot;b&quot; &lt;c&gt;\" tab=\"1&#9;2\">1 &amp; &lt;2&gt; \"q\"</app>"
+                + "<empty/><mixed>text<b>bold</b>tail</mixed><!-- comment --><data><![CDATA[x<y]]></data><?pi data?>"
+                + "<ns:item ns:z=\"1\" xmlns:ns=\"urn:x\"/></settings>";
+        XMLEditor editor = new XMLEditor(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+        // Same output as the indenting transformer
+        StringWriter expected = new StringWriter();
+        XMLFactories.getTransformer(false).transform(new DOMSource(editor.getDocument()), new StreamResult(expected));
+        Assert.assertEquals(editor.asString(), expected.toString());
+        StringWriter expectedNode = new StringWriter();
+        XMLFactories.getTransformer(true).transform(new DOMSource(editor.getRoot().getFirstChild()), new StreamResult(expectedNode));
+        Assert.assertEquals(editor.asString(editor.getRoot().getFirstChild(), true), expectedNode.toString());
+
+        Path file = Files.createTempFile("writer", ".xml");
+        try {
+            // White space of an indented file is skipped without changing the document. The indentation of
+            // mixed content is part of the text when the file is read again.
+            editor.getRoot().removeChild(editor.getElement("/settings/mixed"));
+            editor.save(file.toFile());
+            String saved = Files.readString(file);
+            XMLEditor reloaded = new XMLEditor(file);
+            int nodes = reloaded.getRoot().getChildNodes().getLength();
+            reloaded.save(file.toFile());
+            Assert.assertEquals(Files.readString(file), saved);
+            Assert.assertEquals(reloaded.getRoot().getChildNodes().getLength(), nodes);
+
+            reloaded.getRoot().setAttribute("invalid", "\u0001");
+            Assert.assertThrows(IOException.class, () -> reloaded.save(file.toFile()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.out.println("Success: Document is written without transformer");
+    }
+}
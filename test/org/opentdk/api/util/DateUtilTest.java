@@ -4,11 +4,13 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public class DateUtilTest {
 
@@ -136,6 +138,101 @@ public class DateUtilTest {
         Assert.assertEquals(DateUtil.findDate(input).orElse(""), "23:59", "Extracted date matches the expected value.");
     }
 
+    @Test
+    public void findDates() {
+        List<DateDetector.Candidate> candidates = DateUtil.findAllDates("Backup vom 12/31/2024 um 23:59 Uhr");
+        Assert.assertEquals(candidates.getFirst().date(), "12/31/2024");
+        Assert.assertEquals(candidates.getFirst().start(), 11);
+        Assert.assertTrue(candidates.stream().anyMatch(c -> c.date().equals("23:59")));
+        for (int i = 1; i < candidates.size(); i++) {
+            Assert.assertTrue(candidates.get(i - 1).score() >= candidates.get(i).score());
+        }
+
+        List<String> column = List.of("Start 2021-03-29", "kein Datum", "20.03.2019 12:00:56", "Ende 23:45:31");
+        List<String> expected = new ArrayList<>();
+        for (String value : column) {
+            expected.add(DateUtil.findDate(value).orElse(null));
+        }
+        Assert.assertEquals(DateUtil.findDates(column), expected);
+        Assert.assertNull(DateUtil.findDates(column).get(1));
+        System.out.println("Success: Dates of column are " + expected);
+    }
+
+    @Test
+    public void addPattern() {
+        Assert.assertThrows(DateTimeException.class, () -> DateUtil.retrieveTemporal("2021_03_29"));
+        DateUtil.addPattern("yyyy_MM_dd");
+        Assert.assertEquals(DateUtil.compare("2021_03_29", "29.03.2021"), 0);
+        Assert.assertEquals(DateUtil.findDate("Export vom 2021_03_29").orElse(""), "2021_03_29");
+        Assert.assertTrue(DateUtil.getAllFormats().contains("yyyy_MM_dd"));
+        System.out.println("Success: Added pattern is supported");
+    }
+
+    @Test
+    public void dateParser() {
+        DateParser parser = DateUtil.getParser().withZone(ZoneId.of("UTC")).withPattern("dd_MM_yyyy");
+        Assert.assertEquals(parser.getZoneId(), ZoneId.of("UTC"));
+        Assert.assertEquals(parser.get("29_03_2021", "yyyy-MM-dd"), "2021-03-29");
+        Assert.assertEquals(parser.retrieveZonedDateTime(parser.retrieveTemporal("29.03.2021")).getZone(), ZoneId.of("UTC"));
+        Assert.assertEquals(new DateMatcher(parser).compare("29_03_2021", "29.03.2021"), 0);
+        // The derived parser does not change the configuration of DateUtil
+        Assert.assertFalse(DateUtil.getAllFormats().contains("dd_MM_yyyy"));
+        Assert.assertThrows(DateTimeException.class, () -> DateUtil.retrieveTemporal("29_03_2021"));
+        System.out.println("Success: Derived parser has its own configuration");
+    }
+
+    @Test
+    public void epochUtil() {
+        List<String> first = List.of("2020-12-31", "2021-04-01-12.30.00.000000", "14:15:32", "Irgendetwas");
+        List<String> second = List.of("20210102", "2020-04-01-12:30:00,000", "14:15:30", "2021-03-30");
+        long[] firstMillis = EpochUtil.toEpochMillis(first);
+        long[] secondMillis = EpochUtil.toEpochMillis(second);
+        long[] seconds = EpochUtil.diff(firstMillis, secondMillis, ChronoUnit.SECONDS);
+        long[] days = EpochUtil.diffDays(EpochUtil.toEpochDays(first), EpochUtil.toEpochDays(second), ChronoUnit.DAYS);
+        int[] compare = EpochUtil.compare(firstMillis, secondMillis);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(seconds[i], DateUtil.diff(first.get(i), second.get(i), ChronoUnit.SECONDS));
+            Assert.assertEquals(days[i], DateUtil.diff(first.get(i), second.get(i), ChronoUnit.DAYS));
+            Assert.assertEquals(compare[i], DateUtil.compare(first.get(i), second.get(i)));
+        }
+        Assert.assertEquals(seconds[3], EpochUtil.MISSING);
+        Assert.assertEquals(compare[3], Integer.MIN_VALUE);
+
+        long[] shifted = EpochUtil.shiftDays(EpochUtil.toEpochDays(first), -42, ChronoUnit.DAYS);
+        Assert.assertEquals(EpochUtil.formatDays(shifted, "yyyy-MM-dd")[0], DateUtil.get(first.get(0), -42, "yyyy-MM-dd", ChronoUnit.DAYS));
+        Assert.assertEquals(EpochUtil.format(EpochUtil.shift(firstMillis, 2, ChronoUnit.HOURS), "HH:mm:ss")[2], "16:15:32");
+        Assert.assertEquals(EpochUtil.formatDays(EpochUtil.bucketDays(EpochUtil.toEpochDays(List.of("04.04.2021")), ChronoUnit.WEEKS), "yyyy-MM-dd")[0], "2021-03-29");
+        Assert.assertNull(EpochUtil.format(firstMillis, "yyyyMMdd")[3]);
+        System.out.println("Success: Epoch arrays give the same results as DateUtil");
+    }
+
+    @Test
+    public void dateMatcher() {
+        DateMatcher matcher = new DateMatcher();
+        String[] values = {"20.03.2019", "21.03.2019", "12/24/1985", "05/04/2020", "2021.03.29 12:00:56", "23:45:31", "Irgendetwas"};
+        for (String value : values) {
+            String expected;
+            String actual;
+            try {
+                expected = DateUtil.retrieveTemporal(value).toString();
+            } catch (DateTimeException e) {
+                expected = "unsupported";
+            }
+            try {
+                actual = matcher.parse(value).toString();
+            } catch (DateTimeException e) {
+                actual = "unsupported";
+            }
+            Assert.assertEquals(actual, expected, value);
+        }
+        Assert.assertEquals(matcher.compare("20.03.2019", "2019-03-19"), 1);
+        Assert.assertEquals(matcher.compare("2019-03-19", "2019-03-19"), 0);
+        Assert.assertEquals(matcher.findDate("Das Event findet am 15.02.2025 um 10:00:30 Uhr statt."), Optional.of("15.02.2025"));
+        Assert.assertEquals(matcher.findDate("Backup wurde am 12/31/2024 durchgeführt."), DateUtil.findDate("Backup wurde am 12/31/2024 durchgeführt."));
+        Assert.assertTrue(matcher.findDate("Kein Datum").isEmpty());
+        System.out.println("Success: DateMatcher matches DateUtil");
+    }
+
     @Test
     public void generateFormats() {
         List<String> formats = new ArrayList<>();
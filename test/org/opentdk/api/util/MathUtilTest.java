@@ -0,0 +1,158 @@
+package org.opentdk.api.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MathUtilTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void arrayOverloads() {
+        Random random = new Random(42);
+        List<Double> xList = new ArrayList<>();
+        List<Double> yList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double x = 1000 + random.nextGaussian();
+            xList.add(x);
+            yList.add(2 * x + random.nextGaussian());
+        }
+        double[] x = MathUtil.listToArray(xList);
+        double[] y = MathUtil.listToArray(yList);
+
+        Assert.assertEquals(MathUtil.getArithmeticMean(x), MathUtil.getArithmeticMean(xList), DELTA);
+        Assert.assertEquals(MathUtil.getMinimum(x, 1), MathUtil.getMinimum(xList, 1));
+        Assert.assertEquals(MathUtil.getMaximum(x), MathUtil.getMaximum(xList));
+        Assert.assertEquals(MathUtil.getPercentile(x, 90), MathUtil.getPercentile(xList, 90));
+        Assert.assertEquals(MathUtil.getStandardDeviation(x), MathUtil.getStandardDeviation(xList), DELTA);
+        Assert.assertEquals(MathUtil.getStandardDeviation(x, false), MathUtil.getStandardDeviation(xList, false), DELTA);
+        Assert.assertEquals(MathUtil.getCovariance(x, y), MathUtil.getCovariance(xList, yList), DELTA);
+        Assert.assertEquals(MathUtil.getLinearCorrelationCoefficient(x, y), MathUtil.getLinearCorrelationCoefficient(xList, yList), DELTA);
+        System.out.println("Success: Array overloads match the List methods");
+    }
+
+    @Test
+    public void statSummary() {
+        double[] values = {4, 7, 13, 16, -2.5, 8};
+        StatSummary summary = MathUtil.getSummary(values);
+        Assert.assertEquals(summary.getCount(), 6);
+        Assert.assertEquals(summary.getSum(), 45.5, DELTA);
+        Assert.assertEquals(summary.getMin(), -2.5);
+        Assert.assertEquals(summary.getMax(), 16.0);
+        Assert.assertEquals(summary.getMean(), MathUtil.getArithmeticMean(values), DELTA);
+        Assert.assertEquals(summary.getStandardDeviation(true), MathUtil.getStandardDeviation(List.of(4.0, 7.0, 13.0, 16.0, -2.5, 8.0), true), DELTA);
+
+        // Merged summaries of two parts equal the summary of all values
+        StatSummary merged = new StatSummary().acceptAll(new double[] {4, 7, 13}).combine(new StatSummary().acceptAll(new double[] {16, -2.5, 8}));
+        Assert.assertEquals(merged.getCount(), summary.getCount());
+        Assert.assertEquals(merged.getMean(), summary.getMean(), DELTA);
+        Assert.assertEquals(merged.getVariance(true), summary.getVariance(true), DELTA);
+        Assert.assertEquals(MathUtil.getSummary(DoubleBuffer.wrap(values)).getVariance(false), summary.getVariance(false), DELTA);
+        Assert.assertTrue(Double.isNaN(new StatSummary().getMean()));
+
+        double[] y = {1, 3, 2, 5, 4, 6};
+        BivariateStatSummary pairs = MathUtil.getSummary(values, y);
+        BivariateStatSummary parts = MathUtil.getSummary(new double[] {4, 7}, new double[] {1, 3}).combine(MathUtil.getSummary(new double[] {13, 16, -2.5, 8}, new double[] {2, 5, 4, 6}));
+        Assert.assertEquals(pairs.getCovariance(false), MathUtil.getCovariance(values, y), DELTA);
+        Assert.assertEquals(parts.getCovariance(true), pairs.getCovariance(true), DELTA);
+        Assert.assertEquals(parts.getCorrelation(), pairs.getCorrelation(), DELTA);
+        System.out.println("Success: Single pass statistics match the MathUtil methods");
+    }
+
+    @Test
+    public void percentiles() {
+        Random random = new Random(7);
+        for (int size : new int[] {1, 2, 5, 100, 1001}) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                // Few distinct values and some NaN values
+                values[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(50);
+            }
+            for (double p : new double[] {0.1, 1, 25, 50, 90, 99.9, 100}) {
+                Assert.assertEquals(MathUtil.selectPercentile(values.clone(), p), MathUtil.getPercentile(values, p), "size " + size + " p " + p);
+            }
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> MathUtil.selectPercentile(new double[] {1}, 0));
+
+        // Sketches of two parts estimate the ranks of all values
+        int size = 200000;
+        QuantileSketch first = new QuantileSketch(QuantileSketch.DEFAULT_K, 1);
+        QuantileSketch second = new QuantileSketch(QuantileSketch.DEFAULT_K, 2);
+        for (int i = 0; i < size; i++) {
+            (i % 2 == 0 ? first : second).accept(random.nextInt(size));
+        }
+        QuantileSketch sketch = first.merge(second);
+        Assert.assertEquals(sketch.getCount(), size);
+        Assert.assertTrue(sketch.getRetained() < 1000, "retained " + sketch.getRetained());
+        for (double q : new double[] {0.01, 0.25, 0.5, 0.9, 0.99}) {
+            Assert.assertEquals(sketch.getQuantile(q) / size, q, 0.02, "quantile " + q);
+            Assert.assertEquals(sketch.getRank(q * size), q, 0.02, "rank " + q);
+        }
+        Assert.assertEquals(sketch.getQuantile(1), sketch.getMax());
+        Assert.assertTrue(Double.isNaN(new QuantileSketch().getPercentile(50)));
+        System.out.println("Success: Exact and estimated percentiles");
+    }
+
+    @Test
+    public void orderStatisticTree() {
+        Random random = new Random(11);
+        OrderStatisticTree tree = new OrderStatisticTree();
+        List<Double> window = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double value = random.nextInt(200) / 4.0;
+            tree.add(value);
+            window.add(value);
+            if (window.size() > 300) {
+                Assert.assertTrue(tree.remove(window.removeFirst()));
+            }
+            if (i % 250 == 0) {
+                List<Double> ranks = MathUtil.getRankList(window);
+                for (int j = 0; j < window.size(); j++) {
+                    Assert.assertEquals((double) tree.getRank(window.get(j)), ranks.get(j));
+                }
+                double[] sorted = MathUtil.listToArray(window);
+                java.util.Arrays.sort(sorted);
+                Assert.assertEquals(tree.toArray(), sorted);
+                Assert.assertEquals(tree.getPercentile(95), MathUtil.getPercentile(sorted, 95));
+                Assert.assertEquals(tree.select(window.size() / 2), sorted[window.size() / 2]);
+            }
+        }
+        Assert.assertFalse(tree.remove(-1));
+        Assert.assertEquals(tree.size(), 300);
+
+        // The borders are the values next to the extreme values of getWinsorizedValue
+        List<Double> values = List.of(9.0, 1.0, 5.0, 3.0, 7.0, 2.0, 8.0, 4.0, 6.0, 10.0, 100.0, -50.0);
+        List<Double> extreme = new ArrayList<>();
+        MathUtil.getWinsorizedValue(values, (byte) 80, false, extreme, 0);
+        OrderStatisticTree bounds = new OrderStatisticTree().addAll(MathUtil.listToArray(values));
+        Assert.assertEquals(bounds.getLowerWinsorBound((byte) 80), 2.0);
+        Assert.assertEquals(bounds.getUpperWinsorBound((byte) 80), 9.0);
+        Assert.assertEquals(extreme, List.of(-50.0, 1.0, 10.0, 100.0));
+        Assert.assertEquals(bounds.winsorize(1000, (byte) 80), 9.0);
+        Assert.assertEquals(bounds.winsorize(4.5, (byte) 80), 4.5);
+        System.out.println("Success: Ranks and bounds of the rolling window");
+    }
+
+    @Test
+    public void arrayTransforms() {
+        List<Double> values = List.of(0.5, 2.0, 3.5, 7.25, 9.0, 0.125);
+        Assert.assertEquals(MathUtil.logValues(MathUtil.listToArray(values)), MathUtil.listToArray(MathUtil.logListValues(values)));
+        Assert.assertEquals(MathUtil.rootValues(MathUtil.listToArray(values)), MathUtil.listToArray(MathUtil.rootListValues(values)));
+        Assert.assertEquals(MathUtil.inversValues(MathUtil.listToArray(values)), MathUtil.listToArray(MathUtil.inversListValues(values)));
+        Assert.assertEquals(MathUtil.logisticValues(MathUtil.listToArray(values), 10), MathUtil.listToArray(MathUtil.logisticListValues(values, 10)));
+        List<Double> normed = new ArrayList<>(values);
+        MathUtil.norm(normed);
+        Assert.assertEquals(MathUtil.norm(MathUtil.listToArray(values)), MathUtil.listToArray(normed));
+
+        // Values that are skipped by the List methods become NaN
+        double[] negative = {-1, 4};
+        Assert.assertTrue(Double.isNaN(MathUtil.rootValues(negative)[0]));
+        Assert.assertEquals(negative[1], 2.0);
+        System.out.println("Success: Array transforms match the List methods");
+    }
+}
@@ -0,0 +1,109 @@
+package org.opentdk.api.util;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.regex.Pattern;
+
+public class PatternCacheTest {
+
+    @BeforeMethod
+    public void reset() {
+        PatternCache.setCapacity(PatternCache.DEFAULT_CAPACITY);
+        PatternCache.clear();
+    }
+
+    @AfterMethod
+    public void restore() {
+        reset();
+    }
+
+    @Test
+    public void hitsAndMisses() {
+        Pattern first = PatternCache.get("a+b");
+        Assert.assertEquals(PatternCache.getMisses(), 1);
+        Assert.assertEquals(PatternCache.getHits(), 0);
+
+        Pattern second = PatternCache.get("a+b");
+        Assert.assertSame(second, first);
+        Assert.assertSame(PatternCache.get("a+b", 0), first);
+        Assert.assertEquals(PatternCache.getMisses(), 1);
+        Assert.assertEquals(PatternCache.getHits(), 2);
+        Assert.assertEquals(PatternCache.size(), 1);
+        System.out.println("Success: PatternCache counts hits and misses");
+    }
+
+    @Test
+    public void flags() {
+        Pattern plain = PatternCache.get("anna");
+        Pattern ignoreCase = PatternCache.get("anna", Pattern.CASE_INSENSITIVE);
+        Assert.assertNotSame(ignoreCase, plain);
+        Assert.assertEquals(ignoreCase.flags(), Pattern.CASE_INSENSITIVE);
+        Assert.assertFalse(plain.matcher("ANNA").matches());
+        Assert.assertTrue(ignoreCase.matcher("ANNA").matches());
+        Assert.assertEquals(PatternCache.size(), 2);
+        Assert.assertEquals(PatternCache.getMisses(), 2);
+
+        Assert.assertSame(PatternCache.get("anna", Pattern.CASE_INSENSITIVE), ignoreCase);
+        Assert.assertEquals(PatternCache.getHits(), 1);
+        System.out.println("Success: PatternCache keeps patterns with different flags apart");
+    }
+
+    @Test
+    public void eviction() {
+        PatternCache.setCapacity(3);
+        Pattern a = PatternCache.get("a");
+        PatternCache.get("b");
+        PatternCache.get("c");
+        // Makes "b" the least recently used pattern
+        PatternCache.get("a");
+        PatternCache.get("c");
+        PatternCache.get("d");
+        Assert.assertEquals(PatternCache.size(), 3);
+        Assert.assertSame(PatternCache.get("a"), a);
+
+        long misses = PatternCache.getMisses();
+        PatternCache.get("b");
+        Assert.assertEquals(PatternCache.getMisses(), misses + 1);
+        Assert.assertEquals(PatternCache.size(), 3);
+        System.out.println("Success: PatternCache removes the least recently used pattern");
+    }
+
+    @Test
+    public void capacity() {
+        for (int i = 0; i < 10; i++) {
+            PatternCache.get("p" + i);
+        }
+        // Makes "p0" the most recently used pattern
+        Pattern p0 = PatternCache.get("p0");
+        Assert.assertEquals(PatternCache.size(), 10);
+
+        PatternCache.setCapacity(2);
+        Assert.assertEquals(PatternCache.getCapacity(), 2);
+        Assert.assertEquals(PatternCache.size(), 2);
+        long misses = PatternCache.getMisses();
+        Assert.assertSame(PatternCache.get("p0"), p0);
+        PatternCache.get("p9");
+        Assert.assertEquals(PatternCache.getMisses(), misses);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> PatternCache.setCapacity(0));
+        Assert.assertEquals(PatternCache.getCapacity(), 2);
+        System.out.println("Success: PatternCache shrinks to a smaller capacity");
+    }
+
+    @Test
+    public void clear() {
+        Pattern pattern = PatternCache.get("x*");
+        PatternCache.get("x*");
+        PatternCache.clear();
+        Assert.assertEquals(PatternCache.size(), 0);
+        Assert.assertEquals(PatternCache.getHits(), 0);
+        Assert.assertEquals(PatternCache.getMisses(), 0);
+
+        Assert.assertNotSame(PatternCache.get("x*"), pattern);
+        Assert.assertEquals(PatternCache.getMisses(), 1);
+        System.out.println("Success: PatternCache clear removes patterns and resets counters");
+    }
+}